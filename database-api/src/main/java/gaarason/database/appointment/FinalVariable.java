@@ -50,6 +50,11 @@ public final class FinalVariable {
      */
     public static final int DEFAULT_CAUSED_BY_DEADLOCK_RETRY_COUNT = 2;
 
+    /**
+     * 游标查询时, 驱动单次抓取的默认行数
+     */
+    public static final int DEFAULT_CURSOR_FETCH_SIZE = 500;
+
     /**
      * 链接中的元数据字段
      */
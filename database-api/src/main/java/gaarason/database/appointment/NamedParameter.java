@@ -0,0 +1,58 @@
+package gaarason.database.appointment;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 具名参数
+ * 在查询构造器中代替参数的值, 编译为查询模板后, 每次执行时再绑定
+ * eg: newQuery().where("user_id", NamedParameter.of("userId")).compile()
+ * @author xt
+ */
+public final class NamedParameter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 参数名
+     */
+    private final String name;
+
+    private NamedParameter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 具名参数
+     * @param name 参数名
+     * @return 具名参数
+     */
+    public static NamedParameter of(String name) {
+        return new NamedParameter(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return name.equals(((NamedParameter) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+
+    @Override
+    public String toString() {
+        return ":" + name;
+    }
+}
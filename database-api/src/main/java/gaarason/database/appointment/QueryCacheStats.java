@@ -0,0 +1,91 @@
+package gaarason.database.appointment;
+
+import java.io.Serializable;
+
+/**
+ * 查询结果缓存的统计信息
+ * @author xt
+ */
+public final class QueryCacheStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 命中次数
+     */
+    private final long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private final long missCount;
+
+    /**
+     * 淘汰次数 (容量或者过期, 不含主动失效)
+     */
+    private final long evictionCount;
+
+    /**
+     * 失效次数 (按表名失效)
+     */
+    private final long invalidationCount;
+
+    /**
+     * 当前缓存的条目数
+     */
+    private final long size;
+
+    /**
+     * 当前缓存的估算字节数
+     */
+    private final long weight;
+
+    public QueryCacheStats(long hitCount, long missCount, long evictionCount, long invalidationCount, long size,
+        long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * 命中率
+     * @return 命中率, 没有请求时为 0
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheStats{" + "hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" +
+            evictionCount + ", invalidationCount=" + invalidationCount + ", size=" + size + ", weight=" + weight + '}';
+    }
+}
@@ -1,6 +1,7 @@
 package gaarason.database.config;
 
 import gaarason.database.appointment.FinalVariable;
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.exception.TypeCastException;
 import gaarason.database.lang.Nullable;
 
@@ -58,5 +59,17 @@ public interface ConversionConfig {
     @Nullable
     Object getValueFromJdbcResultSet(@Nullable Field field, ResultSet resultSet, String column) throws SQLException;
 
+    /**
+     * 根据java类型，获取jdbc中的数据结果的读取器
+     * 按类型仅解析一次, 之后通过列的下标读取
+     * @param field field
+     * @return 读取器
+     * @see #getValueFromJdbcResultSet(Field, ResultSet, String)
+     */
+    default ColumnReaderFunctionalInterface<Object> getJdbcResultSetReader(@Nullable Field field) {
+        return (resultSet, columnIndex) -> getValueFromJdbcResultSet(field, resultSet,
+            resultSet.getMetaData().getColumnLabel(columnIndex));
+    }
+
 
 }
@@ -4,6 +4,9 @@
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Model;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+
 /**
  * 区分数据库类型的查询构造器
  * @author xt
@@ -34,4 +37,26 @@ public interface QueryBuilderConfig {
      */
     <T, K> Builder<?, T, K> newBuilder(GaarasonDataSource gaarasonDataSource, Model<?, T, K> model);
 
+    /**
+     * 游标查询时, 实际交给驱动的 fetchSize
+     * 部分驱动需要特殊值才会真正逐行读取
+     * @param fetchSize 期望的单次抓取行数
+     * @return 实际交给驱动的 fetchSize
+     */
+    default int getCursorFetchSize(int fetchSize) {
+        return fetchSize;
+    }
+
+    /**
+     * 游标查询时, 实际交给驱动的 fetchSize
+     * 可根据连接的配置决定
+     * @param connection 数据库连接
+     * @param fetchSize 期望的单次抓取行数
+     * @return 实际交给驱动的 fetchSize
+     * @throws SQLException 数据库异常
+     */
+    default int getCursorFetchSize(Connection connection, int fetchSize) throws SQLException {
+        return getCursorFetchSize(fetchSize);
+    }
+
 }
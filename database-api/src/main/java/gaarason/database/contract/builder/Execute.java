@@ -6,11 +6,14 @@
 import gaarason.database.contract.function.ChunkFunctionalInterface;
 import gaarason.database.exception.EntityNotFoundException;
 import gaarason.database.exception.InsertNotSuccessException;
+import gaarason.database.exception.PrimaryKeyNotFoundException;
 import gaarason.database.exception.SQLRuntimeException;
 import gaarason.database.lang.Nullable;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * 执行
@@ -62,14 +65,45 @@
     RecordList<T, K> get() throws SQLRuntimeException;
 
     /**
-     * 分块获取所有数据(兼容性强), 并处理
-     * 使用偏移分页
+     * 游标获取所有数据, 逐条读取, 内存占用不随数据量增长
+     * 数据库连接将一直被占用, 直到流被关闭, 因此应当在 try-with-resources 中使用
+     * 不支持关联关系(with), 需要时使用 dealChunk
+     * eg : try (Stream<Record<T, K>> stream = newQuery().cursor()) { ... }
+     * @return 数剧记录流
+     * @throws SQLRuntimeException 数据库异常
+     */
+    Stream<Record<T, K>> cursor() throws SQLRuntimeException;
+
+    /**
+     * 游标获取所有数据, 逐条读取, 内存占用不随数据量增长
+     * 数据库连接将一直被占用, 直到流被关闭, 因此应当在 try-with-resources 中使用
+     * 不支持关联关系(with), 需要时使用 dealChunk
+     * @param fetchSize 驱动单次抓取的行数
+     * @return 数剧记录流
+     * @throws SQLRuntimeException 数据库异常
+     */
+    Stream<Record<T, K>> cursor(int fetchSize) throws SQLRuntimeException;
+
+    /**
+     * 分块获取所有数据, 并处理
+     * 存在主键时使用主键索引(游标)分页; 无主键, 或者存在 order/group/join/union 时, 使用偏移分页
      * @param num 单次获取的数据量
      * @param chunkFunctionalInterface 对单次获取的数据量的处理
      * @throws SQLRuntimeException 数据库异常
      */
     void dealChunk(int num, ChunkFunctionalInterface<T, K> chunkFunctionalInterface) throws SQLRuntimeException;
 
+    /**
+     * 分块获取所有数据, 并处理
+     * 存在主键时使用主键索引(游标)分页; 无主键, 或者存在 order/group/join/union 时, 使用偏移分页
+     * @param num 单次获取的数据量
+     * @param prefetch 是否在处理当前块的同时, 异步查询下一块 (事务中无效)
+     * @param chunkFunctionalInterface 对单次获取的数据量的处理
+     * @throws SQLRuntimeException 数据库异常
+     */
+    void dealChunk(int num, boolean prefetch, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
+        throws SQLRuntimeException;
+
     /**
      * 分块获取所有数据(数据库性能好), 并处理
      * 使用索引(游标)分页
@@ -81,6 +115,43 @@
     void dealChunk(int num, String column, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
         throws SQLRuntimeException;
 
+    /**
+     * 分块获取所有数据(数据库性能好), 并处理
+     * 使用索引(游标)分页
+     * @param num 单次获取的数据量
+     * @param column 分页字段 (字段要求: 数据库唯一约束(索引), 排序稳定 . eg: 单调递增主键)
+     * @param prefetch 是否在处理当前块的同时, 异步查询下一块 (事务中无效)
+     * @param chunkFunctionalInterface 对单次获取的数据量的处理
+     * @throws SQLRuntimeException 数据库异常
+     */
+    void dealChunk(int num, String column, boolean prefetch, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
+        throws SQLRuntimeException;
+
+    /**
+     * 分块获取所有数据, 并使用异步线程池并行处理
+     * 查询依旧按顺序进行, 最多同时处理 parallelism 块, 达到上限时暂停查询
+     * 处理顺序不保证, 任一块处理返回 false 或者抛出异常后, 不再提交新的块
+     * @param num 单次获取的数据量
+     * @param parallelism 同时处理的最大块数
+     * @param chunkFunctionalInterface 对单次获取的数据量的处理 (需要线程安全)
+     * @throws SQLRuntimeException 数据库异常
+     */
+    void dealChunkParallel(int num, int parallelism, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
+        throws SQLRuntimeException;
+
+    /**
+     * 分块获取所有数据, 并使用指定线程池并行处理
+     * 查询依旧按顺序进行, 最多同时处理 parallelism 块, 达到上限时暂停查询
+     * 处理顺序不保证, 任一块处理返回 false 或者抛出异常后, 不再提交新的块
+     * @param num 单次获取的数据量
+     * @param parallelism 同时处理的最大块数
+     * @param executor 执行处理的线程池
+     * @param chunkFunctionalInterface 对单次获取的数据量的处理 (需要线程安全)
+     * @throws SQLRuntimeException 数据库异常
+     */
+    void dealChunkParallel(int num, int parallelism, Executor executor,
+        ChunkFunctionalInterface<T, K> chunkFunctionalInterface) throws SQLRuntimeException;
+
     /**
      * 单个原子操作中创建记录 or 删除冲突行后再创建记录
      * @return 受影响的行数
@@ -143,6 +214,17 @@ void dealChunk(int num, String column, ChunkFunctionalInterface<T, K> chunkFunct
      */
     int update() throws SQLRuntimeException;
 
+    /**
+     * 根据主键批量更新数据
+     * 按照配置的行数与占位符数量拆分, 每个语句块使用 update ... set col = case pk when ... end where pk in (...)
+     * 多个语句块在同一事务中执行
+     * @param entities 实体对象列表 (需要包含主键的值)
+     * @return 受影响的行数
+     * @throws SQLRuntimeException 数据库异常
+     * @throws PrimaryKeyNotFoundException 实体没有主键, 或者主键的值为 null
+     */
+    int updateMany(Collection<?> entities) throws SQLRuntimeException, PrimaryKeyNotFoundException;
+
     /**
      * 删除数据(根据模型确定是否使用软删除)
      * @return 受影响的行数
@@ -29,6 +29,21 @@ default <F> void dealChunk(int num, ColumnFunctionalInterface<T, F> column,
         dealChunk(num, lambda2ColumnName(column), chunkFunctionalInterface);
     }
 
+    /**
+     * 分块获取所有数据(数据库性能好), 并处理
+     * @param num 单次获取的数据量
+     * @param column 分页字段表达式 (字段要求: 数据库唯一约束(索引), 排序稳定 . eg: 单调递增主键)
+     * @param prefetch 是否在处理当前块的同时, 异步查询下一块 (事务中无效)
+     * @param chunkFunctionalInterface 对单次获取的数据量的处理
+     * @param <F> 属性类型
+     * @throws SQLRuntimeException 数据库异常
+     */
+    default <F> void dealChunk(int num, ColumnFunctionalInterface<T, F> column, boolean prefetch,
+        ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
+        throws SQLRuntimeException {
+        dealChunk(num, lambda2ColumnName(column), prefetch, chunkFunctionalInterface);
+    }
+
     /**
      * 单个原子操作中更新或创建记录
      * eg : newQuery().column(...).value(...).upsert(...);
@@ -8,6 +8,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 原生查询
@@ -76,6 +77,18 @@ Record<T, K> queryOrFail(String sql, @Nullable Collection<?> parameters)
      */
     RecordList<T, K> queryList(String sql, Object... parameters) throws SQLRuntimeException;
 
+    /**
+     * 游标获取所有数据, 逐条读取
+     * 数据库连接将一直被占用, 直到流被关闭, 因此应当在 try-with-resources 中使用
+     * @param sql 查询语句
+     * @param parameters 参数绑定列表
+     * @param fetchSize 驱动单次抓取的行数
+     * @return 数剧记录流
+     * @throws SQLRuntimeException 数据库异常
+     */
+    Stream<Record<T, K>> queryCursor(String sql, @Nullable Collection<?> parameters, int fetchSize)
+        throws SQLRuntimeException;
+
     /**
      * 执行语句
      * @param sql 查询语句
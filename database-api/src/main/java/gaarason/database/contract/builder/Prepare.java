@@ -1,9 +1,33 @@
 package gaarason.database.contract.builder;
 
+import gaarason.database.appointment.SqlType;
+import gaarason.database.contract.eloquent.CompiledQuery;
+import gaarason.database.exception.ConfirmOperationException;
+
 /**
  * 预备
+ * @param <T>
+ * @param <K>
  * @author xt
  */
-public interface Prepare {
+public interface Prepare<T, K> {
+
+    /**
+     * 编译为查询模板
+     * 查询构造器中的 NamedParameter 作为具名参数, 其余参数作为常量
+     * 模板不可变且线程安全, 执行时仅绑定参数, 不再生成sql
+     * @param sqlType sql类型
+     * @return 查询模板
+     * @throws ConfirmOperationException 更新或删除时没有 where 条件
+     */
+    CompiledQuery<T, K> compile(SqlType sqlType) throws ConfirmOperationException;
 
+    /**
+     * 编译为查询模板
+     * @return 查询模板
+     * @see #compile(SqlType)
+     */
+    default CompiledQuery<T, K> compile() {
+        return compile(SqlType.SELECT);
+    }
 }
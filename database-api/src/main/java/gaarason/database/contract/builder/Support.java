@@ -124,6 +124,17 @@ default B setAlias(Alias alias) {
         return getSelf();
     }
 
+    /**
+     * 作为关联关系子查询嵌入上级查询, 使用比上级深一层的别名
+     * 需要在引用上级别名之前调用, 以免自关联时内外层别名相同
+     * @param parent 上级查询构造器
+     * @return 查询构造器
+     */
+    default B nestIn(Builder<?, ?, ?> parent) {
+        getGrammar().aliasDepth(parent.alias().getDepth() + 1);
+        return getSelf();
+    }
+
     default B setAlias(@Nullable String alias) {
         if (alias != null) {
             getGrammar().alias().setAlias(alias);
@@ -1,12 +1,17 @@
 package gaarason.database.contract.connection;
 
+import gaarason.database.appointment.SqlType;
 import gaarason.database.config.QueryBuilderConfig;
 import gaarason.database.contract.transaction.SavepointManager;
 import gaarason.database.contract.transaction.TransactionManager;
 import gaarason.database.core.Container;
 import gaarason.database.exception.SQLRuntimeException;
+import gaarason.database.lang.Nullable;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -45,4 +50,63 @@ public interface GaarasonDataSource extends DataSource, SavepointManager, Transa
      * @param runnableList 事件回调列表
      */
     void addEvent(List<Runnable> runnableList);
+
+    /**
+     * 在连接上生成预执行对象
+     * 仅 INSERT/REPLACE 返回自增主键, SELECT 使用 TYPE_FORWARD_ONLY/CONCUR_READ_ONLY
+     * 连接被当前线程的事务持有时, 相同的sql将复用已经生成的预执行对象
+     * @param connection 数据库连接
+     * @param sql 带占位符的sql
+     * @param sqlType sql类型
+     * @return 预执行对象
+     * @throws SQLException sql错误
+     */
+    PreparedStatement prepareStatement(Connection connection, String sql, SqlType sqlType) throws SQLException;
+
+    /**
+     * 释放预执行对象, 由缓存持有的预执行对象将在事务结束时关闭
+     * @param connection 数据库连接
+     * @param sql 带占位符的sql
+     * @param preparedStatement 预执行对象
+     * @throws SQLException sql错误
+     */
+    void statementClose(Connection connection, String sql, PreparedStatement preparedStatement) throws SQLException;
+
+    /**
+     * 预执行对象缓存命中次数
+     * @return 次数
+     */
+    long getStatementCacheHitCount();
+
+    /**
+     * 预执行对象缓存未命中次数
+     * @return 次数
+     */
+    long getStatementCacheMissCount();
+
+    /**
+     * 数据源的标识, 进程内唯一, 按创建顺序生成
+     * 用于区分不同数据源中的同名表, eg: 查询结果缓存的键与标签
+     * @return 标识
+     */
+    String getIdentity();
+
+    /**
+     * 记录当前线程的写操作, 在读己之写的时间窗口内, 读操作也使用写连接
+     * 在执行非查询语句后调用, 事务中的写操作在提交时记录
+     */
+    void markLocalThreadWrite();
+
+    /**
+     * 当前线程最近一次写操作的时间(ms), 可用于跨线程(会话)传递, 配合 setLocalThreadLastWriteTime 使用
+     * @return 时间, 不在读己之写的时间窗口内时返回 null
+     */
+    @Nullable
+    Long getLocalThreadLastWriteTime();
+
+    /**
+     * 设置当前线程最近一次写操作的时间(ms)
+     * @param lastWriteTime 时间, null 表示清除
+     */
+    void setLocalThreadLastWriteTime(@Nullable Long lastWriteTime);
 }
@@ -0,0 +1,50 @@
+package gaarason.database.contract.connection;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 数据源负载均衡
+ * 从一组(主或从)数据源中选择本次使用的数据源, 并接收使用情况的反馈
+ * @author xt
+ */
+public interface LoadBalancer {
+
+    /**
+     * 选择数据源
+     * @param dataSourceList 数据源集合 (非空)
+     * @return 数据源
+     */
+    DataSource select(List<DataSource> dataSourceList);
+
+    /**
+     * 是否需要使用情况的反馈 (acquired/released)
+     * 不需要时, 不记录连接的使用耗时
+     * @return 是否需要
+     */
+    default boolean isFeedbackRequired() {
+        return false;
+    }
+
+    /**
+     * 反馈, 已从数据源获取连接
+     * @param dataSource 数据源
+     */
+    default void acquired(DataSource dataSource) {
+    }
+
+    /**
+     * 反馈, 连接已归还
+     * @param dataSource 数据源
+     * @param elapsedNanos 从获取连接到归还的耗时(纳秒), 含语句的执行
+     */
+    default void released(DataSource dataSource, long elapsedNanos) {
+    }
+
+    /**
+     * 反馈, 从数据源获取连接失败
+     * @param dataSource 数据源
+     */
+    default void failed(DataSource dataSource) {
+    }
+}
@@ -0,0 +1,36 @@
+package gaarason.database.contract.connection;
+
+import gaarason.database.lang.Nullable;
+
+import java.util.Collection;
+
+/**
+ * 分片策略
+ * 将分片键映射为分片名, 分片名可以是数据库链接名, 也可以是表名
+ * @author xt
+ */
+public interface ShardingStrategy {
+
+    /**
+     * 分片键对应的分片名
+     * @param shardingKey 分片键
+     * @return 分片名
+     */
+    String shard(Object shardingKey);
+
+    /**
+     * 全部的分片名, 用于跨分片查询
+     * @return 分片名集合
+     */
+    Collection<String> shards();
+
+    /**
+     * 分表时的逻辑表名
+     * 非 null 表示分片名为该逻辑表的实际表名, 写入分片提示的表通道; 否则分片名为数据库链接名, 写入链接通道
+     * @return 逻辑表名
+     */
+    @Nullable
+    default String logicTableName() {
+        return null;
+    }
+}
@@ -14,7 +14,7 @@
     WithLambda<B, T, K>, SelectLambda<B, T, K>, Special<B, T, K>, OrderLambda<B, T, K>, Limit<B, T, K>, GroupLambda<B, T, K>,
     Value<B, T, K>, DataLambda<B, T, K>, Transaction, AggregatesLambda<B, T, K>, PagerLambda<B, T, K>, Index<B, T, K>, Lock<B, T, K>,
     Native<T, K>, JoinLambda<B, T, K>, AbilityLambda<B, T, K>, When<B, T, K>, WhereLambda<B, T, K>, HavingLambda<B, T, K>,
-    ExtendedSerializable {
+    Prepare<T, K>, ExtendedSerializable {
 
     /**
      * 反序列化到指定查询构造器
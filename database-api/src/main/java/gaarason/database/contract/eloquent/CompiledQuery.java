@@ -0,0 +1,74 @@
+package gaarason.database.contract.eloquent;
+
+import gaarason.database.exception.AbnormalParameterException;
+import gaarason.database.exception.EntityNotFoundException;
+import gaarason.database.exception.SQLRuntimeException;
+import gaarason.database.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询模板
+ * 由查询构造器编译而成, 包含sql以及参数槽位, 与原生查询一样, 不触发查询事件, 可以进行关联关系查询
+ * 相同的sql在事务中将复用预执行对象
+ * @param <T> 实体类
+ * @param <K> 主键类型
+ * @author xt
+ */
+public interface CompiledQuery<T, K> {
+
+    /**
+     * 带占位符的sql
+     * @return sql
+     */
+    String getSql();
+
+    /**
+     * 具名参数的参数名, 按照出现的顺序 (可能重复)
+     * @return 参数名列表
+     */
+    List<String> getParameterNames();
+
+    /**
+     * 绑定参数
+     * @param parameters 参数名 -> 参数值
+     * @return 参数列表, 与sql中的占位符一一对应
+     * @throws AbnormalParameterException 存在未绑定的具名参数
+     */
+    List<Object> bind(Map<String, ?> parameters) throws AbnormalParameterException;
+
+    /**
+     * 获取所有数据
+     * @param parameters 参数名 -> 参数值
+     * @return 数剧记录
+     * @throws SQLRuntimeException 数据库异常
+     */
+    RecordList<T, K> get(Map<String, ?> parameters) throws SQLRuntimeException;
+
+    /**
+     * 获取第一条数据, 数据为空时返回null
+     * @param parameters 参数名 -> 参数值
+     * @return 数剧记录
+     * @throws SQLRuntimeException 数据库异常
+     */
+    @Nullable
+    Record<T, K> first(Map<String, ?> parameters) throws SQLRuntimeException;
+
+    /**
+     * 获取第一条数据, 数据为空时抛出异常
+     * @param parameters 参数名 -> 参数值
+     * @return 数剧记录
+     * @throws SQLRuntimeException 数据库异常
+     * @throws EntityNotFoundException 没有数据
+     */
+    Record<T, K> firstOrFail(Map<String, ?> parameters) throws SQLRuntimeException, EntityNotFoundException;
+
+    /**
+     * 执行更新/删除/插入
+     * @param parameters 参数名 -> 参数值
+     * @return 受影响的行数
+     * @throws SQLRuntimeException 数据库异常
+     */
+    int execute(Map<String, ?> parameters) throws SQLRuntimeException;
+}
@@ -114,6 +114,54 @@ default Map<String, Object> filterBatchRecordByRelationOperation(Record<?, ?> th
      */
     List<Object> filterBatchRecord(Record<?, ?> theRecord, RecordList<?, ?> targetRecordList, List<?> targetObjectList);
 
+    /**
+     * 为批量关联查询结果建立索引
+     * 针对关联关系操作
+     * 每个关联关系仅建立一次, 之后每个record的筛选均不再遍历结果集
+     * @param targetRecordList 目标的recordList
+     * @return 关系键值 -> 关联查询操作的结果, 不支持索引时为 null
+     */
+    @Nullable
+    default Map<Object, Map<String, Object>> indexBatchRecordByRelationOperation(RecordList<?, ?> targetRecordList) {
+        return null;
+    }
+
+    /**
+     * 通过索引筛选批量关联查询结果
+     * 针对关联关系操作
+     * @param theRecord 当前record
+     * @param index 索引
+     * @return 关联查询操作的结果
+     * @see #indexBatchRecordByRelationOperation(RecordList)
+     */
+    default Map<String, Object> filterBatchRecordByRelationOperation(Record<?, ?> theRecord,
+        Map<Object, Map<String, Object>> index) {
+        throw new OperationNotSupportedException();
+    }
+
+    /**
+     * 为批量关联查询结果对象建立索引
+     * 每个关联关系仅建立一次, 之后每个record的筛选均不再遍历对象列表
+     * @param targetRecordList 目标的recordList
+     * @param targetObjectList 目标的对象列表
+     * @return 关系键值 -> 对象列表, 不支持索引时为 null
+     */
+    @Nullable
+    default Map<Object, List<Object>> indexBatchRecord(RecordList<?, ?> targetRecordList, List<?> targetObjectList) {
+        return null;
+    }
+
+    /**
+     * 通过索引筛选批量关联查询结果对象
+     * @param theRecord 当前record
+     * @param index 索引
+     * @return 筛选后的查询结果集
+     * @see #indexBatchRecord(RecordList, List)
+     */
+    default List<Object> filterBatchRecord(Record<?, ?> theRecord, Map<Object, List<Object>> index) {
+        throw new OperationNotSupportedException();
+    }
+
     /**
      * 实现 whereHas
      * @param builder 当前查询构造器
@@ -0,0 +1,26 @@
+package gaarason.database.contract.function;
+
+import gaarason.database.lang.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 数据库结果集的列读取
+ * 按字段类型预先解析, 通过列的下标读取, 无需类型判断与列名查找
+ * @param <D> 对应的jdbc可使用的类型
+ * @author xt
+ */
+@FunctionalInterface
+public interface ColumnReaderFunctionalInterface<D> {
+
+    /**
+     * 读取当前行的指定列
+     * @param resultSet 数据库结果集
+     * @param columnIndex 列的下标(从1开始)
+     * @return 值
+     * @throws SQLException 数据库异常
+     */
+    @Nullable
+    D read(ResultSet resultSet, int columnIndex) throws SQLException;
+}
@@ -2,6 +2,7 @@
 
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
+import gaarason.database.contract.support.QueryCache;
 import gaarason.database.exception.EntityNotFoundException;
 import gaarason.database.exception.SQLRuntimeException;
 import gaarason.database.lang.Nullable;
@@ -10,6 +11,7 @@
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 /**
  * 原始sql执行, 不会做事件触发
@@ -26,6 +28,13 @@
      */
     ExecutorService getExecutorService();
 
+    /**
+     * 查询结果缓存, 为 null 时不使用缓存
+     * @return 查询结果缓存
+     */
+    @Nullable
+    QueryCache getQueryCache();
+
     /**
      * 获取第一条数据, 数据为空时抛出异常
      * @param sql 查询语句
@@ -56,6 +65,18 @@ Record<T, K> nativeQuery(String sql, @Nullable Collection<?> parameters)
      */
     RecordList<T, K> nativeQueryList(String sql, @Nullable Collection<?> parameters) throws SQLRuntimeException;
 
+    /**
+     * 游标获取所有数据, 逐条读取, 不会一次性加载全部结果集
+     * 数据库连接将一直被占用, 直到流被关闭, 因此应当在 try-with-resources 中使用
+     * @param sql 查询语句
+     * @param parameters 参数绑定列表
+     * @param fetchSize 驱动单次抓取的行数
+     * @return 数剧记录流
+     * @throws SQLRuntimeException 数据库异常
+     */
+    Stream<Record<T, K>> nativeQueryCursor(String sql, @Nullable Collection<?> parameters, int fetchSize)
+        throws SQLRuntimeException;
+
     /**
      * 执行语句
      * @param sql 查询语句
@@ -84,6 +105,25 @@ Record<T, K> nativeQuery(String sql, @Nullable Collection<?> parameters)
     @Nullable
     K nativeExecuteGetId(String sql, @Nullable Collection<?> parameters) throws SQLRuntimeException;
 
+    /**
+     * 批量执行语句 (addBatch/executeBatch)
+     * @param sql 查询语句
+     * @param parametersList 每次执行的参数绑定列表
+     * @return 受影响的行数
+     * @throws SQLRuntimeException 数据库异常
+     */
+    int nativeExecuteBatch(String sql, Collection<? extends Collection<?>> parametersList) throws SQLRuntimeException;
+
+    /**
+     * 批量执行语句 (addBatch/executeBatch)
+     * @param sql 查询语句
+     * @param parametersList 每次执行的参数绑定列表
+     * @return 自增长主键列表
+     * @throws SQLRuntimeException 数据库异常
+     */
+    List<K> nativeExecuteBatchGetIds(String sql, Collection<? extends Collection<?>> parametersList)
+        throws SQLRuntimeException;
+
     /**
      * 异步获取第一条数据, 数据为空时抛出异常
      * @param sql 查询语句
@@ -177,6 +177,15 @@ default B onlyTrashed(ShowType<B> builderClass) {
      */
     Record<T, K> update(T entity);
 
+    /**
+     * 根据主键批量更新, 相比逐条 update 大幅减少与数据库的交互次数
+     * 不触发 Record 的事件
+     * @param entities 实体对象列表 (需要包含主键的值)
+     * @return 受影响的行数
+     * @throws SQLRuntimeException 数据库异常
+     */
+    int updateBatch(Collection<T> entities) throws SQLRuntimeException;
+
     /**
      * 使用主键进行单个更新, 当查询不到数据时使用ORM insert本条数据
      * (已存在则更新，否则创建新模型)
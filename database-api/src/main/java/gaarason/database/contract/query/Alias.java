@@ -21,6 +21,11 @@ public class Alias implements Serializable {
      */
     protected String aliasPlaceHolder = "";
 
+    /**
+     * 嵌套层级, 关联关系子查询比上级查询深一层
+     */
+    protected int depth;
+
     public Alias() {
     }
 
@@ -47,6 +52,15 @@ public Alias setAlias(String alias) {
         return this;
     }
 
+    public int getDepth() {
+        return depth;
+    }
+
+    public Alias setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
     public String getTable() {
         return table;
     }
@@ -7,6 +7,7 @@
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,6 +40,13 @@ public interface Grammar {
      */
     Alias alias();
 
+    /**
+     * 设置别名的嵌套层级, 别名与占位符将同时变更, 已有的sql片段会同步替换
+     * 关联关系子查询使用比上级查询深一层的别名, 避免自关联时内外层别名相同
+     * @param depth 嵌套层级
+     */
+    void aliasDepth(int depth);
+
     /**
      * 返回替换参数后的字符, 并填充到"绑定参数集合"
      * @param value 参数 eg: 1
@@ -136,6 +144,19 @@ void addFirstSmartSeparator(SQLPartType sqlPartType, String sqlPartString, @Null
      */
     Map<String, Record.Relation> pullRelation();
 
+    /**
+     * 记录可拆分查询的 in 列表
+     * @param whereInInfo in 列表信息
+     */
+    void pushWhereIn(WhereInInfo whereInInfo);
+
+    /**
+     * 拉取可拆分查询的 in 列表
+     * @return in 列表信息
+     */
+    @Nullable
+    WhereInInfo pullWhereIn();
+
     /**
      * SQL片段类型
      */
@@ -188,4 +209,55 @@ public Collection<Object> getParameters() {
             return parameters;
         }
     }
+
+    /**
+     * 可拆分查询的 in 列表信息
+     */
+    class WhereInInfo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 列名
+         */
+        private final String column;
+
+        /**
+         * 值列表 (已去重)
+         */
+        private final List<Object> values;
+
+        /**
+         * 加入 in 列表之前的条件
+         */
+        private final SQLPartInfo before;
+
+        /**
+         * 加入 in 列表之后的条件
+         */
+        private final SQLPartInfo after;
+
+        public WhereInInfo(String column, List<Object> values, SQLPartInfo before, SQLPartInfo after) {
+            this.column = column;
+            this.values = values;
+            this.before = before;
+            this.after = after;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+
+        public SQLPartInfo getBefore() {
+            return before;
+        }
+
+        public SQLPartInfo getAfter() {
+            return after;
+        }
+    }
 }
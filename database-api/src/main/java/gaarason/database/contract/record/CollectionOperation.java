@@ -601,13 +601,20 @@ default E random() {
      * @return 倒序后的集合
      */
     default List<E> reverse() {
-        List<E> list = new ArrayList<>();
+        List<E> list = new ArrayList<>(size());
         for (int i = size() - 1; i >= 0; i--) {
             list.add(get(i));
         }
         return list;
     }
 
+    /**
+     * 倒序后的集合, 不影响原集合
+     * 同时继承 List 与 Deque, 需要明确声明, 以免与 jdk21 中两者的 reversed 冲突
+     * @return 倒序后的集合
+     */
+    CollectionOperation<E> reversed();
+
     /**
      * 通过给定回调对集合进行排序
      * @param closure 闭包
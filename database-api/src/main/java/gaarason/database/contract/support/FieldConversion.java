@@ -1,5 +1,6 @@
 package gaarason.database.contract.support;
 
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.lang.Nullable;
 
 import java.lang.reflect.Field;
@@ -40,6 +41,18 @@
     @Nullable
     D acquisition(Field field, ResultSet resultSet, String columnName) throws SQLException;
 
+    /**
+     * 数据库结果集获取的读取器
+     * 在模型加载时, 每个属性仅解析一次, 之后通过列的下标读取, 与 acquisition 的结果应保持一致
+     * 返回 null 时, 依旧使用 acquisition
+     * @param field 实体的属性
+     * @return 读取器
+     */
+    @Nullable
+    default ColumnReaderFunctionalInterface<D> reader(Field field) {
+        return null;
+    }
+
     /**
      * 从任意的结果进行反序列化, 以便赋值到实体属性
      * 这种情况会出现在 Record.toObject()/Record.toObject(SomeEntity.class) 等方式下, 往往都是已经完成了"数据库结果集获取"之后的操作.
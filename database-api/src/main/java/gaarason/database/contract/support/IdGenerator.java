@@ -3,6 +3,8 @@
 import gaarason.database.lang.Nullable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * ID 生成器
@@ -17,6 +19,19 @@
     @Nullable
     K nextId();
 
+    /**
+     * 批量生成主键值
+     * @param n 数量
+     * @return 主键值列表
+     */
+    default List<K> nextIds(int n) {
+        List<K> ids = new ArrayList<>(Math.max(n, 0));
+        for (int i = 0; i < n; i++) {
+            ids.add(nextId());
+        }
+        return ids;
+    }
+
     /**
      * long 雪花ID
      */
@@ -0,0 +1,59 @@
+package gaarason.database.contract.support;
+
+import gaarason.database.appointment.QueryCacheStats;
+import gaarason.database.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 查询结果缓存
+ * 键由sql与参数生成, 并以数据源标识与涉及的表名作为标签, 写操作后按标签失效
+ * 默认为本地缓存, 可以通过容器注册远程缓存的实现
+ * @author xt
+ */
+public interface QueryCache {
+
+    /**
+     * 获取缓存
+     * @param key 键
+     * @return 值, 不存在或者已过期时为 null
+     */
+    @Nullable
+    Object get(String key);
+
+    /**
+     * 标签的当前版本, 每次失效时递增
+     * 查询前获取, 写入时用于判断查询期间是否发生了失效
+     * @param tag 标签 (数据源标识与表名)
+     * @return 版本
+     */
+    long generation(String tag);
+
+    /**
+     * 写入缓存
+     * 任一标签的版本与查询前获取的不一致时 (查询期间发生了失效), 放弃写入, 以免写入过期的结果
+     * @param key 键
+     * @param value 值
+     * @param weight 估算的字节数
+     * @param tagGenerations 标签 (数据源标识与表名) -> 查询前获取的版本
+     */
+    void put(String key, Serializable value, long weight, Map<String, Long> tagGenerations);
+
+    /**
+     * 失效标签下的全部缓存
+     * @param tag 标签 (数据源标识与表名)
+     */
+    void invalidate(String tag);
+
+    /**
+     * 清空缓存
+     */
+    void clear();
+
+    /**
+     * 统计信息
+     * @return 统计信息
+     */
+    QueryCacheStats getStats();
+}
@@ -0,0 +1,82 @@
+package gaarason.database.benchmark;
+
+import gaarason.database.benchmark.model.BaseModel;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试数据
+ * @author xt
+ */
+public final class BenchmarkData {
+
+    public static final String[] POST_COLUMNS = {"id", "user_id", "title", "views", "created_at"};
+
+    public static final String[] COMMENT_COLUMNS = {"id", "post_id", "content", "created_at"};
+
+    public static final String[] USER_COLUMNS = {"id", "name", "age"};
+
+    private static final Timestamp CREATED_AT = Timestamp.valueOf("2024-01-01 00:00:00");
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 重置内存中的表数据
+     * @param postCount 文章数量
+     * @param commentsPerPost 每篇文章的评论数量
+     * @param userCount 用户数量
+     */
+    public static void fill(int postCount, int commentsPerPost, int userCount) {
+        BaseModel.DATABASE.table("post", POST_COLUMNS, posts(postCount, userCount))
+            .table("comment", COMMENT_COLUMNS, comments(postCount, commentsPerPost))
+            .table("user", USER_COLUMNS, users(userCount));
+    }
+
+    /**
+     * 文章
+     * @param count 数量
+     * @param userCount 用户数量
+     * @return 行数据
+     */
+    public static List<Object[]> posts(int count, int userCount) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            rows.add(new Object[]{i, i % userCount + 1, "title-" + i, (int) (i % 1000), CREATED_AT});
+        }
+        return rows;
+    }
+
+    /**
+     * 评论
+     * @param postCount 文章数量
+     * @param commentsPerPost 每篇文章的评论数量
+     * @return 行数据
+     */
+    public static List<Object[]> comments(int postCount, int commentsPerPost) {
+        List<Object[]> rows = new ArrayList<>(postCount * commentsPerPost);
+        long id = 1;
+        for (int j = 0; j < commentsPerPost; j++) {
+            for (long postId = 1; postId <= postCount; postId++) {
+                rows.add(new Object[]{id, postId, "content-" + id, CREATED_AT});
+                id++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 用户
+     * @param count 数量
+     * @return 行数据
+     */
+    public static List<Object[]> users(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            rows.add(new Object[]{i, "user-" + i, (int) (i % 60 + 18)});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,61 @@
+package gaarason.database.benchmark;
+
+import gaarason.database.appointment.SqlType;
+import gaarason.database.benchmark.model.PostModel;
+import gaarason.database.contract.eloquent.Builder;
+import gaarason.database.contract.query.Grammar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询构造器与 sql 生成
+ * @author xt
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrammarBenchmark {
+
+    protected final PostModel postModel = new PostModel();
+
+    protected final List<Object> userIds = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+    protected Grammar grammar;
+
+    @Setup
+    public void setup() {
+        grammar = build().getGrammar();
+    }
+
+    protected Builder<?, PostModel.Entity, Long> build() {
+        return postModel.newQuery()
+            .select("id", "user_id", "title")
+            .where("views", ">", 10)
+            .whereIn("user_id", userIds)
+            .whereBetween("id", 1, 1000)
+            .orderBy("id")
+            .limit(20);
+    }
+
+    /**
+     * 仅 sql 生成
+     */
+    @Benchmark
+    public Grammar.SQLPartInfo generateSql() {
+        return grammar.generateSql(SqlType.SELECT);
+    }
+
+    /**
+     * 构造查询并生成 sql
+     */
+    @Benchmark
+    public Grammar.SQLPartInfo buildAndGenerateSql() {
+        return build().getGrammar().generateSql(SqlType.SELECT);
+    }
+}
@@ -0,0 +1,74 @@
+package gaarason.database.benchmark;
+
+import gaarason.database.benchmark.model.PostModel;
+import gaarason.database.benchmark.stub.StubJdbc;
+import gaarason.database.contract.eloquent.RecordList;
+import gaarason.database.provider.ModelShadowProvider;
+import gaarason.database.support.EntityMember;
+import gaarason.database.support.RecordFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 结果集转化 : ResultSet -> RecordList -> 实体
+ * @author xt
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HydrationBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    protected final PostModel postModel = new PostModel();
+
+    protected List<Object[]> postRows;
+
+    protected EntityMember<PostModel.Entity, Long> entityMember;
+
+    protected Map<String, Object> metadataMap;
+
+    @Setup
+    public void setup() throws SQLException {
+        postRows = BenchmarkData.posts(rows, 100);
+        entityMember = postModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(ModelShadowProvider.class)
+            .get(postModel)
+            .getEntityMember();
+        metadataMap = newRecordList().get(0).getMetadataMap();
+    }
+
+    /**
+     * ResultSet -> RecordList
+     */
+    @Benchmark
+    public RecordList<PostModel.Entity, Long> newRecordList() throws SQLException {
+        return RecordFactory.newRecordList(postModel, StubJdbc.resultSet(BenchmarkData.POST_COLUMNS, postRows),
+            "select * from `post`");
+    }
+
+    /**
+     * Map -> 实体
+     */
+    @Benchmark
+    public PostModel.Entity toEntity() {
+        return entityMember.toEntity(metadataMap);
+    }
+
+    /**
+     * ResultSet -> RecordList -> 实体列表
+     */
+    @Benchmark
+    public List<PostModel.Entity> toObjectList() throws SQLException {
+        return newRecordList().toObjectList();
+    }
+}
@@ -0,0 +1,40 @@
+package gaarason.database.benchmark;
+
+import gaarason.database.benchmark.model.PostModel;
+import gaarason.database.provider.ModelShadowProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lambda 风格列名的解析
+ * @author xt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LambdaColumnBenchmark {
+
+    protected ModelShadowProvider modelShadowProvider;
+
+    @Setup
+    public void setup() {
+        modelShadowProvider = new PostModel().getGaarasonDataSource()
+            .getContainer()
+            .getBean(ModelShadowProvider.class);
+    }
+
+    @Benchmark
+    public String withCache() {
+        return modelShadowProvider.parseColumnNameByLambdaWithCache(PostModel.Entity::getTitle);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String withCacheConcurrent() {
+        return modelShadowProvider.parseColumnNameByLambdaWithCache(PostModel.Entity::getTitle);
+    }
+}
@@ -0,0 +1,54 @@
+package gaarason.database.benchmark;
+
+import gaarason.database.benchmark.model.PostModel;
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.contract.eloquent.RecordList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关联关系查询 : RelationGetSupport.toObjectList
+ * @author xt
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelationBenchmark {
+
+    @Param({"100", "2000"})
+    public int posts;
+
+    @Param({"10"})
+    public int commentsPerPost;
+
+    @Param({"false", "true"})
+    public boolean concurrent;
+
+    protected final PostModel postModel = new PostModel();
+
+    protected RecordList<PostModel.Entity, Long> records;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.fill(posts, commentsPerPost, 100);
+        postModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(GaarasonDatabaseProperties.class)
+            .getRelation()
+            .setConcurrent(concurrent);
+        records = postModel.newQuery().get();
+    }
+
+    /**
+     * 一对多 + 反向一对一
+     */
+    @Benchmark
+    public List<PostModel.Entity> withUserAndComments() {
+        return records.with("user").with("comments").toObjectList();
+    }
+}
@@ -0,0 +1,112 @@
+package gaarason.database.benchmark;
+
+import gaarason.database.appointment.SqlType;
+import gaarason.database.benchmark.model.PostModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预执行对象缓存的命中率
+ * 以 sql 为 key 的 LRU 缓存模拟驱动/连接上的预执行对象缓存, 相同结构的查询应当总是命中
+ * 结果中的 hits 与 misses 即为命中与未命中的次数
+ * @author xt
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementCacheBenchmark {
+
+    /**
+     * 缓存的最大数量
+     */
+    protected static final int CACHE_SIZE = 64;
+
+    protected final PostModel postModel = new PostModel();
+
+    protected final List<Object> userIds = Arrays.asList(1, 2, 3, 4, 5);
+
+    /**
+     * sql -> 预执行对象 (LRU)
+     */
+    protected final Map<String, Object> statementCache = new LinkedHashMap<String, Object>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * 命中次数
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long hits;
+
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * 模拟 prepareStatement
+     * @param sql 带占位符的sql
+     * @param counters 计数
+     * @return 预执行对象
+     */
+    protected Object prepare(String sql, Counters counters) {
+        Object statement = statementCache.get(sql);
+        if (statement != null) {
+            counters.hits++;
+            return statement;
+        }
+        counters.misses++;
+        statement = new Object();
+        statementCache.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * 普通查询
+     */
+    @Benchmark
+    public Object simpleQuery(Counters counters) {
+        String sql = postModel.newQuery()
+            .where("views", ">", 10)
+            .whereIn("user_id", userIds)
+            .orderBy("id")
+            .limit(20)
+            .getGrammar()
+            .generateSql(SqlType.SELECT)
+            .getSqlString();
+        return prepare(sql, counters);
+    }
+
+    /**
+     * 带子查询的查询
+     */
+    @Benchmark
+    public Object subQuery(Counters counters) {
+        String sql = postModel.newQuery()
+            .whereIn("user_id", builder -> builder.select("user_id").where("views", ">", 10))
+            .from("post_sub", builder -> builder.where("id", ">", 0))
+            .limit(20)
+            .getGrammar()
+            .generateSql(SqlType.SELECT)
+            .getSqlString();
+        return prepare(sql, counters);
+    }
+}
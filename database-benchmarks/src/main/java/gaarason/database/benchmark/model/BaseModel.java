@@ -0,0 +1,45 @@
+package gaarason.database.benchmark.model;
+
+import gaarason.database.benchmark.stub.StubDataSource;
+import gaarason.database.benchmark.stub.StubDatabase;
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.connection.GaarasonDataSourceBuilder;
+import gaarason.database.contract.connection.GaarasonDataSource;
+import gaarason.database.eloquent.Model;
+import gaarason.database.query.MySqlBuilder;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * 基准测试的模型基类, 所有模型共用同一个内存数据源
+ * @author xt
+ */
+public abstract class BaseModel<T extends Serializable, K extends Serializable> extends Model<MySqlBuilder<T, K>, T, K> {
+
+    /**
+     * 内存中的表数据
+     */
+    public static final StubDatabase DATABASE = new StubDatabase();
+
+    private static final GaarasonDataSource GAARASON_DATA_SOURCE = gaarasonDataSource();
+
+    private static GaarasonDataSource gaarasonDataSource() {
+        // 包扫描
+        String key = GaarasonDatabaseProperties.PREFIX + ".scan.packages";
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, "gaarason.database.benchmark");
+        }
+        return GaarasonDataSourceBuilder.build(new StubDataSource(DATABASE));
+    }
+
+    @Override
+    public GaarasonDataSource getGaarasonDataSource() {
+        return GAARASON_DATA_SOURCE;
+    }
+
+    @Override
+    public void log(String sql, Collection<?> parameterList) {
+        // 基准测试中不记录sql
+    }
+}
@@ -0,0 +1,50 @@
+package gaarason.database.benchmark.model;
+
+import gaarason.database.annotation.Column;
+import gaarason.database.annotation.Primary;
+import gaarason.database.annotation.Table;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 评论
+ * @author xt
+ */
+public class CommentModel extends BaseModel<CommentModel.Entity, Long> {
+
+    @Table(name = "comment")
+    public static class Entity implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Primary
+        @Column(name = "id", unsigned = true)
+        private Long id;
+
+        @Column(name = "post_id", unsigned = true)
+        private Long postId;
+
+        @Column(name = "content", length = 200L)
+        private String content;
+
+        @Column(name = "created_at")
+        private Date createdAt;
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getPostId() {
+            return postId;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public Date getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package gaarason.database.benchmark.model;
+
+import gaarason.database.annotation.BelongsTo;
+import gaarason.database.annotation.Column;
+import gaarason.database.annotation.HasOneOrMany;
+import gaarason.database.annotation.Primary;
+import gaarason.database.annotation.Table;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 文章
+ * @author xt
+ */
+public class PostModel extends BaseModel<PostModel.Entity, Long> {
+
+    @Table(name = "post")
+    public static class Entity implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Primary
+        @Column(name = "id", unsigned = true)
+        private Long id;
+
+        @Column(name = "user_id", unsigned = true)
+        private Long userId;
+
+        @Column(name = "title", length = 100L)
+        private String title;
+
+        @Column(name = "views", unsigned = true)
+        private Integer views;
+
+        @Column(name = "created_at")
+        private Date createdAt;
+
+        @BelongsTo(localModelForeignKey = "user_id", parentModelLocalKey = "id")
+        private UserModel.Entity user;
+
+        @HasOneOrMany(sonModelForeignKey = "post_id")
+        private List<CommentModel.Entity> comments;
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public Integer getViews() {
+            return views;
+        }
+
+        public Date getCreatedAt() {
+            return createdAt;
+        }
+
+        public UserModel.Entity getUser() {
+            return user;
+        }
+
+        public List<CommentModel.Entity> getComments() {
+            return comments;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package gaarason.database.benchmark.model;
+
+import gaarason.database.annotation.Column;
+import gaarason.database.annotation.Primary;
+import gaarason.database.annotation.Table;
+
+import java.io.Serializable;
+
+/**
+ * 用户
+ * @author xt
+ */
+public class UserModel extends BaseModel<UserModel.Entity, Long> {
+
+    @Table(name = "user")
+    public static class Entity implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Primary
+        @Column(name = "id", unsigned = true)
+        private Long id;
+
+        @Column(name = "name", length = 20L)
+        private String name;
+
+        @Column(name = "age", unsigned = true)
+        private Integer age;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package gaarason.database.benchmark.stub;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * 内存数据源, 不进行任何网络通信
+ * @author xt
+ */
+public class StubDataSource implements DataSource {
+
+    /**
+     * 内存中的表数据
+     */
+    protected final StubDatabase database;
+
+    public StubDataSource(StubDatabase database) {
+        this.database = database;
+    }
+
+    public StubDatabase getDatabase() {
+        return database;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return StubJdbc.connection(database);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // 无需日志
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // 无需超时
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) {
+        return iface.cast(this);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,111 @@
+package gaarason.database.benchmark.stub;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 内存中的表数据
+ * 仅识别 from 的表名, 以及 `column`in(?,?) 形式的条件, 足以覆盖基准测试中的查询
+ * @author xt
+ */
+public class StubDatabase {
+
+    /**
+     * 表名
+     */
+    protected static final Pattern TABLE_PATTERN = Pattern.compile("from\\s+`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * in 条件的列名
+     */
+    protected static final Pattern WHERE_IN_PATTERN = Pattern.compile("`(\\w+)`\\s*in\\s*\\(",
+        Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 表名 -> 表数据
+     */
+    protected final Map<String, Table> tableMap = new HashMap<>();
+
+    /**
+     * 增加表数据
+     * @param tableName 表名
+     * @param columns 列名
+     * @param rows 行数据, 与列名一一对应
+     * @return 当前对象
+     */
+    public StubDatabase table(String tableName, String[] columns, List<Object[]> rows) {
+        tableMap.put(tableName, new Table(columns, rows));
+        return this;
+    }
+
+    /**
+     * 执行查询
+     * @param sql 带占位符的sql
+     * @param parameters 参数
+     * @return 结果
+     */
+    public Table query(String sql, List<Object> parameters) {
+        Matcher tableMatcher = TABLE_PATTERN.matcher(sql);
+        if (!tableMatcher.find()) {
+            return new Table(new String[0], Collections.emptyList());
+        }
+        Table table = tableMap.get(tableMatcher.group(1));
+        if (table == null) {
+            throw new IllegalArgumentException("Table [" + tableMatcher.group(1) + "] is not stubbed.");
+        }
+        Matcher whereInMatcher = WHERE_IN_PATTERN.matcher(sql);
+        if (!whereInMatcher.find() || parameters.isEmpty()) {
+            return table;
+        }
+        return table.filter(whereInMatcher.group(1), parameters);
+    }
+
+    /**
+     * 表数据
+     */
+    public static class Table {
+
+        protected final String[] columns;
+
+        protected final List<Object[]> rows;
+
+        public Table(String[] columns, List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        public String[] getColumns() {
+            return columns;
+        }
+
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        /**
+         * 筛选列值在参数中的行
+         * @param column 列名
+         * @param parameters 参数
+         * @return 结果
+         */
+        protected Table filter(String column, List<Object> parameters) {
+            int index = Arrays.asList(columns).indexOf(column);
+            if (index < 0) {
+                return this;
+            }
+            // 参数类型可能与列值类型不同, 统一比较字符串
+            Set<String> values = new HashSet<>();
+            for (Object parameter : parameters) {
+                values.add(String.valueOf(parameter));
+            }
+            List<Object[]> filtered = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (values.contains(String.valueOf(row[index]))) {
+                    filtered.add(row);
+                }
+            }
+            return new Table(columns, filtered);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package gaarason.database.benchmark.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 基于动态代理的 jdbc 实现
+ * 仅实现框架实际调用到的方法, 其余方法返回默认值
+ * @author xt
+ */
+public final class StubJdbc {
+
+    private StubJdbc() {
+    }
+
+    /**
+     * 数据库连接
+     * @param database 内存中的表数据
+     * @return 数据库连接
+     */
+    public static Connection connection(StubDatabase database) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return preparedStatement(database, (String) args[0]);
+                case "getMetaData":
+                    return databaseMetaData();
+                case "getAutoCommit":
+                case "isValid":
+                    return true;
+                default:
+                    return common(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * 查询结果集
+     * @param columns 列名
+     * @param rows 行数据
+     * @return 结果集
+     */
+    public static ResultSet resultSet(String[] columns, List<Object[]> rows) {
+        return proxy(ResultSet.class, new ResultSetHandler(columns, rows));
+    }
+
+    /**
+     * 预执行对象, 记录参数并在内存中执行查询
+     * @param database 内存中的表数据
+     * @param sql 带占位符的sql
+     * @return 预执行对象
+     */
+    static PreparedStatement preparedStatement(StubDatabase database, String sql) {
+        Map<Integer, Object> parameterMap = new TreeMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            // setObject(int, Object) setLong(int, long) ...
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameterMap.put((Integer) args[0], args[1]);
+                return null;
+            }
+            switch (name) {
+                case "clearParameters":
+                    parameterMap.clear();
+                    return null;
+                case "executeQuery":
+                    StubDatabase.Table table = database.query(sql, new ArrayList<>(parameterMap.values()));
+                    return resultSet(table.getColumns(), table.getRows());
+                case "getGeneratedKeys":
+                    return resultSet(new String[0], new ArrayList<>());
+                default:
+                    return common(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * 数据库信息
+     * @return 数据库信息
+     */
+    static DatabaseMetaData databaseMetaData() {
+        return proxy(DatabaseMetaData.class, (proxy, method, args) -> {
+            if ("getDatabaseProductName".equals(method.getName())) {
+                return "MySQL";
+            }
+            return common(proxy, method, args);
+        });
+    }
+
+    /**
+     * 结果集
+     */
+    static class ResultSetHandler implements InvocationHandler {
+
+        protected final String[] columns;
+
+        protected final List<Object[]> rows;
+
+        protected int cursor = -1;
+
+        protected boolean lastWasNull;
+
+        ResultSetHandler(String[] columns, List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    return ++cursor < rows.size();
+                case "getMetaData":
+                    return resultSetMetaData(columns);
+                case "wasNull":
+                    return lastWasNull;
+                case "findColumn":
+                    return indexOf((String) args[0]) + 1;
+                case "getRow":
+                    return cursor + 1;
+                case "getFetchSize":
+                    return 0;
+                default:
+            }
+            if (name.startsWith("get") && args != null && args.length >= 1 &&
+                (args[0] instanceof String || args[0] instanceof Integer)) {
+                int index = args[0] instanceof Integer ? (Integer) args[0] - 1 : indexOf((String) args[0]);
+                Object value = rows.get(cursor)[index];
+                lastWasNull = value == null;
+                return convert(value, method.getReturnType());
+            }
+            return common(proxy, method, args);
+        }
+
+        protected int indexOf(String column) throws SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equals(column)) {
+                    return i;
+                }
+            }
+            throw new SQLException("Column [" + column + "] not found.");
+        }
+    }
+
+    /**
+     * 结果集的列信息
+     * @param columns 列名
+     * @return 列信息
+     */
+    static ResultSetMetaData resultSetMetaData(String[] columns) {
+        return proxy(ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columns.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return columns[(Integer) args[0] - 1];
+                default:
+                    return common(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * 按返回类型转化
+     * @param value 值
+     * @param type 返回类型
+     * @return 值
+     */
+    static Object convert(Object value, Class<?> type) {
+        if (value == null) {
+            return defaultValue(type);
+        }
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (type == long.class) {
+                return number.longValue();
+            } else if (type == int.class) {
+                return number.intValue();
+            } else if (type == short.class) {
+                return number.shortValue();
+            } else if (type == byte.class) {
+                return number.byteValue();
+            } else if (type == double.class) {
+                return number.doubleValue();
+            } else if (type == float.class) {
+                return number.floatValue();
+            } else if (type == boolean.class) {
+                return number.intValue() != 0;
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(number.toString());
+            }
+        }
+        if (value instanceof java.util.Date) {
+            long time = ((java.util.Date) value).getTime();
+            if (type == Timestamp.class) {
+                return new Timestamp(time);
+            } else if (type == Date.class) {
+                return new Date(time);
+            } else if (type == Time.class) {
+                return new Time(time);
+            }
+        }
+        if (type == String.class) {
+            return String.valueOf(value);
+        }
+        return value;
+    }
+
+    /**
+     * 通用方法
+     */
+    static Object common(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "unwrap":
+                return proxy;
+            case "isWrapperFor":
+                return false;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return method.getDeclaringClass().getSimpleName() + "@stub";
+            default:
+                return defaultValue(method.getReturnType());
+        }
+    }
+
+    /**
+     * 类型的默认值
+     * @param type 类型
+     * @return 默认值
+     */
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == float.class) {
+            return 0F;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == char.class) {
+            return (char) 0;
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> interfaceClass, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class<?>[]{interfaceClass}, handler);
+    }
+}
@@ -1,5 +1,6 @@
 package gaarason.database.annotation.conversion;
 
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.contract.support.FieldConversion;
 import gaarason.database.exception.InvalidEntityException;
 import gaarason.database.lang.Nullable;
@@ -34,6 +35,11 @@ public Object acquisition(Field field, ResultSet resultSet, String columnName) t
         return resultSet.getString(columnName);
     }
 
+    @Override
+    public ColumnReaderFunctionalInterface<Object> reader(Field field) {
+        return ResultSet::getString;
+    }
+
     @Nullable
     @Override
     public Object deserialize(Field field, @Nullable Object originalValue) {
@@ -1,5 +1,6 @@
 package gaarason.database.annotation.conversion;
 
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.contract.support.FieldConversion;
 import gaarason.database.lang.Nullable;
 import gaarason.database.util.EnumUtils;
@@ -25,6 +26,11 @@ public Integer acquisition(Field field, ResultSet resultSet, String columnName)
         return resultSet.getInt(columnName);
     }
 
+    @Override
+    public ColumnReaderFunctionalInterface<Integer> reader(Field field) {
+        return ResultSet::getInt;
+    }
+
     @Nullable
     @Override
     public Enum<?> deserialize(Field field, @Nullable Integer originalValue) {
@@ -1,5 +1,6 @@
 package gaarason.database.annotation.conversion;
 
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.contract.support.FieldConversion;
 import gaarason.database.lang.Nullable;
 import gaarason.database.util.EnumUtils;
@@ -25,6 +26,11 @@ public String acquisition(Field field, ResultSet resultSet, String columnName) t
         return resultSet.getString(columnName);
     }
 
+    @Override
+    public ColumnReaderFunctionalInterface<String> reader(Field field) {
+        return ResultSet::getString;
+    }
+
     @Nullable
     @Override
     public Enum<?> deserialize(Field field, @Nullable String originalValue) {
@@ -1,6 +1,7 @@
 package gaarason.database.annotation.conversion;
 
 import gaarason.database.config.ConversionConfig;
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.contract.support.FieldConversion;
 import gaarason.database.core.Container;
 import gaarason.database.lang.Nullable;
@@ -33,6 +34,11 @@ public Object acquisition(Field field, ResultSet resultSet, String column) throw
         return conversion().getValueFromJdbcResultSet(field, resultSet, column);
     }
 
+    @Override
+    public ColumnReaderFunctionalInterface<Object> reader(Field field) {
+        return conversion().getJdbcResultSetReader(field);
+    }
+
     @Nullable
     @Override
     public Object deserialize(Field field, @Nullable Object originalValue) {
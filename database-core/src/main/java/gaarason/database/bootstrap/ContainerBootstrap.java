@@ -5,6 +5,7 @@
 import gaarason.database.config.ConversionConfig;
 import gaarason.database.config.GaarasonAutoconfiguration;
 import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.contract.support.*;
 import gaarason.database.exception.TypeCastException;
 import gaarason.database.lang.Nullable;
@@ -13,7 +14,9 @@
 import gaarason.database.provider.ContainerProvider;
 import gaarason.database.provider.ModelInstanceProvider;
 import gaarason.database.provider.ModelShadowProvider;
+import gaarason.database.support.LocalQueryCache;
 import gaarason.database.support.NamedThreadFactory;
+import gaarason.database.support.PermitExecutorService;
 import gaarason.database.support.SnowFlakeIdGenerator;
 import gaarason.database.util.ClassUtils;
 import gaarason.database.util.ConverterUtils;
@@ -25,6 +28,7 @@
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -102,6 +106,8 @@ public synchronized ContainerBootstrap autoBootstrap() {
      * @return ContainerProvider
      */
     public ContainerBootstrap defaultRegister() {
+        // 配置
+        register(GaarasonDatabaseProperties.class, clazz -> properties);
         // 初始化包扫描类
         register(ReflectionScan.class, clazz -> new DefaultReflectionScan(properties));
         // ID生成 雪花算法
@@ -136,10 +142,9 @@ public ContainerBootstrap defaultRegister() {
         // Model信息大全
         register(ModelShadowProvider.class, clazz -> new ModelShadowProvider(this));
         // 异步线程池
-        register(ExecutorService.class, clazz -> new ThreadPoolExecutor(properties.getAsyncPool().getCorePoolSize(),
-            properties.getAsyncPool().getMaximumPoolSize(), properties.getAsyncPool().getKeepAliveTime(),
-            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getAsyncPool().getWorkQueueSize()),
-            new NamedThreadFactory("gaarason-async")));
+        register(ExecutorService.class, clazz -> initExecutorService(properties.getAsyncPool()));
+        // 查询结果缓存
+        register(QueryCache.class, clazz -> new LocalQueryCache(properties.getQueryCache()));
         return this;
     }
 
@@ -183,6 +188,41 @@ protected IdGenerator.SnowFlakesID initSnowFlakesID() {
         return new SnowFlakeIdGenerator(properties.getSnowFlake().getWorkerId(), properties.getSnowFlake().getDataId());
     }
 
+    /**
+     * 异步线程池
+     * @param asyncPool 异步线程池配置
+     * @return 线程池
+     */
+    protected static ExecutorService initExecutorService(GaarasonDatabaseProperties.AsyncPool asyncPool) {
+        ExecutorService executorService = null;
+        if (asyncPool.isVirtualThread()) {
+            executorService = newVirtualThreadPerTaskExecutor();
+        }
+        if (executorService == null) {
+            executorService = new ThreadPoolExecutor(asyncPool.getCorePoolSize(), asyncPool.getMaximumPoolSize(),
+                asyncPool.getKeepAliveTime(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(asyncPool.getWorkQueueSize()), new NamedThreadFactory("gaarason-async"));
+        }
+        Integer permits = asyncPool.getPermits();
+        return permits != null && permits > 0 ? new PermitExecutorService(executorService, permits) : executorService;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的线程池
+     * 通过反射调用, 以保持对 java8 的编译兼容
+     * @return 线程池, 当前jdk不支持时返回 null
+     */
+    @Nullable
+    protected static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Throwable e) {
+            LOGGER.warn("Virtual thread is not supported by the current jdk [" + System.getProperty("java.version") +
+                "], fallback to thread pool.");
+            return null;
+        }
+    }
+
     /**
      * 类型转化对象
      * @return ConversionConfig
@@ -212,6 +252,11 @@ public Object getValueFromJdbcResultSet(@Nullable Field field, ResultSet resultS
                 throws SQLException {
                 return ConverterUtils.getValueFromJdbcResultSet(field, resultSet, column);
             }
+
+            @Override
+            public ColumnReaderFunctionalInterface<Object> getJdbcResultSetReader(@Nullable Field field) {
+                return ConverterUtils.getJdbcResultSetReader(field);
+            }
         };
     }
 
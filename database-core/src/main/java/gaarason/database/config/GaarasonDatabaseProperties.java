@@ -33,6 +33,41 @@ public class GaarasonDatabaseProperties implements Serializable {
      */
     protected AsyncPool asyncPool = new AsyncPool();
 
+    /**
+     * 预执行对象缓存
+     */
+    protected StatementCache statementCache = new StatementCache();
+
+    /**
+     * 关联关系
+     */
+    protected Relation relation = new Relation();
+
+    /**
+     * 数据源负载均衡
+     */
+    protected LoadBalance loadBalance = new LoadBalance();
+
+    /**
+     * 批量插入
+     */
+    protected BatchInsert batchInsert = new BatchInsert();
+
+    /**
+     * 批量更新
+     */
+    protected BatchUpdate batchUpdate = new BatchUpdate();
+
+    /**
+     * where in 查询
+     */
+    protected WhereIn whereIn = new WhereIn();
+
+    /**
+     * 查询结果缓存
+     */
+    protected QueryCache queryCache = new QueryCache();
+
     /**
      * 从 SystemProperties 中创建
      * 对于列表类型的数据,使用,做区分 eg: gaarason.database.scan.packages=gaarason,com.github.gaarason
@@ -106,9 +141,68 @@ public void setAsyncPool(AsyncPool asyncPool) {
         this.asyncPool = asyncPool;
     }
 
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public void setStatementCache(StatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+
+    public Relation getRelation() {
+        return relation;
+    }
+
+    public void setRelation(Relation relation) {
+        this.relation = relation;
+    }
+
+    public LoadBalance getLoadBalance() {
+        return loadBalance;
+    }
+
+    public void setLoadBalance(LoadBalance loadBalance) {
+        this.loadBalance = loadBalance;
+    }
+
+    public BatchInsert getBatchInsert() {
+        return batchInsert;
+    }
+
+    public void setBatchInsert(BatchInsert batchInsert) {
+        this.batchInsert = batchInsert;
+    }
+
+    public BatchUpdate getBatchUpdate() {
+        return batchUpdate;
+    }
+
+    public void setBatchUpdate(BatchUpdate batchUpdate) {
+        this.batchUpdate = batchUpdate;
+    }
+
+    public WhereIn getWhereIn() {
+        return whereIn;
+    }
+
+    public void setWhereIn(WhereIn whereIn) {
+        this.whereIn = whereIn;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
     @Override
     public String toString() {
-        return "GaarasonDatabaseProperties{" + "scan=" + scan + ", snowFlake=" + snowFlake + '}';
+        return "GaarasonDatabaseProperties{" + "scan=" + scan + ", snowFlake=" + snowFlake + ", statementCache=" +
+            statementCache + ", relation=" + relation + ", loadBalance=" + loadBalance + ", batchInsert=" +
+            batchInsert + ", batchUpdate=" + batchUpdate + ", whereIn=" + whereIn +
+            ", queryCache=" + queryCache + '}';
     }
 
     /**
@@ -289,6 +383,18 @@ public static class AsyncPool implements Serializable{
          */
         protected Integer workQueueSize = 1;
 
+        /**
+         * 是否使用虚拟线程 (每个任务一个虚拟线程), 需要jdk21及以上, 低版本时忽略
+         * 开启后, 以上的线程池相关配置不再生效
+         */
+        protected boolean virtualThread = false;
+
+        /**
+         * 最大同时执行的任务数量, 0 表示不限制
+         * 建议与连接池的最大连接数一致, 超出的任务将挂起等待, 而不是占用线程或者被拒绝
+         */
+        protected Integer permits = 0;
+
         public Integer getCorePoolSize() {
             return corePoolSize;
         }
@@ -320,6 +426,453 @@ public Integer getWorkQueueSize() {
         public void setWorkQueueSize(Integer workQueueSize) {
             this.workQueueSize = workQueueSize;
         }
+
+        public boolean isVirtualThread() {
+            return virtualThread;
+        }
+
+        public void setVirtualThread(boolean virtualThread) {
+            this.virtualThread = virtualThread;
+        }
+
+        public Integer getPermits() {
+            return permits;
+        }
+
+        public void setPermits(Integer permits) {
+            this.permits = permits;
+        }
+    }
+
+    /**
+     * 预执行对象缓存配置
+     * 缓存于事务持有的连接上, 事务结束时释放
+     */
+    public static class StatementCache implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 是否开启
+         */
+        protected boolean enable = true;
+
+        /**
+         * 单个连接上缓存的最大数量
+         */
+        protected int size = 64;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public String toString() {
+            return "StatementCache{" + "enable=" + enable + ", size=" + size + '}';
+        }
+    }
+
+    /**
+     * 关联关系配置
+     */
+    public static class Relation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 是否并发查询同级的关联关系
+         * 开启后, 非事务中的多个关联关系(with)将在异步线程池中同时查询, 事务中依旧顺序查询
+         */
+        protected boolean concurrent = false;
+
+        public boolean isConcurrent() {
+            return concurrent;
+        }
+
+        public void setConcurrent(boolean concurrent) {
+            this.concurrent = concurrent;
+        }
+
+        @Override
+        public String toString() {
+            return "Relation{" + "concurrent=" + concurrent + '}';
+        }
+    }
+
+
+    /**
+     * 数据源负载均衡配置
+     * 加权随机需要指定各个数据源的权重, 因此仅能通过 GaarasonDataSourceWrapper 设置
+     */
+    public static class LoadBalance implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 策略
+         */
+        protected Strategy strategy = Strategy.RANDOM;
+
+        /**
+         * 获取连接失败后, 数据源被剔除的时长(ms)
+         */
+        protected long ejectMillis = 30000L;
+
+        /**
+         * 使用 EWMA 策略时, 新的耗时所占的权重 (0~1]
+         */
+        protected double ewmaAlpha = 0.3;
+
+        /**
+         * 写操作后的一段时间(ms)内, 当前线程的读操作也使用写连接, 以读取到刚刚写入的数据, 0 表示不开启
+         * 应大于主从复制的延迟
+         */
+        protected long readYourWritesMillis = 0L;
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public long getEjectMillis() {
+            return ejectMillis;
+        }
+
+        public void setEjectMillis(long ejectMillis) {
+            this.ejectMillis = ejectMillis;
+        }
+
+        public double getEwmaAlpha() {
+            return ewmaAlpha;
+        }
+
+        public void setEwmaAlpha(double ewmaAlpha) {
+            this.ewmaAlpha = ewmaAlpha;
+        }
+
+        public long getReadYourWritesMillis() {
+            return readYourWritesMillis;
+        }
+
+        public void setReadYourWritesMillis(long readYourWritesMillis) {
+            this.readYourWritesMillis = readYourWritesMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "LoadBalance{" + "strategy=" + strategy + ", ejectMillis=" + ejectMillis + ", ewmaAlpha=" +
+                ewmaAlpha + ", readYourWritesMillis=" + readYourWritesMillis + '}';
+        }
+
+        /**
+         * 负载均衡策略
+         */
+        public enum Strategy {
+            /**
+             * 随机
+             */
+            RANDOM,
+            /**
+             * 轮询
+             */
+            ROUND_ROBIN,
+            /**
+             * 最少正在使用的连接数
+             */
+            LEAST_IN_FLIGHT,
+            /**
+             * 最小平均耗时
+             */
+            EWMA
+        }
+    }
+
+    /**
+     * 批量插入配置
+     * 批量插入时, 按照列的组成进行分组, 并按照以下限制拆分为多条语句
+     */
+    public static class BatchInsert implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 单条语句的最大行数, 小于等于 0 时不限制 (默认)
+         * 设置后, 行数较多的批量插入将拆分为多条语句
+         */
+        protected int maxRows = 0;
+
+        /**
+         * 单条语句的最大占位符数量, 不应超过 65535
+         */
+        protected int maxPlaceholders = 65535;
+
+        /**
+         * 单条语句中参数的最大估算字节数, 应小于 max_allowed_packet
+         */
+        protected long maxBytes = 4L * 1024 * 1024;
+
+        /**
+         * 是否使用 jdbc 的 addBatch/executeBatch 执行, 每次执行 maxRows 行 (不限制时一次执行全部的行)
+         * 应配合驱动的 rewriteBatchedStatements=true 使用
+         */
+        protected boolean jdbcBatch = false;
+
+        /**
+         * 拆分为多条语句时, 是否在异步线程池中并行执行
+         * 并行执行时各语句不在同一事务中; 事务中或者关闭时, 在同一事务中顺序执行
+         */
+        protected boolean parallel = false;
+
+        /**
+         * 并行执行时, 同时执行中的语句数量上限
+         */
+        protected int parallelism = 4;
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        public int getMaxPlaceholders() {
+            return maxPlaceholders;
+        }
+
+        public void setMaxPlaceholders(int maxPlaceholders) {
+            this.maxPlaceholders = maxPlaceholders;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public boolean isJdbcBatch() {
+            return jdbcBatch;
+        }
+
+        public void setJdbcBatch(boolean jdbcBatch) {
+            this.jdbcBatch = jdbcBatch;
+        }
+
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        public void setParallel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchInsert{" + "maxRows=" + maxRows + ", maxPlaceholders=" + maxPlaceholders + ", maxBytes=" +
+                maxBytes + ", jdbcBatch=" + jdbcBatch + ", parallel=" + parallel + ", parallelism=" + parallelism +
+                '}';
+        }
     }
 
-}
\ No newline at end of file
+    /**
+     * 批量更新配置
+     * 根据主键批量更新时, 按照以下限制拆分为多条语句, 多条语句在同一事务中顺序执行
+     */
+    public static class BatchUpdate implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 单条语句的最大行数, 小于等于 0 时不限制 (默认)
+         */
+        protected int maxRows = 0;
+
+        /**
+         * 单条语句的最大占位符数量, 不应超过 65535
+         */
+        protected int maxPlaceholders = 65535;
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        public int getMaxPlaceholders() {
+            return maxPlaceholders;
+        }
+
+        public void setMaxPlaceholders(int maxPlaceholders) {
+            this.maxPlaceholders = maxPlaceholders;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchUpdate{" + "maxRows=" + maxRows + ", maxPlaceholders=" + maxPlaceholders + '}';
+        }
+    }
+
+    /**
+     * where in 查询
+     */
+    public static class WhereIn implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 单个 in 列表的最大占位符数量, 超过时拆分为多个 in 列表
+         */
+        protected int maxSize = 1000;
+
+        /**
+         * 是否将 in 列表的占位符数量补齐到 2 的幂 (重复最后一个值), 使得不同长度的列表生成相同的sql
+         * 默认关闭
+         */
+        protected boolean bucket = false;
+
+        /**
+         * 查询时, in 列表的值数量超过此数量时, 拆分为多条语句查询后合并结果
+         * 仅作用于没有 limit/group/having/order/union/lock/聚合函数/distinct, 且条件中没有顶层 or 的查询
+         * 小于等于 0 时不拆分, 默认不拆分
+         */
+        protected int chunkSize = 0;
+
+        /**
+         * 拆分为多条语句时, 是否在异步线程池中并行执行
+         * 事务中或者关闭时, 在当前线程中顺序执行
+         */
+        protected boolean parallel = false;
+
+        /**
+         * 并行执行时, 同时执行中的语句数量上限
+         */
+        protected int parallelism = 4;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public boolean isBucket() {
+            return bucket;
+        }
+
+        public void setBucket(boolean bucket) {
+            this.bucket = bucket;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        public void setParallel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public String toString() {
+            return "WhereIn{" + "maxSize=" + maxSize + ", bucket=" + bucket + ", chunkSize=" + chunkSize +
+                ", parallel=" + parallel + ", parallelism=" + parallelism + '}';
+        }
+    }
+
+    /**
+     * 查询结果缓存 (本地缓存)
+     * 模型需要覆盖 getQueryCache() 以开启缓存
+     */
+    public static class QueryCache implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 最大条目数
+         */
+        protected int maxEntries = 10000;
+
+        /**
+         * 最大估算字节数
+         */
+        protected long maxBytes = 64L * 1024 * 1024;
+
+        /**
+         * 过期时间(ms), 小于等于 0 时不过期
+         */
+        protected long ttlMillis = 60000L;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+
+        public void setTtlMillis(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "QueryCache{" + "maxEntries=" + maxEntries + ", maxBytes=" + maxBytes + ", ttlMillis=" + ttlMillis +
+                '}';
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package gaarason.database.connection;
 
+import gaarason.database.appointment.SqlType;
+import gaarason.database.config.GaarasonDatabaseProperties;
 import gaarason.database.config.QueryBuilderConfig;
+import gaarason.database.connection.balancer.EwmaLoadBalancer;
+import gaarason.database.connection.balancer.LeastInFlightLoadBalancer;
+import gaarason.database.connection.balancer.RandomLoadBalancer;
+import gaarason.database.connection.balancer.RoundRobinLoadBalancer;
 import gaarason.database.contract.connection.GaarasonDataSource;
+import gaarason.database.contract.connection.LoadBalancer;
 import gaarason.database.core.Container;
 import gaarason.database.exception.*;
 import gaarason.database.lang.Nullable;
@@ -10,11 +17,16 @@
 import javax.sql.DataSource;
 import java.io.PrintWriter;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Savepoint;
+import java.sql.Statement;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
 /**
@@ -26,6 +38,16 @@
  */
 public class GaarasonDataSourceWrapper extends Container.SimpleKeeper implements GaarasonDataSource {
 
+    /**
+     * 数据源标识的序列
+     */
+    protected static final AtomicLong IDENTITY_SEQUENCE = new AtomicLong();
+
+    /**
+     * 数据源的标识
+     */
+    protected final String identity = String.valueOf(IDENTITY_SEQUENCE.incrementAndGet());
+
     /**
      * 事物中的 Connection
      */
@@ -43,6 +65,21 @@ public class GaarasonDataSourceWrapper extends Container.SimpleKeeper implements
      */
     protected final ThreadLocal<LinkedList<Runnable>> localThreadEvents = ThreadLocal.withInitial(LinkedList::new);
 
+    /**
+     * 事物中的 Connection 上的预执行对象缓存
+     */
+    protected final ThreadLocal<PreparedStatementCache> localThreadStatementCache = new ThreadLocal<>();
+
+    /**
+     * 预执行对象缓存命中次数
+     */
+    protected final LongAdder statementCacheHitCount = new LongAdder();
+
+    /**
+     * 预执行对象缓存未命中次数
+     */
+    protected final LongAdder statementCacheMissCount = new LongAdder();
+
     /**
      * 写连接
      */
@@ -58,6 +95,31 @@ public class GaarasonDataSourceWrapper extends Container.SimpleKeeper implements
      */
     protected final boolean hasSlave;
 
+    /**
+     * 写连接的负载均衡
+     */
+    protected LoadBalancer masterLoadBalancer;
+
+    /**
+     * 读连接的负载均衡
+     */
+    protected LoadBalancer slaveLoadBalancer;
+
+    /**
+     * 写操作后, 读操作也使用写连接的时长(ms), 0 表示不开启
+     */
+    protected long readYourWritesMillis;
+
+    /**
+     * 当前线程最近一次写操作的时间(ms)
+     */
+    protected final ThreadLocal<Long> localThreadLastWriteTime = new ThreadLocal<>();
+
+    /**
+     * 使用中的连接, 用于向负载均衡反馈耗时
+     */
+    protected final Map<Connection, Lease> leaseMap = new ConcurrentHashMap<>();
+
     /**
      * 数据库类型
      */
@@ -79,6 +141,11 @@ public class GaarasonDataSourceWrapper extends Container.SimpleKeeper implements
         this.masterDataSourceList = masterDataSourceList;
         this.slaveDataSourceList = slaveDataSourceList;
         hasSlave = true;
+        this.masterLoadBalancer = newLoadBalancer();
+        this.slaveLoadBalancer = newLoadBalancer();
+        this.readYourWritesMillis = container.getBean(GaarasonDatabaseProperties.class)
+            .getLoadBalance()
+            .getReadYourWritesMillis();
     }
 
     /**
@@ -94,6 +161,11 @@ public class GaarasonDataSourceWrapper extends Container.SimpleKeeper implements
         this.masterDataSourceList = masterDataSourceList;
         this.slaveDataSourceList = new ArrayList<>();
         hasSlave = false;
+        this.masterLoadBalancer = newLoadBalancer();
+        this.slaveLoadBalancer = newLoadBalancer();
+        this.readYourWritesMillis = container.getBean(GaarasonDatabaseProperties.class)
+            .getLoadBalance()
+            .getReadYourWritesMillis();
     }
 
     @Override
@@ -101,10 +173,15 @@ public void begin() {
         // 无已存在事物, 直接开启
         if (!isLocalThreadInTransaction()) {
             try {
-                DataSource dataSource = getRealDataSource(true);
-                Connection connection = dataSource.getConnection();
+                Connection connection = acquireConnection(getLoadBalancer(true), getRealDataSource(true));
                 setAutoCommit(connection, false);
                 localThreadTransactionConnection.set(connection);
+                // 预执行对象缓存
+                GaarasonDatabaseProperties.StatementCache statementCache = container.getBean(
+                    GaarasonDatabaseProperties.class).getStatementCache();
+                if (statementCache.isEnable() && statementCache.getSize() > 0) {
+                    localThreadStatementCache.set(new PreparedStatementCache(connection, statementCache.getSize()));
+                }
             } catch (SQLException e) {
                 throw new SQLRuntimeException(e.getMessage(), e);
             }
@@ -123,6 +200,8 @@ public void commit() {
             try {
                 connection.commit();
                 setAutoCommit(connection, true);
+                // 提交后的一段时间内, 读操作也使用写连接
+                markWrite();
                 // 触发所有事件
                 triggerEvents();
             } catch (SQLException e) {
@@ -170,19 +249,44 @@ public void localConnectionClose(Connection connection) throws SQLRuntimeExcepti
             }
         } catch (SQLException e) {
             throw new SQLRuntimeException(e.getMessage(), e);
+        } finally {
+            release(connection);
         }
     }
 
     @Override
     public Connection getLocalConnection(boolean isWriteOrTransaction) throws SQLRuntimeException {
+        return getLocalConnection(isWriteOrTransaction, true);
+    }
+
+    /**
+     * 获取连接
+     * 记录租约的连接, 需要通过 localConnectionClose 归还, 否则租约不会被释放
+     * @param isWriteOrTransaction 是否写(事务)
+     * @param lease 是否记录租约, 以向负载均衡反馈耗时
+     * @return 数据库连接
+     * @throws SQLRuntimeException 获取连接出错
+     */
+    protected Connection getLocalConnection(boolean isWriteOrTransaction, boolean lease) throws SQLRuntimeException {
         // 事物中, 则返回之前的最新 Connection
         if (isLocalThreadInTransaction()) {
             return localThreadTransactionConnection.get();
         }
+        // 写操作后的一段时间内, 读操作也使用写连接
+        if (!isWriteOrTransaction) {
+            isWriteOrTransaction = isReadYourWrites();
+        }
         // 不存在事务则返回当前线程的数据源的连接池中的 Connection
         try {
+            LoadBalancer loadBalancer = getLoadBalancer(isWriteOrTransaction);
             DataSource realDataSource = getRealDataSource(isWriteOrTransaction);
-            return realDataSource.getConnection();
+            Connection connection = acquireConnection(loadBalancer, realDataSource);
+            // 记录使用的数据源与开始时间, 归还时反馈耗时
+            if (lease && loadBalancer.isFeedbackRequired()) {
+                loadBalancer.acquired(realDataSource);
+                leaseMap.put(connection, new Lease(loadBalancer, realDataSource, System.nanoTime()));
+            }
+            return connection;
         } catch (SQLException e) {
             throw new SQLRuntimeException(e.getMessage(), e);
         } catch (Throwable e) {
@@ -190,9 +294,56 @@ public Connection getLocalConnection(boolean isWriteOrTransaction) throws SQLRun
         }
     }
 
+    @Override
+    public PreparedStatement prepareStatement(Connection connection, String sql, SqlType sqlType)
+        throws SQLException {
+        PreparedStatementCache statementCache = localThreadStatementCache.get();
+        // 仅缓存事务持有的连接上的预执行对象
+        if (statementCache == null || statementCache.getConnection() != connection) {
+            return doPrepareStatement(connection, sql, sqlType);
+        }
+        int flavor = statementFlavor(sqlType);
+        PreparedStatement preparedStatement = statementCache.get(sql, flavor);
+        if (preparedStatement != null) {
+            statementCacheHitCount.increment();
+            return preparedStatement;
+        }
+        statementCacheMissCount.increment();
+        preparedStatement = doPrepareStatement(connection, sql, sqlType);
+        statementCache.put(sql, flavor, preparedStatement);
+        return preparedStatement;
+    }
+
+    @Override
+    public void statementClose(Connection connection, String sql, PreparedStatement preparedStatement)
+        throws SQLException {
+        PreparedStatementCache statementCache = localThreadStatementCache.get();
+        // 缓存持有的, 在事务结束时关闭
+        if (statementCache != null && statementCache.getConnection() == connection &&
+            statementCache.contains(sql, preparedStatement)) {
+            return;
+        }
+        preparedStatement.close();
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return statementCacheHitCount.sum();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return statementCacheMissCount.sum();
+    }
+
+    /**
+     * 获取连接, 由调用方直接关闭
+     * 不经过 localConnectionClose 归还, 因此不记录租约, 不参与负载均衡的耗时反馈
+     * @return 数据库连接
+     */
     @Override
     public Connection getConnection() {
-        return getLocalConnection(true);
+        return getLocalConnection(true, false);
     }
 
     @Override
@@ -250,12 +401,163 @@ protected DataSource getRealDataSource() {
      */
     protected DataSource getRealDataSource(boolean isWriteOrTransaction) {
         if (!hasSlave || isWriteOrTransaction) {
-            return masterDataSourceList.get(ThreadLocalRandom.current().nextInt(masterDataSourceList.size()));
+            return masterLoadBalancer.select(masterDataSourceList);
+        } else {
+            return slaveLoadBalancer.select(slaveDataSourceList);
+        }
+    }
+
+    /**
+     * 记录当前线程的写操作
+     */
+    protected void markWrite() {
+        if (readYourWritesMillis > 0) {
+            localThreadLastWriteTime.set(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public String getIdentity() {
+        return identity;
+    }
+
+    /**
+     * 记录当前线程的写操作
+     * 事务中的写操作在提交时记录
+     */
+    @Override
+    public void markLocalThreadWrite() {
+        if (!isLocalThreadInTransaction()) {
+            markWrite();
+        }
+    }
+
+    /**
+     * 当前线程是否处于写操作后的时间窗口内
+     * @return 是否
+     */
+    protected boolean isReadYourWrites() {
+        if (readYourWritesMillis <= 0) {
+            return false;
+        }
+        Long lastWriteTime = localThreadLastWriteTime.get();
+        if (lastWriteTime == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWriteTime < readYourWritesMillis) {
+            return true;
+        }
+        localThreadLastWriteTime.remove();
+        return false;
+    }
+
+    /**
+     * 当前线程最近一次写操作的时间(ms), 可用于跨线程(会话)传递, 配合 setLocalThreadLastWriteTime 使用
+     * @return 时间, 不在时间窗口内时返回 null
+     */
+    @Override
+    @Nullable
+    public Long getLocalThreadLastWriteTime() {
+        return isReadYourWrites() ? localThreadLastWriteTime.get() : null;
+    }
+
+    /**
+     * 设置当前线程最近一次写操作的时间(ms), eg: 在同一会话的后续请求中, 恢复之前保存的时间
+     * @param lastWriteTime 时间, null 表示清除
+     */
+    @Override
+    public void setLocalThreadLastWriteTime(@Nullable Long lastWriteTime) {
+        if (lastWriteTime == null) {
+            localThreadLastWriteTime.remove();
         } else {
-            return slaveDataSourceList.get(ThreadLocalRandom.current().nextInt(slaveDataSourceList.size()));
+            localThreadLastWriteTime.set(lastWriteTime);
+        }
+    }
+
+    /**
+     * 设置写操作后, 读操作也使用写连接的时长(ms)
+     * @param readYourWritesMillis 时长, 0 表示不开启
+     */
+    public void setReadYourWritesMillis(long readYourWritesMillis) {
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    /**
+     * 得到 DataSource 对应的负载均衡
+     * @param isWriteOrTransaction 是否在事务中, 是否需要写连接
+     * @return 负载均衡
+     */
+    protected LoadBalancer getLoadBalancer(boolean isWriteOrTransaction) {
+        return !hasSlave || isWriteOrTransaction ? masterLoadBalancer : slaveLoadBalancer;
+    }
+
+    /**
+     * 从数据源获取连接, 失败时反馈给负载均衡
+     * @param loadBalancer 负载均衡
+     * @param dataSource 数据源
+     * @return 数据库连接
+     * @throws SQLException 获取连接失败
+     */
+    protected static Connection acquireConnection(LoadBalancer loadBalancer, DataSource dataSource)
+        throws SQLException {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            loadBalancer.failed(dataSource);
+            throw e;
+        }
+    }
+
+    /**
+     * 连接归还后, 向负载均衡反馈耗时
+     * @param connection 数据库连接
+     */
+    protected void release(Connection connection) {
+        if (leaseMap.isEmpty()) {
+            return;
+        }
+        Lease lease = leaseMap.remove(connection);
+        if (lease != null) {
+            lease.loadBalancer.released(lease.dataSource, System.nanoTime() - lease.startNanos);
+        }
+    }
+
+    /**
+     * 根据配置生成负载均衡
+     * @return 负载均衡
+     */
+    protected LoadBalancer newLoadBalancer() {
+        GaarasonDatabaseProperties.LoadBalance loadBalance = container.getBean(GaarasonDatabaseProperties.class)
+            .getLoadBalance();
+        long ejectMillis = loadBalance.getEjectMillis();
+        switch (loadBalance.getStrategy()) {
+            case ROUND_ROBIN:
+                return new RoundRobinLoadBalancer(ejectMillis);
+            case LEAST_IN_FLIGHT:
+                return new LeastInFlightLoadBalancer(ejectMillis);
+            case EWMA:
+                return new EwmaLoadBalancer(loadBalance.getEwmaAlpha(), ejectMillis);
+            default:
+                return new RandomLoadBalancer(ejectMillis);
         }
     }
 
+    /**
+     * 设置写连接的负载均衡
+     * @param masterLoadBalancer 负载均衡
+     */
+    public void setMasterLoadBalancer(LoadBalancer masterLoadBalancer) {
+        this.masterLoadBalancer = masterLoadBalancer;
+    }
+
+    /**
+     * 设置读连接的负载均衡, eg: 加权随机 WeightedLoadBalancer
+     * @param slaveLoadBalancer 负载均衡
+     */
+    public void setSlaveLoadBalancer(LoadBalancer slaveLoadBalancer) {
+        this.slaveLoadBalancer = slaveLoadBalancer;
+    }
+
     @Override
     public void addEvent(Runnable runnable) {
         addEvent(Collections.singletonList(runnable));
@@ -295,6 +597,12 @@ public boolean isLocalThreadInTransaction() {
      * @throws ConnectionCloseException 关闭异常
      */
     protected void connectionClose(Connection connection) throws ConnectionCloseException {
+        // 释放缓存的预执行对象
+        PreparedStatementCache statementCache = localThreadStatementCache.get();
+        if (statementCache != null) {
+            localThreadStatementCache.remove();
+            statementCache.close();
+        }
         try {
             connection.close();
         } catch (Throwable e) {
@@ -384,6 +692,44 @@ protected QueryBuilderConfig getQueryBuilder(GaarasonDataSource dataSource) {
         throw new TypeNotSupportedException("Database product name [" + databaseProductName + "] not supported yet.");
     }
 
+    /**
+     * 按sql类型生成预执行对象
+     * @param connection 数据库连接
+     * @param sql 带占位符的sql
+     * @param sqlType sql类型
+     * @return 预执行对象
+     * @throws SQLException sql错误
+     */
+    protected PreparedStatement doPrepareStatement(Connection connection, String sql, SqlType sqlType)
+        throws SQLException {
+        switch (sqlType) {
+            case INSERT:
+            case REPLACE:
+                return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            case SELECT:
+                return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            default:
+                return connection.prepareStatement(sql);
+        }
+    }
+
+    /**
+     * 预执行对象的种类, 同sql不同种类的预执行对象不可复用
+     * @param sqlType sql类型
+     * @return 种类
+     */
+    protected static int statementFlavor(SqlType sqlType) {
+        switch (sqlType) {
+            case INSERT:
+            case REPLACE:
+                return 1;
+            case SELECT:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
     /**
      * 触发所有事件
      */
@@ -421,6 +767,20 @@ protected static void setAutoCommit(Connection connection, boolean flag) throws
         }
     }
 
+    /**
+     * 使用中的连接的信息
+     */
+    protected static class Lease {
+        final LoadBalancer loadBalancer;
+        final DataSource dataSource;
+        final long startNanos;
+        Lease(LoadBalancer loadBalancer, DataSource dataSource, long startNanos) {
+            this.loadBalancer = loadBalancer;
+            this.dataSource = dataSource;
+            this.startNanos = startNanos;
+        }
+    }
+
     public static class SavePointWrapper {
         @Nullable
         final Savepoint savepoint;
@@ -0,0 +1,38 @@
+package gaarason.database.connection;
+
+import gaarason.database.connection.sharding.ShardingHint;
+import gaarason.database.contract.connection.GaarasonDataSource;
+
+import java.util.function.Supplier;
+
+/**
+ * 线程上下文的传递
+ * 异步任务在提交时捕获当前线程的分片提示, 以及读己之写的最近写入时间, 在执行线程中恢复, 执行完成后还原
+ * 以保证异步执行的查询与提交线程使用相同的链接
+ * @author xt
+ */
+public final class LocalThreadContext {
+
+    private LocalThreadContext() {
+    }
+
+    /**
+     * 捕获当前线程的上下文, 包装为在执行线程中恢复该上下文的任务
+     * @param gaarasonDataSource 数据源
+     * @param closure 闭包
+     * @param <V> 响应类型
+     * @return 带有当前上下文的闭包
+     */
+    public static <V> Supplier<V> wrap(GaarasonDataSource gaarasonDataSource, Supplier<V> closure) {
+        Long lastWriteTime = gaarasonDataSource.getLocalThreadLastWriteTime();
+        return ShardingHint.wrap(() -> {
+            Long previousLastWriteTime = gaarasonDataSource.getLocalThreadLastWriteTime();
+            gaarasonDataSource.setLocalThreadLastWriteTime(lastWriteTime);
+            try {
+                return closure.get();
+            } finally {
+                gaarasonDataSource.setLocalThreadLastWriteTime(previousLastWriteTime);
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package gaarason.database.connection;
+
+import gaarason.database.lang.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 预执行对象缓存 (LRU)
+ * 仅服务于单个连接, 且该连接只被单个线程使用, 因此没有并发控制
+ * 超出容量时, 最久未使用的预执行对象将被关闭
+ * @author xt
+ */
+public class PreparedStatementCache {
+
+    /**
+     * 所属的数据库连接
+     */
+    protected final Connection connection;
+
+    /**
+     * sql -> 预执行对象
+     */
+    protected final LinkedHashMap<String, Entry> statementMap;
+
+    /**
+     * 构造
+     * @param connection 所属的数据库连接
+     * @param capacity 容量
+     */
+    public PreparedStatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.statementMap = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    // 淘汰时关闭
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的预执行对象
+     * @param sql 带占位符的sql
+     * @param flavor 预执行对象的种类
+     * @return 预执行对象, 未命中时为 null
+     * @throws SQLException sql错误
+     */
+    @Nullable
+    public PreparedStatement get(String sql, int flavor) throws SQLException {
+        Entry entry = statementMap.get(sql);
+        if (entry == null || entry.flavor != flavor || entry.statement.isClosed()) {
+            return null;
+        }
+        // 清除上次的参数
+        entry.statement.clearParameters();
+        return entry.statement;
+    }
+
+    /**
+     * 缓存预执行对象, 同sql的旧对象将被关闭
+     * @param sql 带占位符的sql
+     * @param flavor 预执行对象的种类
+     * @param statement 预执行对象
+     */
+    public void put(String sql, int flavor, PreparedStatement statement) {
+        Entry old = statementMap.put(sql, new Entry(statement, flavor));
+        if (old != null && old.statement != statement) {
+            closeQuietly(old.statement);
+        }
+    }
+
+    /**
+     * 预执行对象是否由缓存持有
+     * @param sql 带占位符的sql
+     * @param statement 预执行对象
+     * @return 是否缓存持有
+     */
+    public boolean contains(String sql, PreparedStatement statement) {
+        Entry entry = statementMap.get(sql);
+        return entry != null && entry.statement == statement;
+    }
+
+    /**
+     * 缓存的数量
+     * @return 数量
+     */
+    public int size() {
+        return statementMap.size();
+    }
+
+    /**
+     * 所属的数据库连接
+     * @return 数据库连接
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * 关闭并清除所有的预执行对象
+     */
+    public void close() {
+        for (Entry entry : statementMap.values()) {
+            closeQuietly(entry.statement);
+        }
+        statementMap.clear();
+    }
+
+    /**
+     * 关闭预执行对象, 忽略异常
+     * @param statement 预执行对象
+     */
+    protected static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+            // 连接关闭时, 驱动会一并释放
+        }
+    }
+
+    /**
+     * 缓存项
+     */
+    protected static class Entry {
+
+        final PreparedStatement statement;
+
+        final int flavor;
+
+        Entry(PreparedStatement statement, int flavor) {
+            this.statement = statement;
+            this.flavor = flavor;
+        }
+    }
+}
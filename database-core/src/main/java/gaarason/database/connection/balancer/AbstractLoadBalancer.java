@@ -0,0 +1,120 @@
+package gaarason.database.connection.balancer;
+
+import gaarason.database.contract.connection.LoadBalancer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 负载均衡基类
+ * 获取连接失败的数据源, 将被暂时剔除, 全部被剔除时, 仍在全部数据源中选择
+ * @author xt
+ */
+public abstract class AbstractLoadBalancer implements LoadBalancer {
+
+    /**
+     * 获取连接失败后, 剔除的时长(ms)
+     */
+    protected final long ejectMillis;
+
+    /**
+     * 各个数据源的使用情况
+     */
+    protected final Map<DataSource, Node> nodeMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param ejectMillis 获取连接失败后, 剔除的时长(ms)
+     */
+    protected AbstractLoadBalancer(long ejectMillis) {
+        this.ejectMillis = ejectMillis;
+    }
+
+    @Override
+    public DataSource select(List<DataSource> dataSourceList) {
+        if (dataSourceList.size() == 1) {
+            return dataSourceList.get(0);
+        }
+        return choose(available(dataSourceList));
+    }
+
+    /**
+     * 在可用的数据源中选择
+     * @param dataSourceList 可用的数据源 (非空)
+     * @return 数据源
+     */
+    protected abstract DataSource choose(List<DataSource> dataSourceList);
+
+    @Override
+    public void acquired(DataSource dataSource) {
+        node(dataSource).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void released(DataSource dataSource, long elapsedNanos) {
+        node(dataSource).inFlight.decrementAndGet();
+    }
+
+    @Override
+    public void failed(DataSource dataSource) {
+        node(dataSource).ejectedUntil = System.currentTimeMillis() + ejectMillis;
+    }
+
+    /**
+     * 过滤被剔除的数据源
+     * @param dataSourceList 数据源集合
+     * @return 可用的数据源集合, 没有被剔除的数据源时, 返回原集合
+     */
+    protected List<DataSource> available(List<DataSource> dataSourceList) {
+        if (nodeMap.isEmpty()) {
+            return dataSourceList;
+        }
+        long now = System.currentTimeMillis();
+        List<DataSource> available = null;
+        for (int i = 0; i < dataSourceList.size(); i++) {
+            DataSource dataSource = dataSourceList.get(i);
+            Node node = nodeMap.get(dataSource);
+            boolean ejected = node != null && node.ejectedUntil > now;
+            if (ejected && available == null) {
+                available = new ArrayList<>(dataSourceList.subList(0, i));
+            } else if (!ejected && available != null) {
+                available.add(dataSource);
+            }
+        }
+        // 全部被剔除时, 仍然使用全部
+        return available == null || available.isEmpty() ? dataSourceList : available;
+    }
+
+    /**
+     * 数据源的使用情况
+     * @param dataSource 数据源
+     * @return 使用情况
+     */
+    protected Node node(DataSource dataSource) {
+        return nodeMap.computeIfAbsent(dataSource, k -> new Node());
+    }
+
+    /**
+     * 数据源的使用情况
+     */
+    protected static class Node {
+
+        /**
+         * 正在使用的连接数
+         */
+        protected final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 平均耗时(纳秒), 指数加权移动平均
+         */
+        protected volatile double ewmaNanos;
+
+        /**
+         * 被剔除至(ms)
+         */
+        protected volatile long ejectedUntil;
+    }
+}
@@ -0,0 +1,41 @@
+package gaarason.database.connection.balancer;
+
+import javax.sql.DataSource;
+
+/**
+ * 最小平均耗时
+ * 代价为 平均耗时(指数加权移动平均) * (正在使用的连接数 + 1), 同样使用 power of two choices
+ * 尚无耗时记录的数据源代价为 0, 从而优先被探测
+ * @author xt
+ */
+public class EwmaLoadBalancer extends LeastInFlightLoadBalancer {
+
+    /**
+     * 新的耗时所占的权重
+     */
+    protected final double alpha;
+
+    /**
+     * @param alpha 新的耗时所占的权重 (0~1], 越大对变化越敏感
+     * @param ejectMillis 获取连接失败后, 剔除的时长(ms)
+     */
+    public EwmaLoadBalancer(double alpha, long ejectMillis) {
+        super(ejectMillis);
+        this.alpha = alpha;
+    }
+
+    @Override
+    public void released(DataSource dataSource, long elapsedNanos) {
+        Node node = node(dataSource);
+        node.inFlight.decrementAndGet();
+        double ewma = node.ewmaNanos;
+        // 并发时可能丢失个别样本, 对平均值影响可以忽略
+        node.ewmaNanos = ewma == 0 ? elapsedNanos : ewma + alpha * (elapsedNanos - ewma);
+    }
+
+    @Override
+    protected double cost(DataSource dataSource) {
+        Node node = nodeMap.get(dataSource);
+        return node == null ? 0 : node.ewmaNanos * (node.inFlight.get() + 1);
+    }
+}
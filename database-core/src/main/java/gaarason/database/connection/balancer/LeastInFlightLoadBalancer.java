@@ -0,0 +1,47 @@
+package gaarason.database.connection.balancer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 最少正在使用的连接数
+ * 随机选取两个数据源, 使用其中代价较小的一个 (power of two choices), 以避免所有请求同时涌向同一个数据源
+ * @author xt
+ */
+public class LeastInFlightLoadBalancer extends AbstractLoadBalancer {
+
+    public LeastInFlightLoadBalancer(long ejectMillis) {
+        super(ejectMillis);
+    }
+
+    @Override
+    public boolean isFeedbackRequired() {
+        return true;
+    }
+
+    @Override
+    protected DataSource choose(List<DataSource> dataSourceList) {
+        int size = dataSourceList.size();
+        if (size == 1) {
+            return dataSourceList.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // 与 first 不同的另一个
+        int second = (first + 1 + random.nextInt(size - 1)) % size;
+        DataSource a = dataSourceList.get(first);
+        DataSource b = dataSourceList.get(second);
+        return cost(b) < cost(a) ? b : a;
+    }
+
+    /**
+     * 代价
+     * @param dataSource 数据源
+     * @return 代价
+     */
+    protected double cost(DataSource dataSource) {
+        Node node = nodeMap.get(dataSource);
+        return node == null ? 0 : node.inFlight.get();
+    }
+}
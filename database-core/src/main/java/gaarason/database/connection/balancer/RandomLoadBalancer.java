@@ -0,0 +1,21 @@
+package gaarason.database.connection.balancer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 随机
+ * @author xt
+ */
+public class RandomLoadBalancer extends AbstractLoadBalancer {
+
+    public RandomLoadBalancer(long ejectMillis) {
+        super(ejectMillis);
+    }
+
+    @Override
+    protected DataSource choose(List<DataSource> dataSourceList) {
+        return dataSourceList.get(ThreadLocalRandom.current().nextInt(dataSourceList.size()));
+    }
+}
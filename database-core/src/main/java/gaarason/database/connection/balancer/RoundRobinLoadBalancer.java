@@ -0,0 +1,28 @@
+package gaarason.database.connection.balancer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 轮询
+ * @author xt
+ */
+public class RoundRobinLoadBalancer extends AbstractLoadBalancer {
+
+    /**
+     * 计数
+     */
+    protected final AtomicInteger counter = new AtomicInteger();
+
+    public RoundRobinLoadBalancer(long ejectMillis) {
+        super(ejectMillis);
+    }
+
+    @Override
+    protected DataSource choose(List<DataSource> dataSourceList) {
+        // 溢出后仍为非负数
+        int index = (counter.getAndIncrement() & Integer.MAX_VALUE) % dataSourceList.size();
+        return dataSourceList.get(index);
+    }
+}
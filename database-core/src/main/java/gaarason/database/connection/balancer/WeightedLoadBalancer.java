@@ -0,0 +1,56 @@
+package gaarason.database.connection.balancer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 加权随机
+ * @author xt
+ */
+public class WeightedLoadBalancer extends AbstractLoadBalancer {
+
+    /**
+     * 数据源的权重, 未指定的数据源权重为 1
+     */
+    protected final Map<DataSource, Integer> weightMap;
+
+    /**
+     * @param weightMap 数据源的权重, 未指定的数据源权重为 1
+     * @param ejectMillis 获取连接失败后, 剔除的时长(ms)
+     */
+    public WeightedLoadBalancer(Map<DataSource, Integer> weightMap, long ejectMillis) {
+        super(ejectMillis);
+        this.weightMap = weightMap;
+    }
+
+    @Override
+    protected DataSource choose(List<DataSource> dataSourceList) {
+        int total = 0;
+        for (DataSource dataSource : dataSourceList) {
+            total += weight(dataSource);
+        }
+        if (total <= 0) {
+            return dataSourceList.get(ThreadLocalRandom.current().nextInt(dataSourceList.size()));
+        }
+        int random = ThreadLocalRandom.current().nextInt(total);
+        for (DataSource dataSource : dataSourceList) {
+            random -= weight(dataSource);
+            if (random < 0) {
+                return dataSource;
+            }
+        }
+        return dataSourceList.get(dataSourceList.size() - 1);
+    }
+
+    /**
+     * 权重
+     * @param dataSource 数据源
+     * @return 权重
+     */
+    protected int weight(DataSource dataSource) {
+        Integer weight = weightMap.get(dataSource);
+        return weight == null ? 1 : Math.max(weight, 0);
+    }
+}
@@ -0,0 +1,5 @@
+@NonNullApi @NonNullFields
+package gaarason.database.connection.balancer;
+
+import gaarason.database.lang.NonNullApi;
+import gaarason.database.lang.NonNullFields;
\ No newline at end of file
@@ -0,0 +1,58 @@
+package gaarason.database.connection.sharding;
+
+import gaarason.database.contract.connection.ShardingStrategy;
+import gaarason.database.exception.AbnormalParameterException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 哈希取模分片
+ * 整数类型的分片键直接取模, 其他类型使用 hashCode 取模
+ * @author xt
+ */
+public class HashShardingStrategy implements ShardingStrategy {
+
+    /**
+     * 分片名, 下标即为模
+     */
+    protected final List<String> shardNames;
+
+    /**
+     * @param shardNames 分片名, 下标即为模
+     */
+    public HashShardingStrategy(List<String> shardNames) {
+        if (shardNames.isEmpty()) {
+            throw new AbnormalParameterException("The list of shard names should not be empty.");
+        }
+        this.shardNames = Collections.unmodifiableList(new ArrayList<>(shardNames));
+    }
+
+    @Override
+    public String shard(Object shardingKey) {
+        return shardNames.get(index(shardingKey));
+    }
+
+    @Override
+    public Collection<String> shards() {
+        return shardNames;
+    }
+
+    /**
+     * 分片键对应的下标
+     * @param shardingKey 分片键
+     * @return 下标
+     */
+    protected int index(Object shardingKey) {
+        long hash;
+        if (shardingKey instanceof Long || shardingKey instanceof Integer || shardingKey instanceof Short ||
+            shardingKey instanceof Byte) {
+            hash = ((Number) shardingKey).longValue();
+        } else {
+            hash = shardingKey.hashCode();
+        }
+        return (int) Math.floorMod(hash, (long) shardNames.size());
+    }
+}
@@ -0,0 +1,49 @@
+package gaarason.database.connection.sharding;
+
+import gaarason.database.contract.connection.ShardingStrategy;
+import gaarason.database.exception.AbnormalParameterException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 范围分片
+ * 分片键需要是整数(或者可以转化为整数的字符串), 落在 [起始值, 下一个起始值) 的区间对应同一个分片
+ * @author xt
+ */
+public class RangeShardingStrategy implements ShardingStrategy {
+
+    /**
+     * 区间的起始值(含) -> 分片名
+     */
+    protected final TreeMap<Long, String> rangeMap = new TreeMap<>();
+
+    /**
+     * 增加区间
+     * @param fromInclusive 区间的起始值(含), 至下一个区间的起始值(不含)
+     * @param shardName 分片名
+     * @return 当前对象
+     */
+    public RangeShardingStrategy range(long fromInclusive, String shardName) {
+        rangeMap.put(fromInclusive, shardName);
+        return this;
+    }
+
+    @Override
+    public String shard(Object shardingKey) {
+        long value = shardingKey instanceof Number ? ((Number) shardingKey).longValue() :
+            Long.parseLong(String.valueOf(shardingKey));
+        Map.Entry<Long, String> entry = rangeMap.floorEntry(value);
+        if (entry == null) {
+            throw new AbnormalParameterException("Sharding key [" + shardingKey + "] is out of all ranges.");
+        }
+        return entry.getValue();
+    }
+
+    @Override
+    public Collection<String> shards() {
+        return new LinkedHashSet<>(rangeMap.values());
+    }
+}
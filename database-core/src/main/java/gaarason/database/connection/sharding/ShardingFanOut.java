@@ -0,0 +1,154 @@
+package gaarason.database.connection.sharding;
+
+import gaarason.database.contract.connection.ShardingStrategy;
+import gaarason.database.lang.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 跨分片查询
+ * 在每个分片中并行执行同一查询, 再合并结果
+ * 排序分页时, 每个分片应使用相同的排序, 并查询 offset + limit 条, 合并后再统一分页
+ * @author xt
+ */
+public final class ShardingFanOut {
+
+    private ShardingFanOut() {
+    }
+
+    /**
+     * 在策略的全部分片中并行执行
+     * @param strategy 分片策略
+     * @param closure 闭包, 参数为分片名, 执行时当前线程的分片提示即为该分片 (分表策略为表通道, 逻辑表的查询即使用该表)
+     * @param executor 线程池
+     * @param <V> 响应类型
+     * @return 各个分片的响应, 与分片顺序一致
+     */
+    public static <V> List<V> query(ShardingStrategy strategy, Function<String, V> closure, Executor executor) {
+        return query(strategy.shards(), strategy.logicTableName(), closure, executor);
+    }
+
+    /**
+     * 在指定分片中并行执行
+     * 当前线程在事务中时, 为了保证事务特性的准确, 应使用单个分片
+     * @param shardNames 分片名(数据库链接名)集合
+     * @param closure 闭包, 参数为分片名, 执行时当前线程的分片提示即为该分片
+     * @param executor 线程池
+     * @param <V> 响应类型
+     * @return 各个分片的响应, 与分片顺序一致
+     */
+    public static <V> List<V> query(Collection<String> shardNames, Function<String, V> closure, Executor executor) {
+        return query(shardNames, null, closure, executor);
+    }
+
+    /**
+     * 在指定分表中并行执行
+     * @param logicTableName 逻辑表名
+     * @param tableNames 实际表名集合
+     * @param closure 闭包, 参数为实际表名, 执行时逻辑表的查询即使用该表
+     * @param executor 线程池
+     * @param <V> 响应类型
+     * @return 各个分表的响应, 与分表顺序一致
+     */
+    public static <V> List<V> queryTables(String logicTableName, Collection<String> tableNames,
+        Function<String, V> closure, Executor executor) {
+        return query(tableNames, logicTableName, closure, executor);
+    }
+
+    /**
+     * 并行执行
+     * 提交线程的分片提示会带入执行线程, 再以当前分片覆盖对应的通道
+     * @param shardNames 分片名集合
+     * @param logicTableName 逻辑表名, 非 null 时分片名为实际表名
+     * @param closure 闭包
+     * @param executor 线程池
+     * @param <V> 响应类型
+     * @return 各个分片的响应, 与分片顺序一致
+     */
+    private static <V> List<V> query(Collection<String> shardNames, @Nullable String logicTableName,
+        Function<String, V> closure, Executor executor) {
+        List<CompletableFuture<V>> futures = new ArrayList<>(shardNames.size());
+        for (String shardName : shardNames) {
+            Supplier<V> task = () -> closure.apply(shardName);
+            futures.add(supplyAsync(ShardingHint.wrap(() -> logicTableName != null ?
+                ShardingHint.executeTable(logicTableName, shardName, task) : ShardingHint.execute(shardName, task)),
+                executor));
+        }
+        List<V> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<V> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * 合并各个分片中已排序的结果, 并分页
+     * @param sortedLists 各个分片中已排序的结果
+     * @param comparator 排序 (与查询中的排序一致)
+     * @param offset 偏移量
+     * @param limit 数量
+     * @param <T> 元素类型
+     * @return 合并后的结果
+     */
+    public static <T> List<T> mergeSorted(List<? extends List<T>> sortedLists, Comparator<? super T> comparator,
+        int offset, int limit) {
+        // 多路归并, 元素为 {所在分片下标, 分片内下标}
+        PriorityQueue<int[]> queue = new PriorityQueue<>(Math.max(sortedLists.size(), 1),
+            (a, b) -> comparator.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                queue.add(new int[]{i, 0});
+            }
+        }
+        List<T> result = new ArrayList<>(Math.max(limit, 0));
+        int skipped = 0;
+        while (!queue.isEmpty() && result.size() < limit) {
+            int[] cursor = queue.poll();
+            List<T> list = sortedLists.get(cursor[0]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(list.get(cursor[1]));
+            }
+            if (cursor[1] + 1 < list.size()) {
+                queue.add(new int[]{cursor[0], cursor[1] + 1});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 异步执行, 线程池拒绝时在当前线程执行
+     * @param task 任务
+     * @param executor 线程池
+     * @param <V> 响应类型
+     * @return 异步响应
+     */
+    private static <V> CompletableFuture<V> supplyAsync(Supplier<V> task, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            return future;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package gaarason.database.connection.sharding;
+
+import gaarason.database.contract.connection.ShardingStrategy;
+import gaarason.database.lang.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的分片提示
+ * 分为两个通道: 链接通道为数据库链接名, 支持分片的 GaarasonDataSource 在获取连接时, 据此选择数据库链接;
+ * 表通道为逻辑表名到实际表名的映射, 查询构造器在未指定 from/table 时, 将逻辑表替换为实际表
+ * 事务中的连接在开启事务时确定, 因此需要在开启事务之前设置
+ * 异步执行时, 使用 wrap 将提交线程的分片提示带入执行线程
+ * @author xt
+ */
+public final class ShardingHint {
+
+    /**
+     * 当前线程的分片名(数据库链接名)
+     */
+    private static final ThreadLocal<String> LOCAL_SHARD_NAME = new ThreadLocal<>();
+
+    /**
+     * 当前线程的分表, 逻辑表名 -> 实际表名, 不可变
+     */
+    private static final ThreadLocal<Map<String, String>> LOCAL_TABLE_MAP = new ThreadLocal<>();
+
+    private ShardingHint() {
+    }
+
+    /**
+     * 当前线程的分片名(数据库链接名)
+     * @return 分片名
+     */
+    @Nullable
+    public static String get() {
+        return LOCAL_SHARD_NAME.get();
+    }
+
+    /**
+     * 设置当前线程的分片名(数据库链接名)
+     * @param shardName 分片名, null 表示清除
+     */
+    public static void set(@Nullable String shardName) {
+        if (shardName == null) {
+            LOCAL_SHARD_NAME.remove();
+        } else {
+            LOCAL_SHARD_NAME.set(shardName);
+        }
+    }
+
+    /**
+     * 当前线程中, 逻辑表对应的实际表名
+     * @param logicTableName 逻辑表名
+     * @return 实际表名, 未设置时为 null
+     */
+    @Nullable
+    public static String getTable(String logicTableName) {
+        Map<String, String> tableMap = LOCAL_TABLE_MAP.get();
+        return tableMap == null ? null : tableMap.get(logicTableName);
+    }
+
+    /**
+     * 设置当前线程中, 逻辑表对应的实际表名
+     * @param logicTableName 逻辑表名
+     * @param tableName 实际表名, null 表示清除
+     */
+    public static void setTable(String logicTableName, @Nullable String tableName) {
+        Map<String, String> tableMap = LOCAL_TABLE_MAP.get();
+        Map<String, String> newTableMap = tableMap == null ? new HashMap<>() : new HashMap<>(tableMap);
+        if (tableName == null) {
+            newTableMap.remove(logicTableName);
+        } else {
+            newTableMap.put(logicTableName, tableName);
+        }
+        setTableMap(newTableMap.isEmpty() ? null : Collections.unmodifiableMap(newTableMap));
+    }
+
+    /**
+     * 清除当前线程的分片名与分表
+     */
+    public static void clear() {
+        LOCAL_SHARD_NAME.remove();
+        LOCAL_TABLE_MAP.remove();
+    }
+
+    /**
+     * 在指定分片(数据库链接)中执行, 执行完成后恢复之前的分片名
+     * @param shardName 分片名
+     * @param closure 闭包
+     * @param <V> 响应类型
+     * @return 响应
+     */
+    public static <V> V execute(String shardName, Supplier<V> closure) {
+        String previous = LOCAL_SHARD_NAME.get();
+        LOCAL_SHARD_NAME.set(shardName);
+        try {
+            return closure.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * 在指定分表中执行, 执行完成后恢复之前的分表
+     * @param logicTableName 逻辑表名
+     * @param tableName 实际表名
+     * @param closure 闭包
+     * @param <V> 响应类型
+     * @return 响应
+     */
+    public static <V> V executeTable(String logicTableName, String tableName, Supplier<V> closure) {
+        Map<String, String> previous = LOCAL_TABLE_MAP.get();
+        setTable(logicTableName, tableName);
+        try {
+            return closure.get();
+        } finally {
+            setTableMap(previous);
+        }
+    }
+
+    /**
+     * 在分片键对应的分片中执行, 执行完成后恢复之前的分片名
+     * 分表策略写入表通道, 其余写入链接通道
+     * @param strategy 分片策略
+     * @param shardingKey 分片键
+     * @param closure 闭包
+     * @param <V> 响应类型
+     * @return 响应
+     */
+    public static <V> V execute(ShardingStrategy strategy, Object shardingKey, Supplier<V> closure) {
+        String shardName = strategy.shard(shardingKey);
+        String logicTableName = strategy.logicTableName();
+        return logicTableName != null ? executeTable(logicTableName, shardName, closure) :
+            execute(shardName, closure);
+    }
+
+    /**
+     * 捕获当前线程的分片提示, 在执行线程中恢复, 执行完成后还原执行线程原有的分片提示
+     * 用于提交异步任务
+     * @param closure 闭包
+     * @param <V> 响应类型
+     * @return 带有当前分片提示的闭包
+     */
+    public static <V> Supplier<V> wrap(Supplier<V> closure) {
+        String shardName = LOCAL_SHARD_NAME.get();
+        Map<String, String> tableMap = LOCAL_TABLE_MAP.get();
+        return () -> {
+            String previousShardName = LOCAL_SHARD_NAME.get();
+            Map<String, String> previousTableMap = LOCAL_TABLE_MAP.get();
+            set(shardName);
+            setTableMap(tableMap);
+            try {
+                return closure.get();
+            } finally {
+                set(previousShardName);
+                setTableMap(previousTableMap);
+            }
+        };
+    }
+
+    /**
+     * 设置分表
+     * @param tableMap 逻辑表名 -> 实际表名, null 表示清除
+     */
+    private static void setTableMap(@Nullable Map<String, String> tableMap) {
+        if (tableMap == null) {
+            LOCAL_TABLE_MAP.remove();
+        } else {
+            LOCAL_TABLE_MAP.set(tableMap);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package gaarason.database.connection.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表后缀分片, eg: order_0 ... order_63
+ * 分片名即为实际表名, 在分片提示中执行时, 逻辑表的查询自动使用实际表
+ * @author xt
+ */
+public class TableSuffixShardingStrategy extends HashShardingStrategy {
+
+    /**
+     * 逻辑表名
+     */
+    protected final String logicTableName;
+
+    /**
+     * @param logicTableName 逻辑表名 eg: order
+     * @param count 分表数量 eg: 64
+     */
+    public TableSuffixShardingStrategy(String logicTableName, int count) {
+        super(tableNames(logicTableName, count));
+        this.logicTableName = logicTableName;
+    }
+
+    @Override
+    public String logicTableName() {
+        return logicTableName;
+    }
+
+    /**
+     * 全部的表名
+     * @param logicTableName 逻辑表名
+     * @param count 分表数量
+     * @return 表名集合
+     */
+    protected static List<String> tableNames(String logicTableName, int count) {
+        List<String> tableNames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tableNames.add(logicTableName + "_" + i);
+        }
+        return tableNames;
+    }
+}
@@ -3,6 +3,7 @@
 import gaarason.database.contract.connection.GaarasonDataSource;
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Model;
+import gaarason.database.contract.support.QueryCache;
 import gaarason.database.lang.Nullable;
 import gaarason.database.provider.ModelShadowProvider;
 import gaarason.database.support.ModelMember;
@@ -31,6 +32,17 @@ public ExecutorService getExecutorService(){
         return getContainer().getBean(ExecutorService.class);
     }
 
+    /**
+     * 默认不使用查询结果缓存, 需要时覆盖此方法
+     * eg: return getContainer().getBean(QueryCache.class);
+     * @return 查询结果缓存
+     */
+    @Override
+    @Nullable
+    public QueryCache getQueryCache() {
+        return null;
+    }
+
 
     @Override
     public Model<B, T, K> getSelf() {
@@ -2,7 +2,9 @@
 
 import gaarason.database.appointment.EntityUseType;
 import gaarason.database.appointment.JDBCValueWrapper;
+import gaarason.database.appointment.SqlType;
 import gaarason.database.config.ConversionConfig;
+import gaarason.database.connection.LocalThreadContext;
 import gaarason.database.contract.connection.GaarasonDataSource;
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Record;
@@ -17,6 +19,7 @@
 import gaarason.database.lang.Nullable;
 import gaarason.database.support.FieldMember;
 import gaarason.database.support.PrimaryKeyMember;
+import gaarason.database.support.RecordCursor;
 import gaarason.database.support.RecordFactory;
 import gaarason.database.util.EntityUtils;
 import gaarason.database.util.ObjectUtils;
@@ -25,6 +28,8 @@
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 数据模型对象
@@ -220,6 +225,11 @@ public Record<T, K> update(T entity) {
         return theRecord;
     }
 
+    @Override
+    public int updateBatch(Collection<T> entities) throws SQLRuntimeException {
+        return newQuery().updateMany(entities);
+    }
+
     @Override
     public Record<T, K> updateByPrimaryKeyOrCreate(T entity) {
         // 获取 entity 中的主键的值
@@ -300,14 +310,63 @@ public Record<T, K> nativeQuery(String sql, @Nullable Collection<?> parameters)
     @Override
     public RecordList<T, K> nativeQueryList(String sql, @Nullable Collection<?> parameters) throws SQLRuntimeException {
         return doSomethingInConnection(preparedStatement -> {
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return RecordFactory.newRecordList(getSelf(), resultSet, sql);
+            }
+        }, sql, parameters, SqlType.SELECT);
+    }
+
+    @Override
+    public Stream<Record<T, K>> nativeQueryCursor(String sql, @Nullable Collection<?> parameters, int fetchSize)
+        throws SQLRuntimeException {
+        Collection<?> localParameters = parameters == null ? Collections.EMPTY_LIST : parameters;
+        GaarasonDataSource gaarasonDataSource = getGaarasonDataSource();
+        // 获取连接, 在流关闭时才归还
+        Connection connection = gaarasonDataSource.getLocalConnection(false);
+        PreparedStatement preparedStatement = null;
+        try {
+            // 日志记录
+            getSelf().log(sql, localParameters);
+            // 只读, 单向
+            preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(
+                gaarasonDataSource.getQueryBuilder().getCursorFetchSize(connection, fetchSize));
+            // 参数绑定
+            setParameters(preparedStatement, localParameters);
+            // 执行
             ResultSet resultSet = preparedStatement.executeQuery();
-            return RecordFactory.newRecordList(getSelf(), resultSet, sql);
-        }, sql, parameters, false);
+            PreparedStatement theStatement = preparedStatement;
+            RecordCursor<T, K> cursor = new RecordCursor<>(getSelf(), resultSet, sql, () -> {
+                try {
+                    theStatement.close();
+                } catch (SQLException e) {
+                    throw new SQLRuntimeException(sql, e.getMessage(), e);
+                } finally {
+                    // 关闭连接
+                    gaarasonDataSource.localConnectionClose(connection);
+                }
+            });
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (Throwable e) {
+            try {
+                if (preparedStatement != null) {
+                    preparedStatement.close();
+                }
+            } catch (SQLException ignore) {
+                // 以原异常为准
+            } finally {
+                // 关闭连接
+                gaarasonDataSource.localConnectionClose(connection);
+            }
+            throw new SQLRuntimeException(sql, localParameters, e.getMessage(),
+                gaarasonDataSource.getQueryBuilder().getValueSymbol(), e);
+        }
     }
 
     @Override
     public int nativeExecute(String sql, @Nullable Collection<?> parameters) throws SQLRuntimeException {
-        return doSomethingInConnection(PreparedStatement::executeUpdate, sql, parameters, true);
+        return doSomethingInConnection(PreparedStatement::executeUpdate, sql, parameters, SqlType.UPDATE);
     }
 
     @Override
@@ -317,13 +376,13 @@ public List<K> nativeExecuteGetIds(String sql, @Nullable Collection<?> parameter
             // 执行
             preparedStatement.executeUpdate();
             // 执行成功
-            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-            while (generatedKeys.next()) {
-                ids.add(getGeneratedKeys(generatedKeys));
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    ids.add(getGeneratedKeys(generatedKeys));
+                }
             }
-            generatedKeys.close();
             return ids;
-        }, sql, parameters, true);
+        }, sql, parameters, SqlType.INSERT);
     }
 
     @Override
@@ -333,6 +392,36 @@ public K nativeExecuteGetId(String sql, @Nullable Collection<?> parameters) thro
         return ObjectUtils.isEmpty(list) ? null : list.get(0);
     }
 
+    @Override
+    public int nativeExecuteBatch(String sql, Collection<? extends Collection<?>> parametersList)
+        throws SQLRuntimeException {
+        return doSomethingInConnection(preparedStatement -> {
+            int rows = 0;
+            for (int count : executeBatch(preparedStatement, parametersList)) {
+                // rewriteBatchedStatements 时, 可能无法得知每行的影响行数
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+            return rows;
+        }, sql, null, SqlType.INSERT);
+    }
+
+    @Override
+    public List<K> nativeExecuteBatchGetIds(String sql, Collection<? extends Collection<?>> parametersList)
+        throws SQLRuntimeException {
+        return doSomethingInConnection(preparedStatement -> {
+            List<K> ids = new ArrayList<>(parametersList.size());
+            // 执行
+            executeBatch(preparedStatement, parametersList);
+            // 执行成功
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    ids.add(getGeneratedKeys(generatedKeys));
+                }
+            }
+            return ids;
+        }, sql, null, SqlType.INSERT);
+    }
+
     @Override
     public CompletableFuture<Record<T, K>> nativeQueryOrFailAsync(String sql, @Nullable Collection<?> parameters)
         throws SQLRuntimeException, EntityNotFoundException {
@@ -356,15 +445,16 @@ public CompletableFuture<Record<T, K>> nativeQueryAsync(String sql, @Nullable Co
     public CompletableFuture<RecordList<T, K>> nativeQueryListAsync(String sql, @Nullable Collection<?> parameters)
         throws SQLRuntimeException {
         return doSomethingInConnectionAsync(preparedStatement -> {
-            ResultSet resultSet = preparedStatement.executeQuery();
-            return RecordFactory.newRecordList(getSelf(), resultSet, sql);
-        }, sql, parameters, false);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return RecordFactory.newRecordList(getSelf(), resultSet, sql);
+            }
+        }, sql, parameters, SqlType.SELECT);
     }
 
     @Override
     public CompletableFuture<Integer> nativeExecuteAsync(String sql, @Nullable Collection<?> parameters)
         throws SQLRuntimeException {
-        return doSomethingInConnectionAsync(PreparedStatement::executeUpdate, sql, parameters, true);
+        return doSomethingInConnectionAsync(PreparedStatement::executeUpdate, sql, parameters, SqlType.UPDATE);
     }
 
     @Override
@@ -375,13 +465,13 @@ public CompletableFuture<List<K>> nativeExecuteGetIdsAsync(String sql, @Nullable
             // 执行
             preparedStatement.executeUpdate();
             // 执行成功
-            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-            while (generatedKeys.next()) {
-                ids.add(getGeneratedKeys(generatedKeys));
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    ids.add(getGeneratedKeys(generatedKeys));
+                }
             }
-            generatedKeys.close();
             return ids;
-        }, sql, parameters, true);
+        }, sql, parameters, SqlType.INSERT);
     }
 
     @Override
@@ -393,27 +483,42 @@ public CompletableFuture<K> nativeExecuteGetIdAsync(String sql, @Nullable Collec
 
     /**
      * 在连接中执行
+     * 执行完成后关闭预执行对象 (事务中被缓存的除外)
      * @param closure 闭包
      * @param sql 带占位符的sql
      * @param parameters sql的参数
-     * @param isWrite 是否写(主)链接
+     * @param sqlType sql类型, 决定预执行对象的种类, 以及是否使用写(主)链接
      * @param <U> 响应类型
      * @return 响应
      * @throws SQLRuntimeException 数据库异常
      */
     protected <U> U doSomethingInConnection(ExecSqlWithinConnectionFunctionalInterface<U> closure, String sql,
-        @Nullable Collection<?> parameters, boolean isWrite) throws SQLRuntimeException {
+        @Nullable Collection<?> parameters, SqlType sqlType) throws SQLRuntimeException {
 
         Collection<?> localParameters = parameters == null ? Collections.EMPTY_LIST : parameters;
         GaarasonDataSource gaarasonDataSource = getGaarasonDataSource();
         // 获取连接
-        Connection connection = gaarasonDataSource.getLocalConnection(isWrite);
+        Connection connection = gaarasonDataSource.getLocalConnection(!SqlType.SELECT.equals(sqlType));
 
         try {
             // 参数准备
-            PreparedStatement preparedStatement = executeSql(connection, sql, localParameters);
-            // 执行
-            return closure.execute(preparedStatement);
+            PreparedStatement preparedStatement = executeSql(connection, sql, localParameters, sqlType);
+            U value;
+            try {
+                // 执行
+                value = closure.execute(preparedStatement);
+            } catch (Throwable e) {
+                statementClose(connection, sql, preparedStatement, e);
+                throw e;
+            } finally {
+                // 写操作后的一段时间内, 读操作也使用写连接
+                if (!SqlType.SELECT.equals(sqlType)) {
+                    gaarasonDataSource.markLocalThreadWrite();
+                }
+            }
+            // 关闭预执行对象
+            gaarasonDataSource.statementClose(connection, sql, preparedStatement);
+            return value;
         } catch (EntityNotFoundException e) {
             throw new EntityNotFoundException(
                 String.format(StringUtils.replace(sql, " ? ", "\"%s\""), localParameters.toArray()));
@@ -431,14 +536,14 @@ protected <U> U doSomethingInConnection(ExecSqlWithinConnectionFunctionalInterfa
      * @param closure 闭包
      * @param sql 带占位符的sql
      * @param parameters sql的参数
-     * @param isWrite 是否写(主)链接
+     * @param sqlType sql类型, 决定预执行对象的种类, 以及是否使用写(主)链接
      * @param <U> 响应类型
      * @return 响应
      * @throws SQLRuntimeException 数据库异常
      */
     protected <U> CompletableFuture<U> doSomethingInConnectionAsync(
         ExecSqlWithinConnectionFunctionalInterface<U> closure, String sql, @Nullable Collection<?> parameters,
-        boolean isWrite) throws SQLRuntimeException {
+        SqlType sqlType) throws SQLRuntimeException {
 
         GaarasonDataSource gaarasonDataSource = getGaarasonDataSource();
 
@@ -447,12 +552,12 @@ protected <U> CompletableFuture<U> doSomethingInConnectionAsync(
 
         if (inTransaction) {
             // 事务中使用同步执行
-            U value = doSomethingInConnection(closure, sql, parameters, isWrite);
+            U value = doSomethingInConnection(closure, sql, parameters, sqlType);
             return CompletableFuture.completedFuture(value);
         } else {
-            // 非事务中使用异步执行
-            return CompletableFuture.supplyAsync(() -> doSomethingInConnection(closure, sql, parameters, isWrite),
-                getExecutorService());
+            // 非事务中使用异步执行, 沿用当前线程的分片提示与读己之写的状态
+            return CompletableFuture.supplyAsync(LocalThreadContext.wrap(gaarasonDataSource,
+                () -> doSomethingInConnection(closure, sql, parameters, sqlType)), getExecutorService());
         }
     }
 
@@ -486,22 +591,81 @@ private K getGeneratedKeys(ResultSet generatedKeys) throws SQLException, Primary
      * @param connection 数据库连接
      * @param sql 查询语句
      * @param parameterList 参数绑定
+     * @param sqlType sql类型
      * @return 预执行对象
      * @throws SQLException sql错误
      */
-    protected PreparedStatement executeSql(Connection connection, String sql, Collection<?> parameterList)
-        throws SQLException {
+    protected PreparedStatement executeSql(Connection connection, String sql, Collection<?> parameterList,
+        SqlType sqlType) throws SQLException {
         // 日志记录
         getSelf().log(sql, parameterList);
-        // 预执行 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
-        PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-        // 参数绑定
+        // 预执行, 仅 INSERT/REPLACE 返回自增主键, 事务中将复用同sql的预执行对象
+        PreparedStatement preparedStatement = getGaarasonDataSource().prepareStatement(connection, sql, sqlType);
+        try {
+            // 参数绑定
+            setParameters(preparedStatement, parameterList);
+        } catch (SQLException e) {
+            statementClose(connection, sql, preparedStatement, e);
+            throw e;
+        }
+        // 返回预执行对象
+        return preparedStatement;
+    }
+
+    /**
+     * 执行出错后关闭预执行对象, 关闭时的异常附加到原异常上, 以原异常为准
+     * @param connection 数据库连接
+     * @param sql 带占位符的sql
+     * @param preparedStatement 预执行对象
+     * @param cause 原异常
+     */
+    protected void statementClose(Connection connection, String sql, PreparedStatement preparedStatement,
+        Throwable cause) {
+        try {
+            getGaarasonDataSource().statementClose(connection, sql, preparedStatement);
+        } catch (Throwable e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 逐行绑定参数并加入批处理, 然后执行
+     * @param preparedStatement 预执行对象
+     * @param parametersList 每次执行的参数绑定列表
+     * @return 每次执行的影响行数
+     * @throws SQLException sql错误
+     */
+    protected static int[] executeBatch(PreparedStatement preparedStatement,
+        Collection<? extends Collection<?>> parametersList) throws SQLException {
+        try {
+            for (Collection<?> parameters : parametersList) {
+                setParameters(preparedStatement, parameters);
+                preparedStatement.addBatch();
+            }
+            return preparedStatement.executeBatch();
+        } catch (SQLException | RuntimeException e) {
+            // 预执行对象可能在事务中被复用, 失败时清除未执行的批次
+            try {
+                preparedStatement.clearBatch();
+            } catch (SQLException clearException) {
+                e.addSuppressed(clearException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 参数绑定
+     * @param preparedStatement 预执行对象
+     * @param parameterList 参数绑定
+     * @throws SQLException sql错误
+     */
+    protected static void setParameters(PreparedStatement preparedStatement, Collection<?> parameterList)
+        throws SQLException {
         int i = 1;
         for (Object parameter : parameterList) {
             setParameter(preparedStatement, i++, parameter);
         }
-        // 返回预执行对象
-        return preparedStatement;
     }
 
     /**
@@ -39,14 +39,15 @@
      * 本表元数据
      * <数据库字段名 -> 字段信息>
      */
-    protected  Map<String, Object> metadataMap = new HashMap<>(16);
+    protected Map<String, Object> metadataMap;
 
     /**
      * 历史元数据
      * 不管从检索起模型是否发生了任何变化, 它都不变, 除非调用 xx 方法, 主动刷新
+     * 来源于查询结果时, 与元数据共享存储, 任一方修改时才复制
      * <数据库字段名 -> 字段信息>
      */
-    protected  Map<String, Object> originalMetadataMap = new HashMap<>(16);
+    protected Map<String, Object> originalMetadataMap;
 
     /**
      * 数据模型
@@ -149,15 +150,22 @@ protected void initNewRecord(Model<?, T, K> model, Map<String, Object> stringObj
      * @param stringObjectMap 元数据
      */
     protected void init(Map<String, Object> stringObjectMap) {
-        // 如果不是统同一个(引用相同)对象, 则手动赋值下
+        // 如果不是统同一个(引用相同)对象, 则复制
         if (metadataMap != stringObjectMap) {
-            metadataMap.clear();
-            metadataMap.putAll(stringObjectMap);
-        }
-        if (originalMetadataMap != stringObjectMap) {
-            originalMetadataMap.clear();
-            originalMetadataMap.putAll(stringObjectMap);
+            metadataMap = copyMetadataMap(stringObjectMap);
         }
+        originalMetadataMap = copyMetadataMap(metadataMap);
+    }
+
+    /**
+     * 复制元数据
+     * 行数据使用快照, 修改时才真正复制
+     * @param stringObjectMap 元数据
+     * @return 元数据
+     */
+    protected static Map<String, Object> copyMetadataMap(Map<String, Object> stringObjectMap) {
+        return stringObjectMap instanceof RowMap ? ((RowMap) stringObjectMap).snapshot() :
+            new HashMap<>(stringObjectMap);
     }
 
     @Override
@@ -719,8 +727,8 @@ public void writeExternal(ObjectOutput out) throws IOException {
         String identification = model.getContainer().getIdentification();
         out.writeUTF(identification);
         out.writeUTF(model.getClass().getName());
-        out.writeObject(metadataMap);
-        out.writeObject(originalMetadataMap);
+        out.writeObject(new HashMap<>(metadataMap));
+        out.writeObject(new HashMap<>(originalMetadataMap));
         out.writeUTF(originalSql);
         out.writeObject(relationMap);
     }
@@ -27,11 +27,12 @@
 
 /**
  * 结果集集合对象
+ * 基于数组, 随机访问 O(1); Deque 的头部操作需要移动元素, 尾部操作为均摊 O(1)
  * @param <T>
  * @param <K>
  * @author xt
  */
-public class RecordListBean<T, K> extends LinkedList<Record<T, K>>
+public class RecordListBean<T, K> extends ArrayList<Record<T, K>>
     implements RecordList<T, K> {
 
     private static final long serialVersionUID = 1L;
@@ -68,6 +69,11 @@ public RecordListBean(String originalSql, Container container) {
         initRecordListBean(originalSql, container);
     }
 
+    public RecordListBean(String originalSql, Container container, int initialCapacity) {
+        super(initialCapacity);
+        initRecordListBean(originalSql, container);
+    }
+
     protected void initRecordListBean(String originalSql, Container container) {
         this.originalSql = originalSql;
         this.container = container;
@@ -85,6 +91,165 @@ public int hashCode() {
         return super.hashCode() + originalSql.hashCode();
     }
 
+    @Override
+    public void addFirst(Record<T, K> record) {
+        add(0, record);
+    }
+
+    @Override
+    public void addLast(Record<T, K> record) {
+        add(record);
+    }
+
+    @Override
+    public boolean offerFirst(Record<T, K> record) {
+        addFirst(record);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(Record<T, K> record) {
+        return add(record);
+    }
+
+    @Override
+    public Record<T, K> removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(0);
+    }
+
+    @Override
+    public Record<T, K> removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(size() - 1);
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> pollFirst() {
+        return isEmpty() ? null : remove(0);
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> pollLast() {
+        return isEmpty() ? null : remove(size() - 1);
+    }
+
+    @Override
+    public Record<T, K> getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    @Override
+    public Record<T, K> getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> peekFirst() {
+        return isEmpty() ? null : get(0);
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> peekLast() {
+        return isEmpty() ? null : get(size() - 1);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        return remove(o);
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        int index = lastIndexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean offer(Record<T, K> record) {
+        return add(record);
+    }
+
+    @Override
+    public Record<T, K> remove() {
+        return removeFirst();
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public Record<T, K> element() {
+        return getFirst();
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public void push(Record<T, K> record) {
+        addFirst(record);
+    }
+
+    @Override
+    public Record<T, K> pop() {
+        return removeFirst();
+    }
+
+    @Override
+    public Iterator<Record<T, K>> descendingIterator() {
+        ListIterator<Record<T, K>> listIterator = listIterator(size());
+        return new Iterator<Record<T, K>>() {
+            @Override
+            public boolean hasNext() {
+                return listIterator.hasPrevious();
+            }
+
+            @Override
+            public Record<T, K> next() {
+                return listIterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                listIterator.remove();
+            }
+        };
+    }
+
+    @Override
+    public RecordListBean<T, K> reversed() {
+        RecordListBean<T, K> recordList = new RecordListBean<>(originalSql, container, size());
+        for (int i = size() - 1; i >= 0; i--) {
+            recordList.add(get(i));
+        }
+        return recordList;
+    }
+
     @Override
     public List<Map<String, Object>> getMetadata() {
         List<Map<String, Object>> metadataMapList = new ArrayList<>();
@@ -325,6 +490,7 @@ public void readExternal(ObjectInput in) throws IOException, ClassNotFoundExcept
 
         Container container = GodProvider.get(identification);
         initRecordListBean(sql, container);
+        ensureCapacity(array.length);
         for (Record<?, ?> record : array) {
             add(ObjectUtils.typeCast(record));
         }
@@ -225,4 +225,74 @@ protected static Map<String, Object> findObj(List<Map<String, Object>> relations
 
         return Collections.emptyMap();
     }
+
+    /**
+     * 按对象的属性值建立索引
+     * 同一个值下的对象, 保持其在列表中的顺序
+     * @param relationshipObjectList 待索引的对象列表
+     * @param columnName 对象的属性的名
+     * @return 属性值 -> 对象列表
+     */
+    protected Map<Object, List<Object>> indexObjList(List<?> relationshipObjectList, String columnName) {
+        if (ObjectUtils.isEmpty(relationshipObjectList)) {
+            return new HashMap<>();
+        }
+        // 模型信息
+        ModelMember<?, ?, ?> modelMember = modelShadowProvider.getByEntityClass(
+            relationshipObjectList.get(0).getClass());
+
+        // 字段信息
+        FieldMember<?> fieldMember = modelMember.getEntityMember().getColumnFieldMap().get(columnName);
+
+        Map<Object, List<Object>> index = new HashMap<>(relationshipObjectList.size() * 4 / 3 + 1);
+        for (Object o : relationshipObjectList) {
+            // 值
+            Object fieldValue = fieldMember.fieldGet(o);
+            // 与 findObjList 一致, null 值不参与匹配
+            if (fieldValue != null) {
+                index.computeIfAbsent(fieldValue, k -> new ArrayList<>()).add(o);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 从索引中获取满足条件的对象
+     * @param index 索引
+     * @param fieldTargetValue 对象的属性的目标值
+     * @return 对象列表
+     */
+    protected static List<Object> findObjList(Map<Object, List<Object>> index, @Nullable Object fieldTargetValue) {
+        List<Object> objects = fieldTargetValue == null ? null : index.get(fieldTargetValue);
+        // 每次返回新的列表, 避免多个对象共用同一个属性值
+        return objects == null ? new ArrayList<>() : new ArrayList<>(objects);
+    }
+
+    /**
+     * 按键值建立索引
+     * 同一个值下, 仅保留第一个
+     * @param relationshipObjectList 待索引的列表
+     * @param columnName 键
+     * @return 值 -> map
+     */
+    protected static Map<Object, Map<String, Object>> indexObj(List<Map<String, Object>> relationshipObjectList,
+        String columnName) {
+        Map<Object, Map<String, Object>> index = new HashMap<>(relationshipObjectList.size() * 4 / 3 + 1);
+        for (Map<String, Object> map : relationshipObjectList) {
+            index.putIfAbsent(map.get(columnName), map);
+        }
+        return index;
+    }
+
+    /**
+     * 从索引中获取满足条件的map
+     * @param index 索引
+     * @param fieldTargetValue 目标值
+     * @return map
+     */
+    protected static Map<String, Object> findObj(Map<Object, Map<String, Object>> index,
+        @Nullable Object fieldTargetValue) {
+        Map<String, Object> map = index.get(fieldTargetValue);
+        return map == null ? Collections.emptyMap() : map;
+    }
 }
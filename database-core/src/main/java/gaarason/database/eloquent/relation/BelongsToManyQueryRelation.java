@@ -172,24 +172,34 @@ public Container getContainer() {
         // 关系表的数据
         List<Map<String, Object>> relationMaps = relationRecordList.toMapList();
 
-        // 循环关系表, 筛选本表需要的数据
+        // 按目标表的关系键值, 对关系表建立索引
+        // Map< targetModelKeyInMap -> List< localModelKeyInMap > >
+        Map<Object, List<Object>> relationIndex = new HashMap<>(relationMaps.size() * 4 / 3 + 1);
+        for (Map<String, Object> relationMap : relationMaps) {
+            // 关系表中， 指示目标表的关系键的值
+            Object targetModelKeyInMap = relationMap.get(belongsToManyTemplate.foreignKeyForTargetModel);
+            if (targetModelKeyInMap != null) {
+                // 关系表中， 指示本表的关系键的值
+                relationIndex.computeIfAbsent(targetModelKeyInMap, key -> new ArrayList<>())
+                    .add(relationMap.get(belongsToManyTemplate.foreignKeyForLocalModel));
+            }
+        }
+
+        // 循环目标表, 筛选本表需要的数据
         for (Record<?, ?> targetRecord : targetRecordList) {
             // 目标表的关系键的值
             Object targetKeyValue = targetRecord.getMetadataMap().get(belongsToManyTemplate.targetModelLocalKey);
 
-            for (Map<String, Object> relationMap : relationMaps) {
-                // 关系表中， 指示本表的关系键的值
-                Object localModelKeyInMap = relationMap.get(belongsToManyTemplate.foreignKeyForLocalModel);
-                // 关系表中， 指示目标表的关系键的值
-                Object targetModelKeyInMap = relationMap.get(belongsToManyTemplate.foreignKeyForTargetModel);
-
-                if (targetModelKeyInMap.equals(targetKeyValue)) {
-                    // 存储到目标表的RecordList 上
-                    // Map< localModelKeyInMap -> Set< targetModelKeyInMap > >
-                    Set<Object> relationIds = targetRecordList.getCacheMap()
-                        .computeIfAbsent(localModelKeyInMap, key -> new HashSet<>());
-                    relationIds.add(targetModelKeyInMap);
-                }
+            List<Object> localModelKeyInMapList = relationIndex.get(targetKeyValue);
+            if (localModelKeyInMapList == null) {
+                continue;
+            }
+            for (Object localModelKeyInMap : localModelKeyInMapList) {
+                // 存储到目标表的RecordList 上
+                // Map< localModelKeyInMap -> Set< targetModelKeyInMap > >
+                Set<Object> relationIds = targetRecordList.getCacheMap()
+                    .computeIfAbsent(localModelKeyInMap, key -> new HashSet<>());
+                relationIds.add(targetKeyValue);
             }
         }
         return targetRecordList;
@@ -250,6 +260,57 @@ public List<Object> filterBatchRecord(Record<?, ?> theRecord, RecordList<?, ?> t
         return objectList;
     }
 
+    @Override
+    public Map<Object, Map<String, Object>> indexBatchRecordByRelationOperation(RecordList<?, ?> targetRecordList) {
+        // 按本表的关系键建立索引
+        return indexObj(targetRecordList.getMetadata(), RELATION_KEY);
+    }
+
+    @Override
+    public Map<String, Object> filterBatchRecordByRelationOperation(Record<?, ?> theRecord,
+        Map<Object, Map<String, Object>> index) {
+        return findObj(index, theRecord.getMetadataMap().get(belongsToManyTemplate.localModelLocalKey));
+    }
+
+    @Override
+    public Map<Object, List<Object>> indexBatchRecord(RecordList<?, ?> targetRecordList, List<?> targetObjectList) {
+        Map<Object, List<Object>> index = new HashMap<>();
+        if (targetRecordList.getMetadata().isEmpty()) {
+            return index;
+        }
+
+        // 反转关系, Map< 目标表的关系键的值 -> List< 本表的关系键的值 > >
+        Map<Object, List<Object>> localKeyIndex = new HashMap<>();
+        for (Map.Entry<Object, Set<Object>> entry : targetRecordList.getCacheMap().entrySet()) {
+            for (Object targetModelLocalKeyValue : entry.getValue()) {
+                localKeyIndex.computeIfAbsent(targetModelLocalKeyValue, key -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        // 实体信息
+        EntityMember<?, ?> entityMember = modelShadowProvider.get(targetRecordList.get(0).getModel())
+            .getEntityMember();
+        // 字段信息
+        FieldMember<?> fieldMember = entityMember.getFieldMemberByColumnName(belongsToManyTemplate.targetModelLocalKey);
+
+        // 按对象列表的顺序, 归入每个本表的关系键的值
+        for (Object obj : targetObjectList) {
+            List<Object> localModelLocalKeyValues = localKeyIndex.get(fieldMember.fieldGet(obj));
+            if (localModelLocalKeyValues == null) {
+                continue;
+            }
+            for (Object localModelLocalKeyValue : localModelLocalKeyValues) {
+                index.computeIfAbsent(localModelLocalKeyValue, key -> new ArrayList<>()).add(obj);
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public List<Object> filterBatchRecord(Record<?, ?> theRecord, Map<Object, List<Object>> index) {
+        return findObjList(index, theRecord.getMetadataMap().get(belongsToManyTemplate.localModelLocalKey));
+    }
+
     @Override
     public Builder<?, ?, ?> prepareForWhereHas(Builder<?, ?, ?> builder, BuilderAnyWrapper customBuilder) {
         String relationModelTableName = belongsToManyTemplate.relationModel.getTableName();
@@ -259,8 +320,8 @@ public List<Object> filterBatchRecord(Record<?, ?> theRecord, RecordList<?, ?> t
 
         // 此处的SQL 大致是: select * from teacher INNER JOIN relationship_student_teacher on `relationship_student_teacher`.teacher_id = `teacher`.id
         // where `relationship_student_teacher`.student_id = `student`.id
-        Builder<?, ?, ?> realtionBuilder = belongsToManyTemplate.relationModel.newQuery();
-        return customBuilder.execute(ObjectUtils.typeCast(belongsToManyTemplate.targetModel.newQuery()))
+        Builder<?, ?, ?> realtionBuilder = belongsToManyTemplate.relationModel.newQuery().nestIn(builder);
+        return customBuilder.execute(ObjectUtils.typeCast(belongsToManyTemplate.targetModel.newQuery().nestIn(builder)))
                 .join(realtionBuilder.tableAlias(relationModelTableName), belongsToManyTemplate.targetModelLocalKey, "=", realtionBuilder.columnAlias(belongsToManyTemplate.foreignKeyForTargetModel))
                 .whereRaw(realtionBuilder.columnAlias(belongsToManyTemplate.foreignKeyForLocalModel) + "=" +
                         builder.columnAlias(belongsToManyTemplate.localModelLocalKey))
@@ -291,8 +352,8 @@ public String localKeyForWhereHasIn() {
         //    FROM relationship_student_teacher rst
         //    INNER JOIN teacher t ON rst.teacher_id = t.id
         // )
-        Builder<?, ?, ?> realtionBuilder = belongsToManyTemplate.relationModel.newQuery();
-        return customBuilder.execute(ObjectUtils.typeCast(belongsToManyTemplate.targetModel.newQuery()))
+        Builder<?, ?, ?> realtionBuilder = belongsToManyTemplate.relationModel.newQuery().nestIn(builder);
+        return customBuilder.execute(ObjectUtils.typeCast(belongsToManyTemplate.targetModel.newQuery().nestIn(builder)))
                 .selectRaw(realtionBuilder.columnAlias( belongsToManyTemplate.foreignKeyForLocalModel))
                 .join(realtionBuilder.tableAlias(relationTableName), belongsToManyTemplate.targetModelLocalKey, "=", realtionBuilder.columnAlias(belongsToManyTemplate.foreignKeyForTargetModel))
                 .andWhereIgnoreEmpty(builder1 -> realtionBuilder)
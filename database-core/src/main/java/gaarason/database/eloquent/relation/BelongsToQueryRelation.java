@@ -99,10 +99,25 @@ public List<Object> filterBatchRecord(Record<?, ?> theRecord, RecordList<?, ?> t
         return findObjList(targetObjectList, column, value);
     }
 
+    @Override
+    public Map<Object, List<Object>> indexBatchRecord(RecordList<?, ?> targetRecordList, List<?> targetObjectList) {
+        // 按父表的关系键建立索引
+        return indexObjList(targetObjectList, belongsToTemplate.parentModelLocalKey);
+    }
+
+    @Override
+    public List<Object> filterBatchRecord(Record<?, ?> theRecord, Map<Object, List<Object>> index) {
+        // 多态时的绑定关系
+        if (enableMorph && !belongsToTemplate.localModelMorphValue.equals(theRecord.getMetadataMap().get(belongsToTemplate.localModelMorphKey))) {
+            return new ArrayList<>();
+        }
+        return findObjList(index, theRecord.getMetadataMap().get(belongsToTemplate.localModelForeignKey));
+    }
+
     @Override
     public Builder<?, ?, ?> prepareForWhereHas(Builder<?, ?, ?> builder, BuilderAnyWrapper customBuilder) {
         Builder<?, ?, ?> parentBuilder = customBuilder.execute(
-                ObjectUtils.typeCast(belongsToTemplate.parentModel.newQuery()));
+                ObjectUtils.typeCast(belongsToTemplate.parentModel.newQuery().nestIn(builder)));
         return parentBuilder
                 .when(enableMorph, builder33 -> builder33.whereRaw(builder.columnAlias(belongsToTemplate.localModelMorphKey) + "=\"" +
                         belongsToTemplate.localModelMorphValue + "\""))
@@ -117,7 +132,7 @@ public String localKeyForWhereHasIn() {
 
     @Override
     public Builder<?, ?, ?> prepareForWhereHasIn(Builder<?, ?, ?> builder, BuilderAnyWrapper customBuilder) {
-        return customBuilder.execute(ObjectUtils.typeCast(belongsToTemplate.parentModel.newQuery()))
+        return customBuilder.execute(ObjectUtils.typeCast(belongsToTemplate.parentModel.newQuery().nestIn(builder)))
             .when(enableMorph, builder33 -> builder33
                     .whereRaw(builder.columnAlias(belongsToTemplate.localModelMorphKey) + "=" +
                             builder.supportValue(belongsToTemplate.localModelMorphValue)))
@@ -11,7 +11,6 @@
 import gaarason.database.lang.Nullable;
 import gaarason.database.provider.ModelShadowProvider;
 import gaarason.database.util.ObjectUtils;
-import gaarason.database.util.StringUtils;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
@@ -24,6 +23,11 @@
  */
 public class HasOneOrManyQueryRelation extends BaseRelationSubQuery {
 
+    /**
+     * 分组查询作为子查询时的别名, 固定的别名使得相同结构的查询生成完全相同的sql
+     */
+    protected static final String SUB_QUERY_ALIAS = "gaarason_relation_sub";
+
     public final HasOneOrManyTemplate hasOneOrManyTemplate;
 
     /**
@@ -87,7 +91,6 @@ protected HasOneOrManyTemplate initTemplate(Field field) {
 
         Grammar grammar = queryBuilder.getGrammar();
         if (!grammar.isEmpty(Grammar.SQLPartType.GROUP)) {
-            String alias = StringUtils.getRandomString(6);
             if (grammar.isEmpty(Grammar.SQLPartType.SELECT)) {
                 Grammar.SQLPartInfo groupInfo = grammar.get(Grammar.SQLPartType.GROUP);
                 queryBuilder.selectRaw(groupInfo.getSqlString(), groupInfo.getParameters())
@@ -96,7 +99,7 @@ protected HasOneOrManyTemplate initTemplate(Field field) {
             setWhere(metadata, queryBuilder);
             Builder<?, ?, ?> finalQueryBuilder = queryBuilder;
             queryBuilder = hasOneOrManyTemplate.sonModel.newQuery().clear(Grammar.SQLPartType.WHERE)
-                .from(alias + "sub", subBuilder -> ObjectUtils.typeCast(finalQueryBuilder));
+                .from(SUB_QUERY_ALIAS, subBuilder -> ObjectUtils.typeCast(finalQueryBuilder));
         } else {
             setWhere(metadata, queryBuilder);
         }
@@ -145,10 +148,33 @@ public List<Object> filterBatchRecord(Record<?, ?> theRecord, RecordList<?, ?> t
         return findObjList(targetObjectList, column, value);
     }
 
+    @Override
+    public Map<Object, Map<String, Object>> indexBatchRecordByRelationOperation(RecordList<?, ?> targetRecordList) {
+        // 按子表的外键建立索引
+        return indexObj(targetRecordList.getMetadata(), hasOneOrManyTemplate.sonModelForeignKey);
+    }
+
+    @Override
+    public Map<String, Object> filterBatchRecordByRelationOperation(Record<?, ?> theRecord,
+        Map<Object, Map<String, Object>> index) {
+        return findObj(index, theRecord.getMetadataMap().get(hasOneOrManyTemplate.localModelLocalKey));
+    }
+
+    @Override
+    public Map<Object, List<Object>> indexBatchRecord(RecordList<?, ?> targetRecordList, List<?> targetObjectList) {
+        // 按子表的外键建立索引
+        return indexObjList(targetObjectList, hasOneOrManyTemplate.sonModelForeignKey);
+    }
+
+    @Override
+    public List<Object> filterBatchRecord(Record<?, ?> theRecord, Map<Object, List<Object>> index) {
+        return findObjList(index, theRecord.getMetadataMap().get(hasOneOrManyTemplate.localModelLocalKey));
+    }
+
     @Override
     public Builder<?, ?, ?> prepareForWhereHas(Builder<?, ?, ?> builder, BuilderAnyWrapper customBuilder) {
         Builder<?, ?, ?> sonBuilder = customBuilder.execute(
-                ObjectUtils.typeCast(hasOneOrManyTemplate.sonModel.newQuery()));
+                ObjectUtils.typeCast(hasOneOrManyTemplate.sonModel.newQuery().nestIn(builder)));
         return sonBuilder
                 .when(enableMorph, builder33 -> builder33.where(hasOneOrManyTemplate.sonModelMorphKey,
                         hasOneOrManyTemplate.sonModelMorphValue))
@@ -164,7 +190,7 @@ public String localKeyForWhereHasIn() {
     @Override
     public Builder<?, ?, ?> prepareForWhereHasIn(Builder<?, ?, ?> builder, BuilderAnyWrapper customBuilder) {
         // `id`in(select `p_id` from `comment` where `p_type`="post")
-        return customBuilder.execute(ObjectUtils.typeCast(hasOneOrManyTemplate.sonModel.newQuery()))
+        return customBuilder.execute(ObjectUtils.typeCast(hasOneOrManyTemplate.sonModel.newQuery().nestIn(builder)))
             .when(enableMorph, builder33 -> builder33.where(hasOneOrManyTemplate.sonModelMorphKey,
                 hasOneOrManyTemplate.sonModelMorphValue))
             .select(hasOneOrManyTemplate.sonModelForeignKey);
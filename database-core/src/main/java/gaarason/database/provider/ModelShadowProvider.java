@@ -21,6 +21,7 @@
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Model信息大全
@@ -219,54 +220,30 @@ public <T, K> EntityMember<T, K> parseAnyEntityWithCache(Class<T> anyEntityClass
 
     /**
      * 将lambda风格的属性名, 解析为String类型
-     * 这个过程使用缓存进行加速, 5-10倍
+     * 这个过程使用缓存进行加速, 命中缓存时不涉及反射与加锁
      * @param func lambda风格的属性名
      * @param <T> 实体类型
      * @param <F> 属性类型
      * @return 属性名
      */
     public <T, F> String parseFieldNameByLambdaWithCache(ColumnFunctionalInterface<T, F> func) {
-        Class<?> clazz = func.getClass();
-        String fieldName = cache.lambdaFieldName.get(clazz);
-        if (fieldName == null) {
-            synchronized (cache.lambdaFieldName) {
-                fieldName = cache.lambdaFieldName.get(clazz);
-                if (fieldName == null) {
-                    // 解析 lambda
-                    LambdaInfo<?> lambdaInfo = LambdaUtils.parse(func);
-                    // 属性名
-                    fieldName = lambdaInfo.getFieldName();
-                    // 常量化后, 加入缓存
-                    cache.lambdaFieldName.put(clazz, fieldName.intern());
-                }
-            }
-        }
-        return fieldName;
+        return cache.lambda(cache.lambdaFieldName, cache.lambdaFieldNameOverflow, func.getClass(),
+            // 解析 lambda, 得到属性名
+            () -> LambdaUtils.parse(func).getFieldName());
     }
 
     /**
      * 将lambda风格的列名, 解析为String类型, 会检测是否是有效的列名
-     * 这个过程使用缓存进行加速, 5-10倍
+     * 这个过程使用缓存进行加速, 命中缓存时不涉及反射与加锁
      * @param func lambda风格的列名
      * @param <T> 实体类型
      * @param <F> 属性类型
      * @return 列名
      */
     public <T, F> String parseColumnNameByLambdaWithCache(ColumnFunctionalInterface<T, F> func) {
-        Class<?> clazz = func.getClass();
-        String columnName = cache.lambdaColumnName.get(clazz);
-        if (columnName == null) {
-            synchronized (cache.lambdaColumnName) {
-                columnName = cache.lambdaColumnName.get(clazz);
-                if (columnName == null) {
-                    // 解析 lambda
-                    columnName = parseLambda(func);
-                    // 常量化后, 加入缓存
-                    cache.lambdaColumnName.put(clazz, columnName.intern());
-                }
-            }
-        }
-        return columnName;
+        return cache.lambda(cache.lambdaColumnName, cache.lambdaColumnNameOverflow, func.getClass(),
+            // 解析 lambda, 得到列名
+            () -> parseLambda(func));
     }
 
     /**
@@ -417,10 +394,16 @@ static class Persistence {
 
     /**
      * 缓存信息
-     * 内存不足时自动清理. 因此需要惰性使用
+     * 实体缓存在内存不足时自动清理, 因此需要惰性使用
      */
     static class Cache {
 
+        /**
+         * lambda 强引用缓存的容量上限, 超出后使用软引用缓存
+         * 每个 lambda 调用点对应一个 class, 正常的项目远不会达到上限
+         */
+        private static final int LAMBDA_CAPACITY = 8192;
+
         /**
          * Entity 缓存
          */
@@ -429,12 +412,66 @@ static class Cache {
         /**
          * 缓存lambda风格的列名, 与为String风格的列名的映射
          */
-        private final SoftCache<Class<?>, String> lambdaColumnName = new SoftCache<>();
+        private final Map<Class<?>, String> lambdaColumnName = new ConcurrentHashMap<>();
+
+        /**
+         * 缓存lambda风格的列名, 与为String风格的列名的映射 (超出容量上限的部分)
+         */
+        private final SoftCache<Class<?>, String> lambdaColumnNameOverflow = new SoftCache<>();
 
         /**
          * 缓存lambda风格的属性名, 与为String风格的属性名的映射
          */
-        private final SoftCache<Class<?>, String> lambdaFieldName = new SoftCache<>();
+        private final Map<Class<?>, String> lambdaFieldName = new ConcurrentHashMap<>();
+
+        /**
+         * 缓存lambda风格的属性名, 与为String风格的属性名的映射 (超出容量上限的部分)
+         */
+        private final SoftCache<Class<?>, String> lambdaFieldNameOverflow = new SoftCache<>();
+
+        /**
+         * lambda 强引用缓存的容量上限
+         */
+        private final int lambdaCapacity;
+
+        Cache() {
+            this(LAMBDA_CAPACITY);
+        }
+
+        Cache(int lambdaCapacity) {
+            this.lambdaCapacity = lambdaCapacity;
+        }
+
+        /**
+         * 从缓存中获取 lambda 的解析结果, 不存在时解析并加入缓存
+         * 强引用缓存的读取无锁, 并发未命中时可能重复解析, 但结果一致
+         * @param strongCache 强引用缓存
+         * @param softCache 软引用缓存
+         * @param lambdaClass lambda 的类
+         * @param parser 解析
+         * @return 解析结果
+         */
+        String lambda(Map<Class<?>, String> strongCache, SoftCache<Class<?>, String> softCache, Class<?> lambdaClass,
+            Supplier<String> parser) {
+            String value = strongCache.get(lambdaClass);
+            if (value != null) {
+                return value;
+            }
+            if (strongCache.size() < lambdaCapacity) {
+                // 常量化后, 加入缓存
+                value = parser.get().intern();
+                String previous = strongCache.putIfAbsent(lambdaClass, value);
+                return previous == null ? value : previous;
+            }
+            synchronized (softCache) {
+                value = softCache.get(lambdaClass);
+                if (value == null) {
+                    value = parser.get().intern();
+                    softCache.put(lambdaClass, value);
+                }
+                return value;
+            }
+        }
     }
 
 }
@@ -0,0 +1,166 @@
+package gaarason.database.support;
+
+import gaarason.database.config.ConversionConfig;
+import gaarason.database.contract.eloquent.Model;
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
+import gaarason.database.lang.Nullable;
+import gaarason.database.provider.ModelShadowProvider;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 结果集的列信息
+ * 每个 ResultSet 仅解析一次, 由其所有的行共享
+ * 每列的读取器在此时绑定, 读取行数据时仅按下标读取
+ * @author xt
+ */
+public class ColumnSchema {
+
+    /**
+     * 列名(去重后), 下标即为行数据中的位置
+     */
+    protected final String[] columnNames;
+
+    /**
+     * 列名 -> 行数据中的位置
+     */
+    protected final Map<String, Integer> columnIndexMap;
+
+    /**
+     * 行数据中的位置 -> jdbc列(从1开始)
+     * 同名的列仅读取第一个, 与按列名读取 (resultSet.getXxx(label)) 的结果一致
+     */
+    protected final int[] jdbcColumnIndexes;
+
+    /**
+     * 行数据中的位置 -> 列读取器
+     * 有对应字段时, 使用字段预先解析的读取器, 否则按 jdbc 类型读取
+     */
+    protected final ColumnReaderFunctionalInterface<?>[] columnReaders;
+
+    /**
+     * 构造
+     * @param columnNames 列名(去重后)
+     * @param jdbcColumnIndexes 行数据中的位置 -> jdbc列
+     * @param columnReaders 行数据中的位置 -> 列读取器
+     */
+    protected ColumnSchema(String[] columnNames, int[] jdbcColumnIndexes,
+        ColumnReaderFunctionalInterface<?>[] columnReaders) {
+        this.columnNames = columnNames;
+        this.jdbcColumnIndexes = jdbcColumnIndexes;
+        this.columnReaders = columnReaders;
+        this.columnIndexMap = new HashMap<>(columnNames.length * 4 / 3 + 1);
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndexMap.put(columnNames[i], i);
+        }
+    }
+
+    /**
+     * 解析结果集的列信息
+     * @param model 数据模型
+     * @param resultSetMetaData 源数据
+     * @return 列信息
+     * @throws SQLException 数据库异常
+     */
+    public static ColumnSchema of(Model<?, ?, ?> model, ResultSetMetaData resultSetMetaData) throws SQLException {
+        // 字段信息
+        Map<String, FieldMember<?>> columnFieldMap = model.getContainer()
+            .getBean(ModelShadowProvider.class)
+            .get(model)
+            .getEntityMember()
+            .getColumnFieldMap();
+
+        // 没有对应字段时的读取器
+        ColumnReaderFunctionalInterface<Object> defaultReader = model.getContainer()
+            .getBean(ConversionConfig.class)
+            .getJdbcResultSetReader(null);
+
+        return of(resultSetMetaData, columnName -> {
+            FieldMember<?> fieldMember = columnFieldMap.get(columnName);
+            return fieldMember != null ? fieldMember.getColumnReader() : defaultReader;
+        });
+    }
+
+    /**
+     * 解析结果集的列信息
+     * @param resultSetMetaData 源数据
+     * @param readerResolver 列名 -> 列读取器
+     * @return 列信息
+     * @throws SQLException 数据库异常
+     */
+    public static ColumnSchema of(ResultSetMetaData resultSetMetaData,
+        Function<String, ColumnReaderFunctionalInterface<?>> readerResolver) throws SQLException {
+        int columnCount = resultSetMetaData.getColumnCount();
+        List<String> columnNameList = new ArrayList<>(columnCount);
+        int[] jdbcColumnIndexes = new int[columnCount];
+        ColumnReaderFunctionalInterface<?>[] columnReaders = new ColumnReaderFunctionalInterface<?>[columnCount];
+        Set<String> columnNameSet = new HashSet<>(columnCount * 4 / 3 + 1);
+        for (int i = 1; i <= columnCount; i++) {
+            // 列名
+            String columnName = resultSetMetaData.getColumnLabel(i);
+            // 同名的列, 保留第一个
+            if (!columnNameSet.add(columnName)) {
+                continue;
+            }
+            int slot = columnNameList.size();
+            columnNameList.add(columnName);
+            jdbcColumnIndexes[slot] = i;
+            columnReaders[slot] = readerResolver.apply(columnName);
+        }
+        int size = columnNameList.size();
+        return new ColumnSchema(columnNameList.toArray(new String[0]), Arrays.copyOf(jdbcColumnIndexes, size),
+            Arrays.copyOf(columnReaders, size));
+    }
+
+    /**
+     * 读取结果集的当前行
+     * @param resultSet 结果集
+     * @return 行数据
+     * @throws SQLException 数据库异常
+     */
+    public RowMap read(ResultSet resultSet) throws SQLException {
+        Object[] values = new Object[columnNames.length];
+        for (int i = 0; i < values.length; i++) {
+            // 按下标读取
+            values[i] = columnReaders[i].read(resultSet, jdbcColumnIndexes[i]);
+        }
+        return new RowMap(this, values);
+    }
+
+    /**
+     * 列的数量(去重后)
+     * @return 数量
+     */
+    public int size() {
+        return columnNames.length;
+    }
+
+    /**
+     * 列名
+     * @param index 行数据中的位置
+     * @return 列名
+     */
+    public String getColumnName(int index) {
+        return columnNames[index];
+    }
+
+    /**
+     * 列在行数据中的位置
+     * @param columnName 列名
+     * @return 位置, 不存在时为 -1
+     */
+    public int indexOf(@Nullable Object columnName) {
+        Integer index = columnIndexMap.get(columnName);
+        return index == null ? -1 : index;
+    }
+}
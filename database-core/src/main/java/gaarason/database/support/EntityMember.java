@@ -20,6 +20,7 @@
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 数据库实体信息
@@ -36,6 +37,11 @@
      */
     private final String tableName;
 
+    /**
+     * 实例化工厂
+     */
+    private final Supplier<T> instanceSupplier;
+
     /**
      * `属性名`对应的`普通`字段数组
      */
@@ -76,6 +82,7 @@ public EntityMember(Container container, Class<T> entityClass) {
         super(container);
         this.entityClass = entityClass;
         this.tableName = EntityUtils.tableName(entityClass);
+        this.instanceSupplier = ClassUtils.newInstanceSupplier(entityClass);
         primitiveFieldDeal();
     }
 
@@ -84,7 +91,7 @@ public EntityMember(Container container, Class<T> entityClass) {
      * @return 全新的实体对象
      */
     public T newInstance() {
-        return ClassUtils.newInstance(entityClass);
+        return instanceSupplier.get();
     }
 
     /**
@@ -0,0 +1,162 @@
+package gaarason.database.support;
+
+import gaarason.database.exception.IllegalAccessRuntimeException;
+import gaarason.database.lang.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 属性访问器
+ * 在实体信息解析时确定访问策略, 优先使用 MethodHandle, 不可用时回退到反射
+ * @author xt
+ */
+public abstract class FieldAccessor {
+
+    /**
+     * 通用的取值签名 (Object)Object
+     */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * 通用的赋值签名 (Object,Object)void
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 获取属性的值
+     * @param obj 对象
+     * @return 值
+     * @throws IllegalAccessRuntimeException 取值异常
+     */
+    @Nullable
+    public abstract Object get(Object obj);
+
+    /**
+     * 设置属性的值
+     * @param obj 对象
+     * @param value 值
+     * @throws IllegalAccessRuntimeException 赋值异常
+     */
+    public abstract void set(Object obj, @Nullable Object value);
+
+    /**
+     * 生成属性访问器
+     * @param field 属性 (已经 设置属性是可访问)
+     * @return 属性访问器
+     */
+    public static FieldAccessor of(Field field) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getter;
+        MethodHandle setter;
+        try {
+            getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (Throwable e) {
+            return new ReflectionFieldAccessor(field);
+        }
+        try {
+            setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (Throwable e) {
+            // final 属性等无法生成 setter 的情况, 赋值使用反射
+            setter = null;
+        }
+        return new MethodHandleFieldAccessor(field, getter, setter);
+    }
+
+    /**
+     * 统一异常
+     * @param e 异常
+     * @return 运行时异常
+     */
+    protected static RuntimeException wrapThrowable(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalAccessRuntimeException(e);
+    }
+
+    /**
+     * 基于 MethodHandle 的访问器
+     */
+    static class MethodHandleFieldAccessor extends ReflectionFieldAccessor {
+
+        /**
+         * 取值句柄 (Object)Object
+         */
+        private final MethodHandle getter;
+
+        /**
+         * 赋值句柄 (Object,Object)void, 为 null 时使用反射
+         */
+        @Nullable
+        private final MethodHandle setter;
+
+        MethodHandleFieldAccessor(Field field, MethodHandle getter, @Nullable MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        @Nullable
+        public Object get(Object obj) {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (Throwable e) {
+                throw wrapThrowable(e);
+            }
+        }
+
+        @Override
+        public void set(Object obj, @Nullable Object value) {
+            if (setter == null) {
+                super.set(obj, value);
+                return;
+            }
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable e) {
+                throw wrapThrowable(e);
+            }
+        }
+    }
+
+    /**
+     * 基于反射的访问器
+     */
+    static class ReflectionFieldAccessor extends FieldAccessor {
+
+        /**
+         * 属性 (已经 设置属性是可访问)
+         */
+        protected final Field field;
+
+        ReflectionFieldAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        @Nullable
+        public Object get(Object obj) {
+            try {
+                return field.get(obj);
+            } catch (IllegalAccessException e) {
+                throw new IllegalAccessRuntimeException(e);
+            }
+        }
+
+        @Override
+        public void set(Object obj, @Nullable Object value) {
+            try {
+                field.set(obj, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalAccessRuntimeException(e);
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@
 import gaarason.database.appointment.JDBCValueWrapper;
 import gaarason.database.appointment.ValueWrapper;
 import gaarason.database.config.ConversionConfig;
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.contract.support.FieldConversion;
 import gaarason.database.contract.support.FieldFill;
 import gaarason.database.contract.support.FieldStrategy;
@@ -65,6 +66,11 @@
      */
     private final Field field;
 
+    /**
+     * 属性访问器
+     */
+    private final FieldAccessor fieldAccessor;
+
     /**
      * 数据库列名
      */
@@ -118,9 +124,15 @@
      */
     private final FieldConversion<?, ?> fieldConversion;
 
+    /**
+     * 数据库结果集的列读取器
+     */
+    private final ColumnReaderFunctionalInterface<?> columnReader;
+
     public FieldMember(Container container, Field field) {
         super(container);
         this.field = field;
+        this.fieldAccessor = FieldAccessor.of(field);
         this.column =
             field.isAnnotationPresent(Column.class) ? field.getAnnotation(Column.class) : DEFAULT_COLUMN_ANNOTATION;
         this.primary =
@@ -141,6 +153,9 @@ public FieldMember(Container container, Field field) {
 
         // 序列化与反序列化
         this.fieldConversion = dealFieldConversion();
+
+        // 结果集读取器
+        this.columnReader = dealColumnReader();
     }
 
     /**
@@ -215,11 +230,7 @@ public JDBCValueWrapper wrap(@Nullable F originalValue) {
      */
     @Nullable
     public Object fieldGet(Object obj) {
-        try {
-            return field.get(obj);
-        } catch (IllegalAccessException e) {
-            throw new IllegalAccessRuntimeException(e);
-        }
+        return fieldAccessor.get(obj);
     }
 
     /**
@@ -271,11 +282,7 @@ public F fieldFillGetOrFail(Object entity, EntityUseType type) throws FieldInval
      * @throws IllegalAccessRuntimeException 反射赋值异常
      */
     public void fieldSet(Object obj, @Nullable Object value) {
-        try {
-            field.set(obj, value);
-        } catch (IllegalAccessException e) {
-            throw new IllegalAccessRuntimeException(e);
-        }
+        fieldAccessor.set(obj, value);
     }
 
     /**
@@ -299,6 +306,19 @@ public F deserialize(@Nullable Object originalValue) {
             fieldConversion.deserialize(field, ObjectUtils.typeCastNullable(originalValue)));
     }
 
+    /**
+     * 结果集读取器
+     * 序列化与反序列化未提供时, 使用列名读取
+     * @return 读取器
+     */
+    protected ColumnReaderFunctionalInterface<?> dealColumnReader() {
+        ColumnReaderFunctionalInterface<?> reader = fieldConversion.reader(field);
+        if (reader != null) {
+            return reader;
+        }
+        return (resultSet, columnIndex) -> fieldConversion.acquisition(field, resultSet, columnName);
+    }
+
     /**
      * 字段反序列化
      * @param resultSet 数据库结果集
@@ -332,6 +352,10 @@ public FieldFill getFieldFill() {
         return fieldFill;
     }
 
+    public ColumnReaderFunctionalInterface<?> getColumnReader() {
+        return columnReader;
+    }
+
     public FieldConversion<?, ?> getFieldConversion() {
         return fieldConversion;
     }
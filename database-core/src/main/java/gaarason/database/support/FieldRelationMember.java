@@ -34,6 +34,11 @@ public class FieldRelationMember extends Container.SimpleKeeper implements Seria
      */
     private final Field field;
 
+    /**
+     * 属性访问器
+     */
+    private final FieldAccessor fieldAccessor;
+
     /**
      * 是否是复数(数组/集合)
      */
@@ -82,6 +87,7 @@ public FieldRelationMember(Container container, Field field, Model<?, ?, ?> mode
         super(container);
         ModelShadowProvider modelShadowProvider = container.getBean(ModelShadowProvider.class);
         this.field = field;
+        this.fieldAccessor = FieldAccessor.of(field);
         this.name = field.getName();
         this.javaType = field.getType();
         // 集合或者数组
@@ -127,11 +133,7 @@ public FieldRelationMember(Container container, Field field, Model<?, ?, ?> mode
      */
     @Nullable
     public Object fieldGet(Object obj) {
-        try {
-            return field.get(obj);
-        } catch (IllegalAccessException e) {
-            throw new IllegalAccessRuntimeException(e);
-        }
+        return fieldAccessor.get(obj);
     }
 
     /**
@@ -167,11 +169,7 @@ public void fieldSet(Object obj, @Nullable List<?> value) {
      * @throws IllegalAccessRuntimeException 反射赋值异常
      */
     public void fieldSet(Object obj, @Nullable Object value) {
-        try {
-            field.set(obj, value);
-        } catch (IllegalAccessException e) {
-            throw new IllegalAccessRuntimeException(e);
-        }
+        fieldAccessor.set(obj, value);
     }
 
     /**
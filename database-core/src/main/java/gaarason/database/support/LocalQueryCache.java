@@ -0,0 +1,274 @@
+package gaarason.database.support;
+
+import gaarason.database.appointment.QueryCacheStats;
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.contract.support.QueryCache;
+import gaarason.database.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地查询结果缓存
+ * 按照条目数与估算字节数限制容量, 超出时淘汰最久未访问的条目; 条目在写入一段时间后过期
+ * 按键的 hash 分段加锁, 容量平均分配到各段, 淘汰在段内进行
+ * @author xt
+ */
+public class LocalQueryCache implements QueryCache {
+
+    /**
+     * 每段的最少条目数, 条目数较少时不分段, 以保持淘汰的顺序
+     */
+    protected static final int MIN_ENTRIES_PER_SEGMENT = 256;
+
+    /**
+     * 最大分段数
+     */
+    protected static final int MAX_SEGMENTS = 16;
+
+    /**
+     * 过期时间(ms), 小于等于 0 时不过期
+     */
+    protected final long ttlMillis;
+
+    /**
+     * 分段
+     */
+    protected final Segment[] segments;
+
+    /**
+     * 标签 -> 版本, 每次失效时递增
+     */
+    protected final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    protected final LongAdder hitCount = new LongAdder();
+
+    protected final LongAdder missCount = new LongAdder();
+
+    protected final LongAdder evictionCount = new LongAdder();
+
+    protected final LongAdder invalidationCount = new LongAdder();
+
+    public LocalQueryCache(GaarasonDatabaseProperties.QueryCache properties) {
+        this(properties.getMaxEntries(), properties.getMaxBytes(), properties.getTtlMillis());
+    }
+
+    public LocalQueryCache(int maxEntries, long maxBytes, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        int segmentCount = Integer.highestOneBit(
+            Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / MIN_ENTRIES_PER_SEGMENT)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxEntries / segmentCount, maxBytes / segmentCount);
+        }
+    }
+
+    @Override
+    @Nullable
+    public Object get(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(key);
+            if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+                segment.remove(key);
+                evictionCount.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                missCount.increment();
+                return null;
+            }
+            hitCount.increment();
+            return entry.value;
+        }
+    }
+
+    @Override
+    public long generation(String tag) {
+        AtomicLong generation = generations.get(tag);
+        return generation == null ? 0 : generation.get();
+    }
+
+    @Override
+    public void put(String key, Serializable value, long weight, Map<String, Long> tagGenerations) {
+        Segment segment = segmentFor(key);
+        // 单个条目超过容量时, 不缓存
+        if (segment.maxEntries <= 0 || weight > segment.maxBytes) {
+            return;
+        }
+        long expireAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+        List<String> tags = new ArrayList<>(tagGenerations.keySet());
+        synchronized (segment) {
+            // 查询期间发生了失效, 结果可能已经过期
+            // 失效总是先递增版本再加锁移除, 因此在锁内检查即可
+            for (Map.Entry<String, Long> tagGeneration : tagGenerations.entrySet()) {
+                if (generation(tagGeneration.getKey()) != tagGeneration.getValue()) {
+                    return;
+                }
+            }
+            segment.remove(key);
+            segment.entries.put(key, new Entry(value, weight, tags, expireAt));
+            for (String tag : tags) {
+                segment.tagIndex.computeIfAbsent(tag, k -> new HashSet<>()).add(key);
+            }
+            segment.weight += weight;
+            // 淘汰最久未访问的条目
+            Iterator<Map.Entry<String, Entry>> iterator = segment.entries.entrySet().iterator();
+            while ((segment.entries.size() > segment.maxEntries || segment.weight > segment.maxBytes) &&
+                iterator.hasNext()) {
+                Map.Entry<String, Entry> eldest = iterator.next();
+                iterator.remove();
+                segment.unindex(eldest.getKey(), eldest.getValue());
+                evictionCount.increment();
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(String tag) {
+        // 先递增版本, 使得查询期间发生失效的结果不再写入
+        generations.computeIfAbsent(tag, k -> new AtomicLong()).incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Set<String> keys = segment.tagIndex.remove(tag);
+                if (keys != null) {
+                    for (String key : new ArrayList<>(keys)) {
+                        segment.remove(key);
+                    }
+                }
+            }
+        }
+        invalidationCount.increment();
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.tagIndex.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    @Override
+    public QueryCacheStats getStats() {
+        long size = 0;
+        long currentWeight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+                currentWeight += segment.weight;
+            }
+        }
+        return new QueryCacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), invalidationCount.sum(),
+            size, currentWeight);
+    }
+
+    /**
+     * 键所在的分段
+     * @param key 键
+     * @return 分段
+     */
+    protected Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * 分段, 访问需要持有分段的锁
+     */
+    protected static class Segment {
+
+        /**
+         * 最大条目数
+         */
+        protected final int maxEntries;
+
+        /**
+         * 最大估算字节数
+         */
+        protected final long maxBytes;
+
+        /**
+         * 缓存条目, 按访问顺序排列
+         */
+        protected final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * 标签 -> 键
+         */
+        protected final Map<String, Set<String>> tagIndex = new HashMap<>();
+
+        /**
+         * 当前的估算字节数
+         */
+        protected long weight;
+
+        protected Segment(int maxEntries, long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * 移除条目
+         * @param key 键
+         */
+        protected void remove(String key) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unindex(key, entry);
+            }
+        }
+
+        /**
+         * 移除条目的标签索引与字节数
+         * @param key 键
+         * @param entry 条目
+         */
+        protected void unindex(String key, Entry entry) {
+            weight -= entry.weight;
+            for (String tag : entry.tags) {
+                Set<String> keys = tagIndex.get(tag);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        tagIndex.remove(tag);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    protected static class Entry {
+
+        protected final Object value;
+
+        protected final long weight;
+
+        protected final Collection<String> tags;
+
+        /**
+         * 过期时间戳(ms)
+         */
+        protected final long expireAt;
+
+        protected Entry(Object value, long weight, Collection<String> tags, long expireAt) {
+            this.value = value;
+            this.weight = weight;
+            this.tags = tags;
+            this.expireAt = expireAt;
+        }
+
+        protected boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@
 
 import gaarason.database.annotation.ObservedBy;
 import gaarason.database.appointment.EventType;
+import gaarason.database.contract.connection.GaarasonDataSource;
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Model;
 import gaarason.database.contract.eloquent.Record;
@@ -12,6 +13,7 @@
 import gaarason.database.contract.function.EventRecordIngFunctionalInterface;
 import gaarason.database.contract.model.Event;
 import gaarason.database.contract.model.base.RecordEvent;
+import gaarason.database.contract.support.QueryCache;
 import gaarason.database.contract.support.ShouldHandleEventsAfterCommit;
 import gaarason.database.core.Container;
 import gaarason.database.eloquent.RecordBean;
@@ -175,6 +177,7 @@ public void triggerQueryIngEvents(EventType.QueryIng eventType, Builder<B, T, K>
      * @param rows 受影响的行数
      */
     public void triggerQueryEdEvents(EventType.QueryEd eventType, Builder<B, T, K> builder, int rows) {
+        invalidateQueryCache();
         switch (eventType) {
             case eventQueryCreated:
                 dealEventQueryEd((eventProcessor, b, r, rs) -> eventProcessor.eventQueryCreated(b, rows), builder, null, null);
@@ -202,6 +205,7 @@ public void triggerQueryEdEvents(EventType.QueryEd eventType, Builder<B, T, K> b
      * @param primaryKeyValue 主键值
      */
     public void triggerQueryEdEvents(EventType.QueryEd eventType, Builder<B, T, K> builder, @Nullable K primaryKeyValue) {
+        invalidateQueryCache();
         if (eventType == EventType.QueryEd.eventQueryCreated) {
             dealEventQueryEd((eventProcessor, b, r, rs) -> eventProcessor.eventQueryCreated(b, primaryKeyValue), builder, null, null);
             return;
@@ -216,6 +220,7 @@ public void triggerQueryEdEvents(EventType.QueryEd eventType, Builder<B, T, K> b
      * @param primaryKeyValues 主键值列表
      */
     public void triggerQueryEdEvents(EventType.QueryEd eventType, Builder<B, T, K> builder, List<K> primaryKeyValues) {
+        invalidateQueryCache();
         if (eventType == EventType.QueryEd.eventQueryCreated) {
             dealEventQueryEd((eventProcessor, b, r, rs) -> eventProcessor.eventQueryCreated(b, primaryKeyValues), builder, null, null);
             return;
@@ -251,6 +256,41 @@ public void triggerQueryEdEvents(EventType.QueryEd eventType, Builder<B, T, K> b
         throw new AbnormalParameterException(eventType.name());
     }
 
+    /**
+     * 写操作后, 按表名失效查询结果缓存 (不受静默事件的影响)
+     * 事务中在提交后再次失效, 避免事务期间其他线程读取到旧数据并写入缓存
+     */
+    protected void invalidateQueryCache() {
+        QueryCache sharedQueryCache = container.getBean(QueryCache.class);
+        invalidateQueryCache(sharedQueryCache);
+        QueryCache queryCache = model.getQueryCache();
+        if (queryCache != null && queryCache != sharedQueryCache) {
+            invalidateQueryCache(queryCache);
+        }
+    }
+
+    /**
+     * 按表名失效查询结果缓存
+     * @param queryCache 查询结果缓存
+     */
+    protected void invalidateQueryCache(QueryCache queryCache) {
+        String tag = getQueryCacheTag();
+        queryCache.invalidate(tag);
+        GaarasonDataSource gaarasonDataSource = model.getGaarasonDataSource();
+        if (gaarasonDataSource.isLocalThreadInTransaction()) {
+            gaarasonDataSource.addEvent(() -> queryCache.invalidate(tag));
+        }
+    }
+
+    /**
+     * 查询结果缓存的标签
+     * 由数据源的标识与表名组成, 不同数据源中的同名表互不影响
+     * @return 标签
+     */
+    public String getQueryCacheTag() {
+        return model.getGaarasonDataSource().getIdentity() + ':' + model.getTableName();
+    }
+
     /**
      * 一个简单的检测, 可以避免大量的问题
      */
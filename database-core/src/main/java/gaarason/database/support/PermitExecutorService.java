@@ -0,0 +1,159 @@
+package gaarason.database.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限制同时执行的任务数量的线程池
+ * 任务在分发到实际执行的线程池之前获取许可, 没有许可时进入等待队列, 在其他任务完成后分发
+ * 因此提交方不会被阻塞, 实际执行的线程池中的线程也不会因等待许可而被占用, 对虚拟线程与普通线程池均适用
+ * 已持有许可的任务中再次提交的任务(如分块查询中的并行查询)同样计数, 没有许可时在提交线程中执行, 以避免上下级相互等待
+ * @author xt
+ */
+public class PermitExecutorService extends AbstractExecutorService {
+
+    /**
+     * 当前线程是否正在执行持有许可的任务
+     */
+    private static final ThreadLocal<Boolean> HOLDING = new ThreadLocal<>();
+
+    /**
+     * 实际执行的线程池
+     */
+    protected final ExecutorService delegate;
+
+    /**
+     * 许可
+     */
+    protected final Semaphore semaphore;
+
+    /**
+     * 等待许可的任务
+     */
+    protected final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 构造
+     * @param delegate 实际执行的线程池
+     * @param permits 最大同时执行的任务数量
+     */
+    public PermitExecutorService(ExecutorService delegate, int permits) {
+        this.delegate = delegate;
+        this.semaphore = new Semaphore(permits);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (delegate.isShutdown()) {
+            throw new RejectedExecutionException("The executor service has been shut down.");
+        }
+        if (semaphore.tryAcquire()) {
+            try {
+                dispatch(command);
+            } catch (RejectedExecutionException e) {
+                semaphore.release();
+                throw e;
+            }
+            return;
+        }
+        // 持有许可的任务中提交的任务, 在当前线程中执行, 占用的是上级的许可
+        if (Boolean.TRUE.equals(HOLDING.get())) {
+            runHolding(command);
+            return;
+        }
+        // 等待许可
+        pending.offer(command);
+        drain();
+    }
+
+    /**
+     * 将已获取许可的任务分发到实际执行的线程池, 任务完成后归还许可, 并分发等待中的任务
+     * @param command 任务
+     */
+    protected void dispatch(Runnable command) {
+        delegate.execute(() -> {
+            try {
+                runHolding(command);
+            } finally {
+                semaphore.release();
+                drain();
+            }
+        });
+    }
+
+    /**
+     * 在有许可时, 分发等待中的任务
+     * 实际执行的线程池拒绝时, 在当前线程中执行
+     */
+    protected void drain() {
+        while (!pending.isEmpty() && semaphore.tryAcquire()) {
+            Runnable command = pending.poll();
+            if (command == null) {
+                semaphore.release();
+                continue;
+            }
+            try {
+                dispatch(command);
+            } catch (RejectedExecutionException e) {
+                try {
+                    runHolding(command);
+                } finally {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * 标记当前线程持有许可, 并执行任务
+     * @param command 任务
+     */
+    protected static void runHolding(Runnable command) {
+        Boolean previous = HOLDING.get();
+        HOLDING.set(Boolean.TRUE);
+        try {
+            command.run();
+        } finally {
+            if (previous == null) {
+                HOLDING.remove();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> commands = new ArrayList<>(delegate.shutdownNow());
+        Runnable command;
+        while ((command = pending.poll()) != null) {
+            commands.add(command);
+        }
+        return commands;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
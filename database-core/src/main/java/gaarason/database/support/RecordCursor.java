@@ -0,0 +1,108 @@
+package gaarason.database.support;
+
+import gaarason.database.contract.eloquent.Model;
+import gaarason.database.contract.eloquent.Record;
+import gaarason.database.eloquent.RecordBean;
+import gaarason.database.exception.SQLRuntimeException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * 游标结果集
+ * 逐条将 jdbc 结果转化为 Record, 不保留已读取的数据
+ * 关闭时, 依次关闭 ResultSet 以及执行 closeHandler (一般用于关闭 Statement 与归还连接)
+ * @param <T> 实体类型
+ * @param <K> 主键类型
+ * @author xt
+ */
+public class RecordCursor<T, K> extends Spliterators.AbstractSpliterator<Record<T, K>> implements AutoCloseable {
+
+    /**
+     * 数据模型
+     */
+    protected final Model<?, T, K> model;
+
+    /**
+     * jdbc结果
+     */
+    protected final ResultSet resultSet;
+
+    /**
+     * 执行的sql
+     */
+    protected final String sql;
+
+    /**
+     * 关闭时的处理
+     */
+    protected final Runnable closeHandler;
+
+    /**
+     * 列信息, 所有行共享
+     */
+    protected final ColumnSchema columnSchema;
+
+    /**
+     * 是否已经关闭
+     */
+    protected boolean closed;
+
+    /**
+     * 构造
+     * @param model 数据模型
+     * @param resultSet jdbc结果
+     * @param sql 执行的sql
+     * @param closeHandler 关闭时的处理
+     * @throws SQLException 数据库异常
+     */
+    public RecordCursor(Model<?, T, K> model, ResultSet resultSet, String sql, Runnable closeHandler)
+        throws SQLException {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.model = model;
+        this.resultSet = resultSet;
+        this.sql = sql;
+        this.closeHandler = closeHandler;
+        this.columnSchema = ColumnSchema.of(model, resultSet.getMetaData());
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Record<T, K>> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!resultSet.next()) {
+                // 读取完毕, 尽早释放连接
+                close();
+                return false;
+            }
+            action.accept(new RecordBean<>(model, columnSchema.read(resultSet), sql));
+            return true;
+        } catch (SQLException e) {
+            close();
+            throw new SQLRuntimeException(sql, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 关闭游标, 可重复调用
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(sql, e.getMessage(), e);
+        } finally {
+            closeHandler.run();
+        }
+    }
+}
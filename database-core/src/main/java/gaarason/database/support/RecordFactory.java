@@ -22,6 +22,11 @@
  */
 public final class RecordFactory {
 
+    /**
+     * 无法预估数量时, 结果集集合的初始容量
+     */
+    private static final int DEFAULT_RECORD_LIST_CAPACITY = 16;
+
     private RecordFactory() {
 
     }
@@ -42,10 +47,8 @@ public static <T, K> Record<T, K> newRecord(Model<?, T, K> model,
         if (!resultSet.next()) {
             throw new EntityNotFoundException(sql);
         }
-        final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-
-        Map<String, Object> columnValueMap = JDBCResultToMap(model, resultSetMetaData, resultSet);
-        return new RecordBean<>(model, columnValueMap, sql);
+        ColumnSchema columnSchema = ColumnSchema.of(model, resultSet.getMetaData());
+        return new RecordBean<>(model, columnSchema.read(resultSet), sql);
     }
 
     /**
@@ -61,19 +64,40 @@ public static <T, K> Record<T, K> newRecord(Model<?, T, K> model,
     public static <T, K> RecordList<T, K> newRecordList(Model<?, T, K> model,
         ResultSet resultSet, String sql) throws SQLException {
 
-        RecordList<T, K> recordList = new RecordListBean<>(sql, model.getGaarasonDataSource().getContainer());
-        // 总的数据源
-        final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        // 按照驱动单次抓取的行数预分配
+        int fetchSize = resultSet.getFetchSize();
+        RecordList<T, K> recordList = new RecordListBean<>(sql, model.getGaarasonDataSource().getContainer(),
+            fetchSize > 0 ? fetchSize : DEFAULT_RECORD_LIST_CAPACITY);
+        // 列信息, 所有行共享
+        ColumnSchema columnSchema = ColumnSchema.of(model, resultSet.getMetaData());
 
         while (resultSet.next()) {
-            // 拆分的数据源
-            Map<String, Object> columnValueMap = JDBCResultToMap(model, resultSetMetaData, resultSet);
-            recordList.add(new RecordBean<>(model, columnValueMap, sql));
+            // 行数据
+            recordList.add(new RecordBean<>(model, columnSchema.read(resultSet), sql));
         }
 
         return recordList;
     }
 
+    /**
+     * 批量结果集(来源 : 查询结果缓存)
+     * @param model Model
+     * @param metadataList 元数据列表 (每个结果集复制一份)
+     * @param sql 执行的sql
+     * @param <T> 实体类型
+     * @param <K> 实体主键类型
+     * @return 批量结果集(全新)
+     */
+    public static <T, K> RecordList<T, K> newRecordList(Model<?, T, K> model,
+        List<? extends Map<String, Object>> metadataList, String sql) {
+        RecordList<T, K> recordList = new RecordListBean<>(sql, model.getGaarasonDataSource().getContainer(),
+            metadataList.size());
+        for (Map<String, Object> metadata : metadataList) {
+            recordList.add(new RecordBean<>(model, metadata, sql));
+        }
+        return recordList;
+    }
+
     /**
      * 单体结果集列表,转化为 批量结果集
      * 保持 record 对象地址一致
@@ -86,7 +110,7 @@ public static <T, K> RecordList<T, K> newRecordList(Model<?, T, K> model,
     public static <T, K> RecordList<T, K> newRecordList(Container container,
         Collection<Record<T, K>> records) {
         String sql = !records.isEmpty() ? records.iterator().next().getOriginalSql() : "";
-        RecordList<T, K> recordList = new RecordListBean<>(sql, container);
+        RecordList<T, K> recordList = new RecordListBean<>(sql, container, records.size());
         // 此处不应使用, deepCopyRecord
         recordList.addAll(records);
         return recordList;
@@ -129,7 +153,7 @@ public static <T, K> RecordList<T, K> newRecordList(Container container) {
     public static <T, K> RecordList<T, K> copyRecordList(
         RecordList<T, K> originalRecordList) {
         RecordList<T, K> recordList = new RecordListBean<>(originalRecordList.getOriginalSql(),
-            originalRecordList.getContainer());
+            originalRecordList.getContainer(), originalRecordList.size());
         for (Record<T, K> originalRecord : originalRecordList) {
             recordList.add(new RecordBean<>(originalRecord));
         }
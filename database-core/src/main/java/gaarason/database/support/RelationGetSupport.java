@@ -1,6 +1,9 @@
 package gaarason.database.support;
 
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.connection.LocalThreadContext;
 import gaarason.database.contract.eloquent.Builder;
+import gaarason.database.contract.eloquent.Model;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
 import gaarason.database.contract.eloquent.relation.RelationSubQuery;
@@ -12,6 +15,11 @@
 import gaarason.database.util.ObjectUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * 关联关系获取
@@ -19,6 +27,12 @@
  */
 public class RelationGetSupport<T, K> extends Container.SimpleKeeper {
 
+    /**
+     * 当前线程是否正在查询关联关系
+     * 下级的关联关系在当前线程中顺序执行, 不再提交到线程池, 以避免线程池中的线程相互等待
+     */
+    protected static final ThreadLocal<Boolean> LOCAL_RELATION_LOADING = new ThreadLocal<>();
+
     /**
      * 当前结果集
      */
@@ -104,8 +118,10 @@ protected T generateEntity(Record<T, K> record, Map<Record.Relation, relationRes
 
             // 赋值 关联关系统计
             if (relation.relationOperation) {
-                // 筛选批量关联查询结果
-                Map<String, Object> map = relationSubQuery.filterBatchRecordByRelationOperation(record, relationResultData.records);
+                // 筛选批量关联查询结果, 优先使用索引
+                Map<String, Object> map = relationResultData.operationIndex != null ?
+                    relationSubQuery.filterBatchRecordByRelationOperation(record, relationResultData.operationIndex) :
+                    relationSubQuery.filterBatchRecordByRelationOperation(record, relationResultData.records);
 
                 // 目标属性信息
                 FieldMember<?> targetFieldMember = entityMember.getFieldMemberByFieldName(relationResultData.targetFieldName);
@@ -118,8 +134,10 @@ protected T generateEntity(Record<T, K> record, Map<Record.Relation, relationRes
             }
             // 赋值 关联关系
             else {
-                // 筛选批量关联查询结果对象
-                List<?> objects = relationSubQuery.filterBatchRecord(record, relationResultData.records, relationResultData.objects);
+                // 筛选批量关联查询结果对象, 优先使用索引
+                List<?> objects = relationResultData.index != null ?
+                    relationSubQuery.filterBatchRecord(record, relationResultData.index) :
+                    relationSubQuery.filterBatchRecord(record, relationResultData.records, relationResultData.objects);
 
                 // 是否是集合
                 if (fieldRelationMember.isPlural()) {
@@ -157,59 +175,206 @@ protected Map<Record.Relation, relationResultData> dealRelationData(RecordList<?
          */
         Map<String, Record.Relation> relationMap = records.get(0).getRelationMap();
 
-        // 循环每一个有效的关联关系数据
-        for (Map.Entry<String, Record.Relation> relationEntry : relationMap.entrySet()) {
-            // 目标属性名 (并不一定等于 Relation.name)
-            String targetFieldName  = relationEntry.getKey();
-            // 关联关系信息
-            Record.Relation relation = relationEntry.getValue();
-            // 是否关联关系操作
-            boolean relationOperation = relation.relationOperation;
+        // 是否并发查询, 仅最外层并发
+        boolean concurrent = relationMap.size() > 1 && !Boolean.TRUE.equals(LOCAL_RELATION_LOADING.get()) &&
+            shouldDealRelationConcurrently(records);
+        if (!concurrent) {
+            for (Map.Entry<String, Record.Relation> relationEntry : relationMap.entrySet()) {
+                relationResultMap.put(relationEntry.getValue(),
+                    dealRelationData(metadataList, entityMember, relationEntry.getKey(), relationEntry.getValue()));
+            }
+            return relationResultMap;
+        }
 
-            // 关联关系属性信息
-            FieldRelationMember fieldRelationMember = entityMember.getFieldRelationMemberByFieldName(
-                    relation.relationFieldName);
+        Map<Record.Relation, RelationTask> taskMap = new LinkedHashMap<>();
+        LOCAL_RELATION_LOADING.set(true);
+        try {
+            int remaining = relationMap.size();
+            // 循环每一个有效的关联关系数据
+            for (Map.Entry<String, Record.Relation> relationEntry : relationMap.entrySet()) {
+                // 目标属性名 (并不一定等于 Relation.name)
+                String targetFieldName = relationEntry.getKey();
+                // 关联关系信息
+                Record.Relation relation = relationEntry.getValue();
+
+                // 最后一个关联关系, 在当前线程中执行
+                if (--remaining > 0) {
+                    taskMap.put(relation, submitRelationTask(records,
+                        () -> dealRelationData(metadataList, entityMember, targetFieldName, relation)));
+                } else {
+                    relationResultMap.put(relation,
+                        dealRelationData(metadataList, entityMember, targetFieldName, relation));
+                }
+            }
+            // 合并并发查询的结果, 尚未开始执行的在当前线程中执行
+            for (Map.Entry<Record.Relation, RelationTask> entry : taskMap.entrySet()) {
+                relationResultMap.put(entry.getKey(), entry.getValue().join());
+            }
+        } finally {
+            LOCAL_RELATION_LOADING.remove();
+        }
+        return relationResultMap;
+    }
 
-            // 关联关系字段处理
-            RelationSubQuery relationSubQuery = fieldRelationMember.getRelationSubQuery();
+    /**
+     * 查询并处理单个关联关系数据
+     * @param metadataList 原数据 (整体)
+     * @param entityMember 数据库实体信息
+     * @param targetFieldName 目标属性名
+     * @param relation 关联关系信息
+     * @return 关系查询结果
+     */
+    protected relationResultData dealRelationData(List<Map<String, Object>> metadataList,
+        EntityMember<?, ?> entityMember, String targetFieldName, Record.Relation relation) {
+        // 是否关联关系操作
+        boolean relationOperation = relation.relationOperation;
+
+        // 关联关系属性信息
+        FieldRelationMember fieldRelationMember = entityMember.getFieldRelationMemberByFieldName(
+                relation.relationFieldName);
+
+        // 关联关系字段处理
+        RelationSubQuery relationSubQuery = fieldRelationMember.getRelationSubQuery();
+
+        // 中间表，查询构造器
+        Builder<?, ?, ?> relationBuilder = relationSubQuery.prepareRelationBuilder(metadataList);
+
+        // 中间表数据
+        RecordList<?, ?> relationRecords =  relationSubQuery.dealBatchForRelation(relationBuilder);
+
+        // 关联关系统计查询
+        if (relationOperation) {
+            // 目标表，查询构造器
+            Builder<?, ?, ?> targetBuilder = relationSubQuery.prepareTargetBuilderByRelationOperation(metadataList,
+                    relationRecords, relation.operationBuilder, relation.customBuilder);
+
+            // 本级关系查询
+            RecordList<?, ?> targetRecordList = getTargetRecordsTransferWith(relation.recordWrapper,
+                    () -> relationSubQuery.dealBatchForTargetByRelationOperation(targetBuilder, relationRecords));
+
+            // 收集以便返回
+            relationResultData resultData = new relationResultData(targetFieldName, fieldRelationMember,
+                targetRecordList, null);
+            // 建立索引, 每个关联关系仅一次
+            resultData.operationIndex = relationSubQuery.indexBatchRecordByRelationOperation(targetRecordList);
+            return resultData;
+        }
+        // 关联关系查询
+        else {
+            // 目标表，查询构造器
+            Builder<?, ?, ?> targetBuilder = relationSubQuery.prepareTargetBuilder(metadataList, relationRecords,
+                    relation.operationBuilder, relation.customBuilder);
+
+            // 本级关系查询
+            RecordList<?, ?> targetRecordList = getTargetRecordsTransferWith(relation.recordWrapper,
+                    () -> relationSubQuery.dealBatchForTarget(targetBuilder, relationRecords));
+
+            // 转化为普通对象, 递归调用
+            List<?> objs = targetRecordList.toObjectList();
+
+            // 收集以便返回
+            relationResultData resultData = new relationResultData(targetFieldName, fieldRelationMember,
+                targetRecordList, objs);
+            // 建立索引, 每个关联关系仅一次
+            resultData.index = relationSubQuery.indexBatchRecord(targetRecordList, resultData.objects);
+            return resultData;
+        }
+    }
 
-            // 中间表，查询构造器
-            Builder<?, ?, ?> relationBuilder = relationSubQuery.prepareRelationBuilder(metadataList);
+    /**
+     * 是否并发查询同级的关联关系
+     * 需要开启配置, 且不在事务中 (事务绑定于当前线程的连接)
+     * @param records 当前全量数据
+     * @return 是否并发
+     */
+    protected boolean shouldDealRelationConcurrently(RecordList<?, ?> records) {
+        if (!container.getBean(GaarasonDatabaseProperties.class).getRelation().isConcurrent()) {
+            return false;
+        }
+        return !records.get(0).getModel().getGaarasonDataSource().isLocalThreadInTransaction();
+    }
 
-            // 中间表数据
-            RecordList<?, ?> relationRecords =  relationSubQuery.dealBatchForRelation(relationBuilder);
+    /**
+     * 提交到异步线程池中查询关联关系, 线程池满时由 join 在当前线程中执行
+     * 执行线程沿用当前线程的分片提示与读己之写的状态
+     * @param records 当前全量数据
+     * @param supplier 查询逻辑
+     * @return 关联关系查询任务
+     */
+    protected static RelationTask submitRelationTask(RecordList<?, ?> records,
+        Supplier<relationResultData> supplier) {
+        Model<?, ?, ?> model = records.get(0).getModel();
+        RelationTask task = new RelationTask(LocalThreadContext.wrap(model.getGaarasonDataSource(), supplier));
+        try {
+            model.getExecutorService().execute(task);
+        } catch (RejectedExecutionException e) {
+            // 由 join 在当前线程中执行
+        }
+        return task;
+    }
 
-            // 关联关系统计查询
-            if (relationOperation) {
-                // 目标表，查询构造器
-                Builder<?, ?, ?> targetBuilder = relationSubQuery.prepareTargetBuilderByRelationOperation(metadataList,
-                        relationRecords, relation.operationBuilder, relation.customBuilder);
+    /**
+     * 关联关系查询任务
+     * 由线程池中的线程, 或者等待结果的线程执行, 先开始的一方执行
+     * 等待结果时, 尚未开始执行的任务直接在等待线程中执行, 因此不会因线程池中的线程不足而相互等待
+     */
+    protected static class RelationTask implements Runnable {
 
-                // 本级关系查询
-                RecordList<?, ?> targetRecordList = getTargetRecordsTransferWith(relation.recordWrapper,
-                        () -> relationSubQuery.dealBatchForTargetByRelationOperation(targetBuilder, relationRecords));
+        /**
+         * 是否已开始执行
+         */
+        protected final AtomicBoolean started = new AtomicBoolean();
 
-                // 收集以便返回
-                relationResultMap.put(relation, new relationResultData(targetFieldName, fieldRelationMember, targetRecordList, null));
-            }
-            // 关联关系查询
-            else {
-                // 目标表，查询构造器
-                Builder<?, ?, ?> targetBuilder = relationSubQuery.prepareTargetBuilder(metadataList, relationRecords,
-                        relation.operationBuilder, relation.customBuilder);
+        /**
+         * 查询逻辑
+         */
+        protected final Supplier<relationResultData> supplier;
 
-                // 本级关系查询
-                RecordList<?, ?> targetRecordList = getTargetRecordsTransferWith(relation.recordWrapper,
-                        () -> relationSubQuery.dealBatchForTarget(targetBuilder, relationRecords));
+        /**
+         * 查询结果
+         */
+        protected final CompletableFuture<relationResultData> future = new CompletableFuture<>();
 
-                // 转化为普通对象, 递归调用
-                List<?> objs = targetRecordList.toObjectList();
+        protected RelationTask(Supplier<relationResultData> supplier) {
+            this.supplier = supplier;
+        }
 
-                // 收集以便返回
-                relationResultMap.put(relation, new relationResultData(targetFieldName, fieldRelationMember, targetRecordList, objs));
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            // 下级的关联关系在当前线程中顺序执行
+            Boolean previous = LOCAL_RELATION_LOADING.get();
+            LOCAL_RELATION_LOADING.set(true);
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                if (previous == null) {
+                    LOCAL_RELATION_LOADING.remove();
+                } else {
+                    LOCAL_RELATION_LOADING.set(previous);
+                }
+            }
+        }
+
+        /**
+         * 等待查询结果, 尚未开始执行时在当前线程中执行
+         * @return 关系查询结果
+         */
+        public relationResultData join() {
+            run();
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
             }
         }
-        return relationResultMap;
     }
 
     /**
@@ -257,6 +422,16 @@ public static class relationResultData {
         public FieldRelationMember fieldRelationMember;
         public RecordList<?, ?> records;
         public List<?> objects;
+        /**
+         * 关系键值 -> 对象列表
+         */
+        @Nullable
+        public Map<Object, List<Object>> index;
+        /**
+         * 关系键值 -> 关联查询操作的结果
+         */
+        @Nullable
+        public Map<Object, Map<String, Object>> operationIndex;
         public relationResultData(String targetFieldName, FieldRelationMember fieldRelationMember, RecordList<?, ?> records,
                  @Nullable List<?> objects) {
             this.targetFieldName = targetFieldName;
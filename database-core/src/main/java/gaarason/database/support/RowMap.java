@@ -0,0 +1,282 @@
+package gaarason.database.support;
+
+import gaarason.database.lang.Nullable;
+
+import java.util.*;
+
+/**
+ * 行数据
+ * 以数组存储各列的值, 列信息由同一结果集的所有行共享
+ * 通过 snapshot() 生成的快照与原对象共享数组, 任一方首次修改时才复制 (copy-on-write)
+ * 非本结果集的列, 存储于额外的 map 中
+ * @author xt
+ */
+public class RowMap extends AbstractMap<String, Object> {
+
+    /**
+     * 已移除的列的占位
+     */
+    private static final Object ABSENT = new Object();
+
+    /**
+     * 列信息
+     */
+    protected final ColumnSchema schema;
+
+    /**
+     * 各列的值
+     */
+    protected Object[] values;
+
+    /**
+     * 数组是否与其他对象共享
+     */
+    protected boolean shared;
+
+    /**
+     * 有效的列的数量(不含额外的列)
+     */
+    protected int size;
+
+    /**
+     * 额外的列
+     */
+    @Nullable
+    protected LinkedHashMap<String, Object> extraMap;
+
+    /**
+     * 构造
+     * @param schema 列信息
+     * @param values 各列的值
+     */
+    public RowMap(ColumnSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+        this.size = values.length;
+    }
+
+    /**
+     * 生成快照, 与原对象共享数组, 任一方首次修改时才复制
+     * @return 快照
+     */
+    public RowMap snapshot() {
+        shared = true;
+        RowMap rowMap = new RowMap(schema, values);
+        rowMap.shared = true;
+        rowMap.size = size;
+        if (extraMap != null) {
+            rowMap.extraMap = new LinkedHashMap<>(extraMap);
+        }
+        return rowMap;
+    }
+
+    /**
+     * 修改前, 如果数组被共享, 则复制
+     */
+    protected void beforeWrite() {
+        if (shared) {
+            values = values.clone();
+            shared = false;
+        }
+    }
+
+    @Override
+    public int size() {
+        return extraMap == null ? size : size + extraMap.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = schema.indexOf(key);
+        if (index >= 0) {
+            return values[index] != ABSENT;
+        }
+        return extraMap != null && extraMap.containsKey(key);
+    }
+
+    @Override
+    @Nullable
+    public Object get(Object key) {
+        int index = schema.indexOf(key);
+        if (index >= 0) {
+            Object value = values[index];
+            return value == ABSENT ? null : value;
+        }
+        return extraMap == null ? null : extraMap.get(key);
+    }
+
+    @Override
+    @Nullable
+    public Object put(String key, @Nullable Object value) {
+        int index = schema.indexOf(key);
+        if (index >= 0) {
+            beforeWrite();
+            Object old = values[index];
+            values[index] = value;
+            if (old == ABSENT) {
+                size++;
+                return null;
+            }
+            return old;
+        }
+        if (extraMap == null) {
+            extraMap = new LinkedHashMap<>();
+        }
+        return extraMap.put(key, value);
+    }
+
+    @Override
+    @Nullable
+    public Object remove(Object key) {
+        int index = schema.indexOf(key);
+        if (index >= 0) {
+            Object old = values[index];
+            if (old == ABSENT) {
+                return null;
+            }
+            beforeWrite();
+            values[index] = ABSENT;
+            size--;
+            return old;
+        }
+        return extraMap == null ? null : extraMap.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        Object[] newValues = new Object[values.length];
+        Arrays.fill(newValues, ABSENT);
+        values = newValues;
+        shared = false;
+        size = 0;
+        extraMap = null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return RowMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * 迭代器, 先按列顺序, 再是额外的列
+     */
+    protected class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        protected int nextIndex = -1;
+
+        protected int lastIndex = -1;
+
+        @Nullable
+        protected Iterator<Entry<String, Object>> extraIterator;
+
+        protected boolean lastFromExtra;
+
+        EntryIterator() {
+            advance();
+        }
+
+        protected void advance() {
+            nextIndex++;
+            while (nextIndex < values.length && values[nextIndex] == ABSENT) {
+                nextIndex++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextIndex < values.length) {
+                return true;
+            }
+            if (extraIterator == null && extraMap != null) {
+                extraIterator = extraMap.entrySet().iterator();
+            }
+            return extraIterator != null && extraIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nextIndex < values.length) {
+                lastIndex = nextIndex;
+                lastFromExtra = false;
+                advance();
+                return new SlotEntry(lastIndex);
+            }
+            lastFromExtra = true;
+            return Objects.requireNonNull(extraIterator).next();
+        }
+
+        @Override
+        public void remove() {
+            if (lastFromExtra) {
+                Objects.requireNonNull(extraIterator).remove();
+            } else if (lastIndex >= 0) {
+                RowMap.this.remove(schema.getColumnName(lastIndex));
+                lastIndex = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * 列的键值对
+     */
+    protected class SlotEntry implements Entry<String, Object> {
+
+        protected final int index;
+
+        SlotEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.getColumnName(index);
+        }
+
+        @Override
+        @Nullable
+        public Object getValue() {
+            Object value = values[index];
+            return value == ABSENT ? null : value;
+        }
+
+        @Override
+        @Nullable
+        public Object setValue(@Nullable Object value) {
+            return put(getKey(), value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -5,6 +5,10 @@
 import gaarason.database.logging.Log;
 import gaarason.database.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 雪花id工具类
  * @author xt
@@ -67,14 +71,10 @@ public class SnowFlakeIdGenerator implements IdGenerator.SnowFlakesID {
     private final long dataCenterId;
 
     /**
-     * 毫秒内序列(0~8191)
-     */
-    private long sequence;
-
-    /**
-     * 上次生成ID的时间截
+     * 上次生成ID的状态, 高位为时间截(相对初始时间截), 低位为毫秒内序列(0~8191)
+     * 即 id 去除机器信息后的部分, 通过 CAS 更新
      */
-    private long lastTimestamp = -1L;
+    private final AtomicLong state = new AtomicLong();
 
     /**
      * 构造函数
@@ -127,49 +127,85 @@ private void informationReport() {
     }
 
     /**
-     * 获得下一个ID (用同步锁保证线程安全,在高并发场景同步锁性能和资源消耗优于CAS；并且测试中单线程即使用CAS也没有提升性能)
+     * 获得下一个ID
      * @return SnowflakeId
      */
     @Override
-    public synchronized Long nextId() {
-        long currentTimestamp = getSystemCurrentTimeMillis();
-        // 如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
-        if (currentTimestamp < lastTimestamp) {
-            // 如果时钟回拨在可接受范围内, 等待即可
-            long offset = lastTimestamp - currentTimestamp;
-            if (offset <= MAX_BACKWARD_MS) {
-                // 堵塞到lastTimestamp之后让其追上
-                currentTimestamp = tilNextMillis(lastTimestamp);
-                // 当前仍然时间小于上一次ID生成的时间戳,抛异常并上报
-                if (currentTimestamp < lastTimestamp) {
+    public Long nextId() {
+        return assemble(reserve(1));
+    }
+
+    /**
+     * 获得连续的多个ID, 一次操作预留整个区间, 适用于批量插入
+     * @param n 数量
+     * @return SnowflakeId 列表, 递增
+     */
+    @Override
+    public List<Long> nextIds(int n) {
+        List<Long> ids = new ArrayList<>(Math.max(n, 0));
+        int remaining = n;
+        while (remaining > 0) {
+            // 单次最多预留一个毫秒内的全部序列
+            int size = (int) Math.min(remaining, SEQUENCE_MASK + 1);
+            long last = reserve(size);
+            for (long s = last - size + 1; s <= last; s++) {
+                ids.add(assemble(s));
+            }
+            remaining -= size;
+        }
+        return ids;
+    }
+
+    /**
+     * 预留指定数量的连续序列
+     * @param n 数量 (1 ~ SEQUENCE_MASK + 1)
+     * @return 预留的最后一个状态, 预留区间为 [返回值 - n + 1, 返回值]
+     */
+    private long reserve(int n) {
+        for (; ; ) {
+            long last = state.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long currentTimestamp = getSystemCurrentTimeMillis() - INITIAL_TIME_STAMP;
+            // 如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过
+            if (currentTimestamp < lastTimestamp) {
+                // 如果时钟回拨在可接受范围内, 等待即可
+                long offset = lastTimestamp - currentTimestamp;
+                if (offset > MAX_BACKWARD_MS) {
                     throw new SnowFlakeIdGeneratorException(
-                        "当前时间 " + currentTimestamp + " 等待后仍然小于上一次记录的时间戳 " + lastTimestamp + " !");
+                        "当前时间 " + (currentTimestamp + INITIAL_TIME_STAMP) + " 小于上一次记录的时间戳 " +
+                            (lastTimestamp + INITIAL_TIME_STAMP) + " !");
+                }
+                // 堵塞到lastTimestamp让其追上, 再重新尝试
+                tilNextMillis(lastTimestamp + INITIAL_TIME_STAMP - 1);
+                continue;
+            }
+            long next;
+            if (currentTimestamp == lastTimestamp) {
+                // 同一毫秒内, 序列不足时, 阻塞到下一个毫秒再重新尝试
+                if ((last & SEQUENCE_MASK) + n > SEQUENCE_MASK) {
+                    tilNextMillis(lastTimestamp + INITIAL_TIME_STAMP);
+                    continue;
                 }
+                next = last + n;
             } else {
-                throw new SnowFlakeIdGeneratorException(
-                    "当前时间 " + currentTimestamp + " 小于上一次记录的时间戳 " + lastTimestamp + " !");
+                // 时间戳改变，毫秒内序列重置
+                next = (currentTimestamp << SEQUENCE_BITS) | (n - 1);
             }
-        }
-
-        // 如果是同一时间生成的，则进行毫秒内序列
-        if (lastTimestamp == currentTimestamp) {
-            sequence = (sequence + 1) & SEQUENCE_MASK;
-            // sequence等于0说明毫秒内序列已经增长到最大值
-            if (sequence == 0) {
-                // 阻塞到下一个毫秒,获得新的时间戳
-                currentTimestamp = tilNextMillis(lastTimestamp);
+            if (state.compareAndSet(last, next)) {
+                return next;
             }
         }
-        // 时间戳改变，毫秒内序列重置
-        else {
-            sequence = 0L;
-        }
-        // 上次生成ID的时间截
-        lastTimestamp = currentTimestamp;
-        // 移位并通过或运算拼到一起组成64位的ID
-        return ((currentTimestamp - INITIAL_TIME_STAMP) << TIMESTAMP_OFFSET)
+    }
+
+    /**
+     * 移位并通过或运算拼到一起组成64位的ID
+     * @param timestampAndSequence 时间截(相对初始时间截)与毫秒内序列
+     * @return SnowflakeId
+     */
+    private long assemble(long timestampAndSequence) {
+        return ((timestampAndSequence >>> SEQUENCE_BITS) << TIMESTAMP_OFFSET)
             | (dataCenterId << DATA_CENTER_ID_OFFSET)
             | (workerId << WORKER_ID_OFFSET)
-            | sequence;
+            | (timestampAndSequence & SEQUENCE_MASK);
     }
 }
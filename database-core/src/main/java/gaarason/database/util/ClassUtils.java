@@ -6,9 +6,16 @@
 import gaarason.database.logging.Log;
 import gaarason.database.logging.LogFactory;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * 类的相关操作
@@ -68,6 +75,66 @@ public static <T> T newInstance(Class<T> clazz) {
         }
     }
 
+    /**
+     * 生成实例化对象的工厂, 用于需要反复实例化的场景
+     * 依次尝试 LambdaMetafactory / MethodHandle, 均不可用时使用反射
+     * @param clazz 目标类
+     * @param <T> 目标类型
+     * @return 实例化工厂
+     */
+    public static <T> Supplier<T> newInstanceSupplier(Class<T> clazz) {
+        MethodHandle handle;
+        try {
+            Constructor<T> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            // 生成的类由本类所在的类加载器解析, 仅在目标类可见且公开时使用
+            if (Modifier.isPublic(clazz.getModifiers()) && Modifier.isPublic(constructor.getModifiers()) &&
+                isVisible(clazz, ClassUtils.class.getClassLoader())) {
+                CallSite callSite = LambdaMetafactory.metafactory(MethodHandles.lookup(), "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), handle,
+                    MethodType.methodType(clazz));
+                Supplier<?> supplier = (Supplier<?>) callSite.getTarget().invokeExact();
+                return () -> {
+                    try {
+                        return ObjectUtils.typeCast(supplier.get());
+                    } catch (Throwable e) {
+                        throw new ObjectNewInstanceException(clazz, e);
+                    }
+                };
+            }
+            handle = handle.asType(MethodType.methodType(Object.class));
+        } catch (Throwable e) {
+            LOGGER.debug("Fallback to reflection when instantiating [" + clazz + "] : " + e.getMessage());
+            return () -> newInstance(clazz);
+        }
+        MethodHandle genericHandle = handle;
+        return () -> {
+            try {
+                return ObjectUtils.typeCast((Object) genericHandle.invokeExact());
+            } catch (Throwable e) {
+                throw new ObjectNewInstanceException(clazz, e);
+            }
+        };
+    }
+
+    /**
+     * 类对于指定的类加载器是否可见
+     * @param clazz 类
+     * @param classLoader 类加载器
+     * @return 是否可见
+     */
+    public static boolean isVisible(Class<?> clazz, @Nullable ClassLoader classLoader) {
+        if (classLoader == null) {
+            return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
     /**
      * 实例化对象
      * @param clazz 目标类
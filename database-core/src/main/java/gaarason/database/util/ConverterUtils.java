@@ -1,6 +1,7 @@
 package gaarason.database.util;
 
 import gaarason.database.appointment.FinalVariable;
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
 import gaarason.database.exception.TypeCastException;
 import gaarason.database.exception.TypeNotSupportedException;
 import gaarason.database.lang.Nullable;
@@ -492,4 +493,121 @@ public static Object getValueFromJdbcResultSet(@Nullable Field field, ResultSet
         // 返回的字段值为null, 且目标类型可以接受null
         return resultSet.wasNull() && EntityUtils.isFieldCanBeNull(field) ? null : value;
     }
+
+    /**
+     * 根据java类型，获取jdbc中的数据结果的读取器
+     * 类型判断仅在此处进行一次, 读取时通过列的下标, 结果与 getValueFromJdbcResultSet 一致
+     * @param field field
+     * @return 读取器
+     * @see #getValueFromJdbcResultSet(Field, ResultSet, String)
+     */
+    public static ColumnReaderFunctionalInterface<Object> getJdbcResultSetReader(@Nullable Field field) {
+        // ModelShadowProvider 中没有指定的字段信息
+        if (field == null) {
+            return ResultSet::getObject;
+        }
+
+        Class<?> fieldType = field.getType();
+
+        // 基本类型的读取, 需要通过 wasNull 判断是否为 null
+        ColumnReaderFunctionalInterface<Object> primitiveReader = null;
+        if (Boolean.class.equals(fieldType) || boolean.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getBoolean;
+        } else if (Byte.class.equals(fieldType) || byte.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getByte;
+        } else if (Character.class.equals(fieldType) || char.class.equals(fieldType)) {
+            primitiveReader = (resultSet, index) -> {
+                String tempStr = resultSet.getString(index);
+                return tempStr != null ? tempStr.toCharArray()[0] : ' ';
+            };
+        } else if (Short.class.equals(fieldType) || short.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getShort;
+        } else if (Integer.class.equals(fieldType) || int.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getInt;
+        } else if (Long.class.equals(fieldType) || long.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getLong;
+        } else if (Float.class.equals(fieldType) || float.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getFloat;
+        } else if (Double.class.equals(fieldType) || double.class.equals(fieldType)) {
+            primitiveReader = ResultSet::getDouble;
+        } else if (!BigInteger.class.isAssignableFrom(fieldType) && !BigDecimal.class.equals(fieldType) &&
+            Number.class.isAssignableFrom(fieldType)) {
+            primitiveReader = ResultSet::getLong;
+        }
+
+        if (primitiveReader != null) {
+            if (!EntityUtils.isFieldCanBeNull(field)) {
+                return primitiveReader;
+            }
+            ColumnReaderFunctionalInterface<Object> reader = primitiveReader;
+            return (resultSet, index) -> {
+                Object value = reader.read(resultSet, index);
+                return resultSet.wasNull() ? null : value;
+            };
+        }
+
+        // 对象类型的读取, 为 null 时直接返回 null
+        if (BigInteger.class.isAssignableFrom(fieldType)) {
+            return (resultSet, index) -> {
+                String value = resultSet.getString(index);
+                return value == null ? null : new BigInteger(value);
+            };
+        } else if (BigDecimal.class.equals(fieldType)) {
+            return ResultSet::getBigDecimal;
+        } else if (java.sql.Date.class.equals(fieldType)) {
+            return ResultSet::getDate;
+        } else if (Time.class.equals(fieldType)) {
+            return ResultSet::getTime;
+        } else if (Year.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return ObjectUtils.isNull(timestamp) ? null : Year.from(timestamp.toLocalDateTime());
+            };
+        } else if (YearMonth.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return ObjectUtils.isNull(timestamp) ? null : YearMonth.from(timestamp.toLocalDateTime());
+            };
+        } else if (Month.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return ObjectUtils.isNull(timestamp) ? null : Month.from(timestamp.toLocalDateTime());
+            };
+        } else if (MonthDay.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return ObjectUtils.isNull(timestamp) ? null : MonthDay.from(timestamp.toLocalDateTime());
+            };
+        } else if (Timestamp.class.equals(fieldType)) {
+            return ResultSet::getTimestamp;
+        } else if (Date.class.isAssignableFrom(fieldType)) {
+            return (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return ObjectUtils.isNull(timestamp) ? null : Date.from(timestamp.toInstant());
+            };
+        } else if (LocalDate.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                java.sql.Date date = resultSet.getDate(index);
+                return ObjectUtils.isNull(date) ? null : date.toLocalDate();
+            };
+        } else if (LocalTime.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                Time time = resultSet.getTime(index);
+                return ObjectUtils.isNull(time) ? null : time.toLocalTime();
+            };
+        } else if (LocalDateTime.class.equals(fieldType)) {
+            return (resultSet, index) -> {
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                return ObjectUtils.isNull(timestamp) ? null : timestamp.toLocalDateTime();
+            };
+        } else if (String.class.equals(fieldType)) {
+            return ResultSet::getString;
+        } else if (Blob.class.isAssignableFrom(fieldType)) {
+            return ResultSet::getBlob;
+        } else if (Clob.class.isAssignableFrom(fieldType)) {
+            return ResultSet::getClob;
+        }
+        // 未识别的类型
+        return (resultSet, index) -> resultSet.getObject(index, fieldType);
+    }
 }
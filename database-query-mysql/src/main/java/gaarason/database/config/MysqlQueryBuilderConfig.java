@@ -7,6 +7,10 @@
 import gaarason.database.query.grammars.MySqlGrammar;
 import gaarason.database.util.ObjectUtils;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+
 public class MysqlQueryBuilderConfig implements QueryBuilderConfig {
 
     @Override
@@ -24,4 +28,32 @@ public <T, K> Builder<?, T, K> newBuilder(GaarasonDataSource gaarasonDataSource,
         return new MySqlBuilder<T, K>().initBuilder(gaarasonDataSource, ObjectUtils.typeCast(model), new MySqlGrammar(model.getTableName()));
     }
 
+    /**
+     * mysql 驱动仅在 fetchSize 为 Integer.MIN_VALUE 时逐行读取 (未开启 useCursorFetch 的情况下)
+     * 否则会将全部结果集加载到内存
+     * @param fetchSize 期望的单次抓取行数
+     * @return Integer.MIN_VALUE
+     */
+    @Override
+    public int getCursorFetchSize(int fetchSize) {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * 连接开启了 useCursorFetch 时, 驱动使用服务端游标按 fetchSize 分批读取, 使用期望的 fetchSize
+     * 否则使用 Integer.MIN_VALUE 逐行读取
+     * @param connection 数据库连接
+     * @param fetchSize 期望的单次抓取行数
+     * @return 实际交给驱动的 fetchSize
+     * @throws SQLException 数据库异常
+     */
+    @Override
+    public int getCursorFetchSize(Connection connection, int fetchSize) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        if (fetchSize > 0 && url != null && url.toLowerCase(Locale.ENGLISH).contains("usecursorfetch=true")) {
+            return fetchSize;
+        }
+        return getCursorFetchSize(fetchSize);
+    }
+
 }
@@ -28,9 +28,14 @@
  */
 public abstract class AbstractBuilder<B extends Builder<B, T, K>, T, K> extends WhereBuilder<B, T, K> {
 
+    /**
+     * 聚合函数结果的别名, 固定的别名使得相同结构的查询生成完全相同的sql
+     */
+    protected static final String AGGREGATE_ALIAS = "gaarason_aggregate";
+
     @Override
     public <R> R aggregate(AggregatesType op, String column) {
-        String alias = StringUtils.getRandomString(6);
+        String alias = AGGREGATE_ALIAS;
         B builder = getSelf();
 
         // 存在 group
@@ -41,7 +46,7 @@ public <R> R aggregate(AggregatesType op, String column) {
                 selectRaw(groupInfo.getSqlString(), groupInfo.getParameters());
             }
 
-            builder = (B) model.withTrashed().from(alias + "sub", subBuilder -> getSelf());
+            builder = (B) model.withTrashed().from(alias + "_sub", subBuilder -> getSelf());
         }
         // 不存在 group, 但存在 select
         else if (!grammar.isEmpty(Grammar.SQLPartType.SELECT)) {
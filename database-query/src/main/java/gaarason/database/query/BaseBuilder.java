@@ -3,6 +3,7 @@
 import gaarason.database.appointment.AggregatesType;
 import gaarason.database.appointment.FinalVariable;
 import gaarason.database.config.ConversionConfig;
+import gaarason.database.connection.LocalThreadContext;
 import gaarason.database.contract.connection.GaarasonDataSource;
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Model;
@@ -321,7 +322,8 @@ public <V> V transaction(Supplier<V> closure, int maxAttempts) {
 
     @Override
     public <V> CompletableFuture<V> transactionAsync(Supplier<V> closure, int maxAttempts) {
-        return CompletableFuture.supplyAsync(() -> transaction(closure, maxAttempts), model.getExecutorService());
+        return CompletableFuture.supplyAsync(LocalThreadContext.wrap(model.getGaarasonDataSource(),
+            () -> transaction(closure, maxAttempts)), model.getExecutorService());
     }
 
     @Override
@@ -354,10 +356,10 @@ public void transaction(Runnable closure, int maxAttempts) {
 
     @Override
     public CompletableFuture<Boolean> transactionAsync(Runnable closure, int maxAttempts) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(LocalThreadContext.wrap(model.getGaarasonDataSource(), () -> {
             transaction(closure, maxAttempts);
             return true;
-        }, model.getExecutorService());
+        }), model.getExecutorService());
     }
 
     @Override
@@ -0,0 +1,123 @@
+package gaarason.database.query;
+
+import gaarason.database.appointment.NamedParameter;
+import gaarason.database.contract.builder.Native;
+import gaarason.database.contract.eloquent.CompiledQuery;
+import gaarason.database.contract.eloquent.Record;
+import gaarason.database.contract.eloquent.RecordList;
+import gaarason.database.exception.AbnormalParameterException;
+import gaarason.database.exception.EntityNotFoundException;
+import gaarason.database.exception.SQLRuntimeException;
+import gaarason.database.lang.Nullable;
+
+import java.util.*;
+
+/**
+ * 查询模板
+ * @param <T> 实体类
+ * @param <K> 主键类型
+ * @author xt
+ */
+public class CompiledQueryBean<T, K> implements CompiledQuery<T, K> {
+
+    /**
+     * 执行sql的查询构造器 (编译时的副本, 用于传递关联关系)
+     */
+    protected final Native<T, K> builder;
+
+    /**
+     * 带占位符的sql
+     */
+    protected final String sql;
+
+    /**
+     * 常量参数, 具名参数的位置为 null
+     */
+    protected final Object[] values;
+
+    /**
+     * 具名参数的参数名, 常量参数的位置为 null
+     */
+    protected final String[] names;
+
+    /**
+     * 具名参数的参数名列表
+     */
+    protected final List<String> parameterNames;
+
+    /**
+     * @param builder 执行sql的查询构造器
+     * @param sql 带占位符的sql
+     * @param parameters 参数列表, 可能包含具名参数
+     */
+    public CompiledQueryBean(Native<T, K> builder, String sql, Collection<Object> parameters) {
+        this.builder = builder;
+        this.sql = sql;
+        this.values = new Object[parameters.size()];
+        this.names = new String[parameters.size()];
+        List<String> nameList = new ArrayList<>();
+        int i = 0;
+        for (Object parameter : parameters) {
+            if (parameter instanceof NamedParameter) {
+                names[i] = ((NamedParameter) parameter).getName();
+                nameList.add(names[i]);
+            } else {
+                values[i] = parameter;
+            }
+            i++;
+        }
+        this.parameterNames = Collections.unmodifiableList(nameList);
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    @Override
+    public List<Object> bind(Map<String, ?> parameters) throws AbnormalParameterException {
+        List<Object> list = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            String name = names[i];
+            if (name == null) {
+                list.add(values[i]);
+            } else if (parameters.containsKey(name)) {
+                list.add(parameters.get(name));
+            } else {
+                throw new AbnormalParameterException("The named parameter [" + name + "] is not bound.");
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public RecordList<T, K> get(Map<String, ?> parameters) throws SQLRuntimeException {
+        return builder.queryList(sql, bind(parameters));
+    }
+
+    @Override
+    @Nullable
+    public Record<T, K> first(Map<String, ?> parameters) throws SQLRuntimeException {
+        return builder.query(sql, bind(parameters));
+    }
+
+    @Override
+    public Record<T, K> firstOrFail(Map<String, ?> parameters) throws SQLRuntimeException, EntityNotFoundException {
+        return builder.queryOrFail(sql, bind(parameters));
+    }
+
+    @Override
+    public int execute(Map<String, ?> parameters) throws SQLRuntimeException {
+        return builder.execute(sql, bind(parameters));
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledQuery{" + "sql='" + sql + '\'' + ", parameterNames=" + parameterNames + '}';
+    }
+}
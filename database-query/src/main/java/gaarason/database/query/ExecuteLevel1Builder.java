@@ -1,8 +1,13 @@
 package gaarason.database.query;
 
+import gaarason.database.appointment.SqlType;
 import gaarason.database.contract.eloquent.Builder;
+import gaarason.database.contract.eloquent.CompiledQuery;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
+import gaarason.database.contract.query.Grammar;
+import gaarason.database.exception.AbnormalParameterException;
+import gaarason.database.exception.ConfirmOperationException;
 import gaarason.database.exception.EntityNotFoundException;
 import gaarason.database.exception.SQLRuntimeException;
 import gaarason.database.lang.Nullable;
@@ -11,6 +16,7 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * 查询构造器(sql执行的部分)
@@ -82,6 +88,25 @@ public RecordList<T, K> queryList(String sql, @Nullable Collection<?> parameters
         return records;
     }
 
+    @Override
+    public Stream<Record<T, K>> queryCursor(String sql, @Nullable Collection<?> parameters, int fetchSize)
+        throws SQLRuntimeException {
+        assertWithoutRelation();
+        return model.nativeQueryCursor(sql, parameters, fetchSize);
+    }
+
+    /**
+     * 游标不支持关联关系
+     * 逐条转化时, 每条记录都会单独查询关联关系, 且查询时游标仍占用着连接, 应使用 dealChunk 分块处理
+     * @throws AbnormalParameterException 存在关联关系
+     */
+    protected void assertWithoutRelation() throws AbnormalParameterException {
+        if (!grammar.pullRelation().isEmpty()) {
+            throw new AbnormalParameterException(
+                "Relationships (with) are not supported on cursors, use dealChunk to load them in batches.");
+        }
+    }
+
     @Override
     public int execute(String sql, @Nullable Collection<?> parameters) throws SQLRuntimeException {
         return model.nativeExecute(sql, parameters);
@@ -98,4 +123,15 @@ public K executeGetId(String sql, @Nullable Collection<?> parameters) throws SQL
         return model.nativeExecuteGetId(sql, parameters);
     }
 
+    @Override
+    public CompiledQuery<T, K> compile(SqlType sqlType) throws ConfirmOperationException {
+        if ((sqlType == SqlType.UPDATE || sqlType == SqlType.DELETE) && grammar.isEmpty(Grammar.SQLPartType.WHERE)) {
+            throw new ConfirmOperationException(
+                "You made a risky operation without where conditions, use where(1) for sure");
+        }
+        // 副本用于执行, 编译后对当前查询构造器的修改不影响模板
+        B builder = clone();
+        Grammar.SQLPartInfo sqlPartInfo = builder.getGrammar().generateSql(sqlType);
+        return new CompiledQueryBean<>(builder, sqlPartInfo.getSqlString(), sqlPartInfo.getParameters());
+    }
 }
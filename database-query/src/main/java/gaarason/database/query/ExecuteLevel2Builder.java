@@ -5,15 +5,30 @@
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.connection.LocalThreadContext;
+import gaarason.database.connection.sharding.ShardingHint;
 import gaarason.database.contract.query.Grammar;
+import gaarason.database.contract.support.QueryCache;
 import gaarason.database.exception.ConfirmOperationException;
 import gaarason.database.exception.EntityNotFoundException;
+import gaarason.database.exception.InternalConcurrentException;
 import gaarason.database.exception.SQLRuntimeException;
 import gaarason.database.lang.Nullable;
+import gaarason.database.support.RecordFactory;
+import gaarason.database.util.ObjectUtils;
 
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * 查询构造器(sql执行的部分)
@@ -23,6 +38,36 @@
  */
 abstract class ExecuteLevel2Builder<B extends Builder<B, T, K>, T, K>  extends ExecuteLevel1Builder<B, T, K> {
 
+    /**
+     * 批量插入时拆分出的语句块, 为 null 时表示使用 grammar 生成单条语句
+     */
+    @Nullable
+    protected List<InsertChunk> insertChunks;
+
+    /**
+     * 存在这些片段时, in 列表不拆分查询
+     */
+    protected static final Grammar.SQLPartType[] CHUNK_EXCLUSIVE_SQL_PART_TYPES = {Grammar.SQLPartType.LIMIT,
+        Grammar.SQLPartType.GROUP, Grammar.SQLPartType.HAVING, Grammar.SQLPartType.ORDER, Grammar.SQLPartType.UNION,
+        Grammar.SQLPartType.LOCK, Grammar.SQLPartType.LAST};
+
+    /**
+     * 存在这些片段时, 查询结果不缓存
+     */
+    protected static final Grammar.SQLPartType[] CACHE_EXCLUSIVE_SQL_PART_TYPES = {Grammar.SQLPartType.JOIN,
+        Grammar.SQLPartType.UNION, Grammar.SQLPartType.FROM, Grammar.SQLPartType.LOCK};
+
+    /**
+     * 这些片段中存在子查询时, 查询结果不缓存
+     */
+    protected static final Grammar.SQLPartType[] CACHE_SUB_QUERY_SQL_PART_TYPES = {Grammar.SQLPartType.SELECT,
+        Grammar.SQLPartType.WHERE, Grammar.SQLPartType.HAVING, Grammar.SQLPartType.ORDER, Grammar.SQLPartType.LAST};
+
+    /**
+     * 子查询, 即括号后紧跟的 select 关键字, 不匹配 selected_at 之类的列名
+     */
+    protected static final Pattern SUB_QUERY_PATTERN = Pattern.compile("\\(\\s*select\\b", Pattern.CASE_INSENSITIVE);
+
     /**
      * sql生成
      * @param sqlType sql 类型
@@ -49,10 +94,200 @@ protected int updateSql(SqlType sqlType) throws SQLRuntimeException {
         return execute(sql, parameters);
     }
 
+    /**
+     * 执行插入sql, 返回收影响的行数
+     * @param sqlType sql 类型
+     * @return 影响的行数
+     * @throws SQLRuntimeException 数据库异常
+     */
+    protected int insertSql(SqlType sqlType) throws SQLRuntimeException {
+        if (insertChunks == null) {
+            return updateSql(sqlType);
+        }
+        int rows = 0;
+        for (Integer chunkRows : executeInsertChunks(sqlType, model::nativeExecuteBatch, this::execute)) {
+            rows += chunkRows;
+        }
+        return rows;
+    }
+
+    /**
+     * 分块执行插入sql, 返回自增主键
+     * 每个语句块都返回了与行数相同的主键时, 主键按照数据传入的顺序排列, 否则按照执行的顺序排列
+     * @param sqlType sql 类型
+     * @return 自增主键列表
+     * @throws SQLRuntimeException 数据库异常
+     */
+    protected List<K> insertChunksGetIds(SqlType sqlType) throws SQLRuntimeException {
+        List<InsertChunk> chunks = ObjectUtils.typeCast(insertChunks);
+        List<List<K>> idsList = executeInsertChunks(sqlType, model::nativeExecuteBatchGetIds, this::executeGetIds);
+        int total = 0;
+        boolean complete = true;
+        for (int i = 0; i < chunks.size(); i++) {
+            total += idsList.get(i).size();
+            complete = complete && idsList.get(i).size() == chunks.get(i).indexes.size();
+        }
+        List<K> ids = new ArrayList<>(total);
+        if (!complete) {
+            idsList.forEach(ids::addAll);
+            return ids;
+        }
+        // 还原为数据传入的顺序
+        Object[] sorted = new Object[total];
+        for (int i = 0; i < chunks.size(); i++) {
+            List<Integer> indexes = chunks.get(i).indexes;
+            List<K> chunkIds = idsList.get(i);
+            for (int j = 0; j < indexes.size(); j++) {
+                sorted[indexes.get(j)] = chunkIds.get(j);
+            }
+        }
+        for (Object id : sorted) {
+            ids.add(ObjectUtils.typeCast(id));
+        }
+        return ids;
+    }
+
+    /**
+     * 分块执行插入sql
+     * 在当前线程中生成全部的sql, 再根据配置, 在同一事务中顺序执行, 或者在异步线程池中并行执行
+     * @param sqlType sql 类型
+     * @param batchAction 使用 addBatch/executeBatch 时的执行方式
+     * @param action 执行方式
+     * @param <V> 单个语句块的执行结果
+     * @return 每个语句块的执行结果, 与语句块的顺序一致
+     */
+    protected <V> List<V> executeInsertChunks(SqlType sqlType,
+        BiFunction<String, List<Collection<Object>>, V> batchAction, BiFunction<String, Collection<Object>, V> action) {
+        GaarasonDatabaseProperties.BatchInsert batchInsert = container.getBean(GaarasonDatabaseProperties.class)
+            .getBatchInsert();
+        List<InsertChunk> chunks = ObjectUtils.typeCast(insertChunks);
+        // 末端片段的参数 (eg: lastRaw)
+        Collection<Object> lastParameters = grammar.get(Grammar.SQLPartType.LAST).getParameters();
+
+        List<Supplier<V>> tasks = new ArrayList<>(chunks.size());
+        for (InsertChunk chunk : chunks) {
+            grammar.clear(Grammar.SQLPartType.COLUMN);
+            grammar.clear(Grammar.SQLPartType.VALUE);
+            column(chunk.columns);
+            if (batchInsert.isJdbcBatch()) {
+                // 单行的语句, 每行的参数依次绑定
+                value(chunk.rows.get(0));
+                String sql = toSQLPartInfo(sqlType).getSqlString();
+                List<Collection<Object>> parametersList = new ArrayList<>(chunk.rows.size());
+                for (List<Object> row : chunk.rows) {
+                    List<Object> parameters = new ArrayList<>(row.size() + lastParameters.size());
+                    parameters.addAll(row);
+                    parameters.addAll(lastParameters);
+                    parametersList.add(parameters);
+                }
+                tasks.add(() -> batchAction.apply(sql, parametersList));
+            } else {
+                for (List<Object> row : chunk.rows) {
+                    value(row);
+                }
+                Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(sqlType);
+                tasks.add(() -> action.apply(sqlPartInfo.getSqlString(), sqlPartInfo.getParameters()));
+            }
+        }
+
+        List<V> results = new ArrayList<>(tasks.size());
+        if (tasks.size() == 1) {
+            results.add(tasks.get(0).get());
+        }
+        // 并行执行
+        else if (batchInsert.isParallel() && !gaarasonDataSource.isLocalThreadInTransaction()) {
+            results.addAll(supplyInParallel(tasks, batchInsert.getParallelism()));
+        }
+        // 同一事务中顺序执行
+        else {
+            transaction(() -> {
+                results.clear();
+                for (Supplier<V> task : tasks) {
+                    results.add(task.get());
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * 在异步线程池中并行执行, 执行中的任务数量不超过 parallelism
+     * 线程池拒绝时在当前线程中执行; 出现异常后不再提交, 等待已提交的任务完成后抛出第一个异常
+     * 执行线程沿用当前线程的分片提示与读己之写的状态
+     * @param tasks 任务列表
+     * @param parallelism 执行中的任务数量上限
+     * @param <V> 执行结果
+     * @return 执行结果, 与任务的顺序一致
+     */
+    protected <V> List<V> supplyInParallel(List<Supplier<V>> tasks, int parallelism) {
+        Executor executor = model.getExecutorService();
+        int permits = Math.max(1, parallelism);
+        Semaphore semaphore = new Semaphore(permits);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<CompletableFuture<V>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Supplier<V> task : tasks) {
+                // 等待空位
+                semaphore.acquire();
+                if (stop.get()) {
+                    semaphore.release();
+                    break;
+                }
+                CompletableFuture<V> future;
+                try {
+                    future = CompletableFuture.supplyAsync(
+                        LocalThreadContext.wrap(model.getGaarasonDataSource(), task), executor);
+                } catch (RejectedExecutionException e) {
+                    // 线程池已满, 在当前线程中执行
+                    future = new CompletableFuture<>();
+                    try {
+                        future.complete(task.get());
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+                futures.add(future.whenComplete((result, e) -> {
+                    if (e != null) {
+                        stop.set(true);
+                    }
+                    semaphore.release();
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalConcurrentException("Interrupted while waiting for parallel execution.", e);
+        } finally {
+            // 等待所有执行完成
+            semaphore.acquireUninterruptibly(permits);
+        }
+        List<V> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<V> future : futures) {
+            results.add(joinFuture(future));
+        }
+        return results;
+    }
+
+    /**
+     * 等待语句块执行完成
+     * @param future 执行任务
+     * @param <V> 执行结果
+     * @return 执行结果
+     */
+    protected static <V> V joinFuture(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     @Override
     public int replace() throws SQLRuntimeException {
         modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryCreating, this);
-        int rows = updateSql(SqlType.REPLACE);
+        int rows = insertSql(SqlType.REPLACE);
         modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryCreated, this, rows);
         return rows;
     }
@@ -60,7 +295,7 @@ public int replace() throws SQLRuntimeException {
     @Override
     public int insert() throws SQLRuntimeException {
         modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryCreating, this);
-        int rows = updateSql(SqlType.INSERT);
+        int rows = insertSql(SqlType.INSERT);
         modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryCreated, this, rows);
         return rows;
     }
@@ -88,7 +323,7 @@ public int upsert(Collection<String> columns) throws SQLRuntimeException {
         lastRaw(sqlBuilder.toString());
 
         modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryCreating, this);
-        int rows = updateSql(SqlType.INSERT);
+        int rows = insertSql(SqlType.INSERT);
         modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryCreated, this, rows);
         return rows;
     }
@@ -130,8 +365,14 @@ public int forceDelete() throws SQLRuntimeException {
     @Nullable
     public K insertGetId() throws SQLRuntimeException {
         modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryCreating, this);
-        Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.INSERT);
-        K id = executeGetId(sqlPartInfo.getSqlString(), sqlPartInfo.getParameters());
+        K id;
+        if (insertChunks != null) {
+            List<K> ids = insertChunksGetIds(SqlType.INSERT);
+            id = ids.isEmpty() ? null : ids.get(0);
+        } else {
+            Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.INSERT);
+            id = executeGetId(sqlPartInfo.getSqlString(), sqlPartInfo.getParameters());
+        }
         modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryCreated, this, id);
         return id;
     }
@@ -139,8 +380,13 @@ public K insertGetId() throws SQLRuntimeException {
     @Override
     public List<K> insertGetIds() throws SQLRuntimeException {
         modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryCreating, this);
-        Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.INSERT);
-        List<K> ids = executeGetIds(sqlPartInfo.getSqlString(), sqlPartInfo.getParameters());
+        List<K> ids;
+        if (insertChunks != null) {
+            ids = insertChunksGetIds(SqlType.INSERT);
+        } else {
+            Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.INSERT);
+            ids = executeGetIds(sqlPartInfo.getSqlString(), sqlPartInfo.getParameters());
+        }
         modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryCreated, this, ids);
         return ids;
     }
@@ -152,23 +398,330 @@ public Record<T, K> firstOrFail() throws SQLRuntimeException, EntityNotFoundExce
         Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.SELECT);
         String sql = sqlPartInfo.getSqlString();
         Collection<Object> parameterList = sqlPartInfo.getParameters();
-        Record<T, K> record = queryOrFail(sql, parameterList);
+        RecordList<T, K> records = nativeQueryListWithCache(sql, parameterList);
+        if (records.isEmpty()) {
+            throw new EntityNotFoundException(sql);
+        }
+        Record<T, K> record = records.get(0);
+        with(record);
         modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryRetrieved, this, record);
         return record;
     }
 
     @Override
     public RecordList<T, K> get() throws SQLRuntimeException {
+        // 事件
+        modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryRetrieving, this);
+        RecordList<T, K> records;
+        Grammar.WhereInInfo whereInInfo = chunkableWhereIn();
+        if (whereInInfo != null) {
+            records = queryListInChunks(whereInInfo);
+        } else {
+            // sql组装执行
+            Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.SELECT);
+            String sql = sqlPartInfo.getSqlString();
+            Collection<Object> parameterList = sqlPartInfo.getParameters();
+            records = nativeQueryListWithCache(sql, parameterList);
+            with(records);
+        }
+        // 事件
+        modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryRetrieved, this, records);
+        return records;
+    }
+
+    /**
+     * 执行查询, 模型开启了查询结果缓存时, 优先使用缓存
+     * 缓存中仅保存元数据的快照, 每次命中时生成全新的结果集, 关联关系不缓存
+     * @param sql 查询语句
+     * @param parameters 参数绑定列表
+     * @return 结果集 (未处理关联关系)
+     * @throws SQLRuntimeException 数据库异常
+     */
+    protected RecordList<T, K> nativeQueryListWithCache(String sql, @Nullable Collection<Object> parameters)
+        throws SQLRuntimeException {
+        QueryCache queryCache = cacheableQueryCache();
+        if (queryCache == null) {
+            return model.nativeQueryList(sql, parameters);
+        }
+        // 标签区分数据源与表
+        String tag = modelMember.getQueryCacheTag();
+        String key = queryCacheKey(tag, sql, parameters);
+        Object value = queryCache.get(key);
+        if (value != null) {
+            List<Map<String, Object>> metadataList = ObjectUtils.typeCast(value);
+            return RecordFactory.newRecordList(model, metadataList, sql);
+        }
+        // 查询前获取版本, 查询期间发生失效时不写入
+        Map<String, Long> tagGenerations = Collections.singletonMap(tag, queryCache.generation(tag));
+        RecordList<T, K> records = model.nativeQueryList(sql, parameters);
+        // 元数据快照
+        ArrayList<Map<String, Object>> metadataList = new ArrayList<>(records.size());
+        long weight = sql.length() * 2L;
+        for (Record<T, K> record : records) {
+            Map<String, Object> metadata = new LinkedHashMap<>(record.getMetadataMap());
+            for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+                weight += entry.getKey().length() * 2L + estimateBytes(entry.getValue());
+            }
+            metadataList.add(metadata);
+        }
+        queryCache.put(key, metadataList, weight, tagGenerations);
+        return records;
+    }
+
+    /**
+     * 当前查询可以使用的查询结果缓存
+     * 结果仅与当前模型的表有关时才缓存, 因此存在 join/union/from/lock/子查询时不缓存; 事务中不缓存
+     * @return 查询结果缓存, 为 null 时不使用缓存
+     */
+    @Nullable
+    protected QueryCache cacheableQueryCache() {
+        QueryCache queryCache = model.getQueryCache();
+        if (queryCache == null || gaarasonDataSource.isLocalThreadInTransaction()) {
+            return null;
+        }
+        for (Grammar.SQLPartType sqlPartType : CACHE_EXCLUSIVE_SQL_PART_TYPES) {
+            if (!grammar.isEmpty(sqlPartType)) {
+                return null;
+            }
+        }
+        for (Grammar.SQLPartType sqlPartType : CACHE_SUB_QUERY_SQL_PART_TYPES) {
+            if (SUB_QUERY_PATTERN.matcher(grammar.get(sqlPartType).getSqlString()).find()) {
+                return null;
+            }
+        }
+        return queryCache;
+    }
+
+    /**
+     * 查询结果缓存的键
+     * 由标签(数据源与表), 分片提示, sql, 以及参数的类型与值组成
+     * @param tag 标签
+     * @param sql 查询语句
+     * @param parameters 参数绑定列表
+     * @return 键
+     */
+    protected static String queryCacheKey(String tag, String sql, @Nullable Collection<Object> parameters) {
+        StringBuilder key = new StringBuilder(tag.length() + sql.length() + 64);
+        key.append(tag).append('\u0001');
+        String shardName = ShardingHint.get();
+        if (shardName != null) {
+            key.append(shardName);
+        }
+        // 分表已体现在 sql 中
+        key.append('\u0001').append(sql);
+        if (parameters != null) {
+            for (Object parameter : parameters) {
+                key.append('\u0001');
+                if (parameter == null) {
+                    key.append("null");
+                } else if (parameter instanceof byte[]) {
+                    key.append("byte[]:").append(Arrays.toString((byte[]) parameter));
+                } else {
+                    key.append(parameter.getClass().getName()).append(':').append(parameter);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 估算参数的字节数
+     * @param value 参数
+     * @return 字节数
+     */
+    protected static long estimateBytes(@Nullable Object value) {
+        if (value instanceof CharSequence) {
+            // utf8mb4 最多4个字节
+            return ((CharSequence) value).length() * 4L;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        return 8;
+    }
+
+    /**
+     * 可以拆分为多条语句查询的 in 列表
+     * 拆分后各语句的结果互不重叠, 因此仅在没有 limit/group/having/order/union/lock/lastRaw/聚合函数/distinct,
+     * 且 in 列表之后仅追加了条件时拆分
+     * @return in 列表信息
+     */
+    @Nullable
+    protected Grammar.WhereInInfo chunkableWhereIn() {
+        Grammar.WhereInInfo whereInInfo = grammar.pullWhereIn();
+        if (whereInInfo == null) {
+            return null;
+        }
+        for (Grammar.SQLPartType sqlPartType : CHUNK_EXCLUSIVE_SQL_PART_TYPES) {
+            if (!grammar.isEmpty(sqlPartType)) {
+                return null;
+            }
+        }
+        // 聚合函数与 distinct 的结果不能直接合并
+        String selectSql = grammar.get(Grammar.SQLPartType.SELECT).getSqlString().toLowerCase(Locale.ROOT);
+        if (selectSql.contains("(") || selectSql.contains("distinct")) {
+            return null;
+        }
+        String whereSql = grammar.get(Grammar.SQLPartType.WHERE).getSqlString();
+        // 顶层的 or 会使每条语句都命中 or 的分支, 合并后出现重复的数据
+        if (!whereSql.startsWith(whereInInfo.getAfter().getSqlString()) || containsTopLevelOr(whereSql)) {
+            return null;
+        }
+        return whereInInfo;
+    }
+
+    /**
+     * 条件中是否存在顶层(不在括号与引号中)的 or
+     * @param whereSql 条件
+     * @return 是否存在
+     */
+    protected static boolean containsTopLevelOr(String whereSql) {
+        int depth = 0;
+        char quote = 0;
+        int length = whereSql.length();
+        for (int i = 0; i < length; i++) {
+            char c = whereSql.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0) {
+                if (c == '|' && i + 1 < length && whereSql.charAt(i + 1) == '|') {
+                    return true;
+                }
+                if ((c == 'o' || c == 'O') && i + 1 < length && Character.toLowerCase(whereSql.charAt(i + 1)) == 'r' &&
+                    (i == 0 || !isWordChar(whereSql.charAt(i - 1))) &&
+                    (i + 2 == length || !isWordChar(whereSql.charAt(i + 2)))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否为标识符中的字符
+     * @param c 字符
+     * @return 是否
+     */
+    protected static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * 将 in 列表拆分为多条语句查询, 并合并结果
+     * 根据配置, 在异步线程池中并行执行, 或者在当前线程中顺序执行 (事务中总是顺序执行)
+     * @param whereInInfo in 列表信息
+     * @return 结果集
+     * @throws SQLRuntimeException 数据库异常
+     */
+    protected RecordList<T, K> queryListInChunks(Grammar.WhereInInfo whereInInfo) throws SQLRuntimeException {
+        GaarasonDatabaseProperties.WhereIn whereIn = container.getBean(GaarasonDatabaseProperties.class)
+            .getWhereIn();
+        // in 列表之后追加的条件
+        Grammar.SQLPartInfo where = grammar.get(Grammar.SQLPartType.WHERE);
+        String suffixSql = where.getSqlString().substring(whereInInfo.getAfter().getSqlString().length());
+        List<Object> whereParameters = parametersOf(where);
+        List<Object> suffixParameters = new ArrayList<>(
+            whereParameters.subList(parametersOf(whereInInfo.getAfter()).size(), whereParameters.size()));
+        Grammar.SQLPartInfo before = whereInInfo.getBefore();
+
+        List<Object> values = whereInInfo.getValues();
+        List<Supplier<RecordList<T, K>>> tasks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += whereIn.getChunkSize()) {
+            B builder = clone();
+            Grammar chunkGrammar = builder.getGrammar();
+            chunkGrammar.clear(Grammar.SQLPartType.WHERE);
+            if (!ObjectUtils.isEmpty(before.getSqlString())) {
+                chunkGrammar.set(Grammar.SQLPartType.WHERE, before.getSqlString(), parametersOf(before));
+            }
+            builder.whereIn(whereInInfo.getColumn(),
+                values.subList(i, Math.min(values.size(), i + whereIn.getChunkSize())));
+            if (!suffixSql.isEmpty()) {
+                chunkGrammar.addSmartSeparator(Grammar.SQLPartType.WHERE, suffixSql, new ArrayList<>(suffixParameters),
+                    "");
+            }
+            Grammar.SQLPartInfo sqlPartInfo = chunkGrammar.generateSql(SqlType.SELECT);
+            tasks.add(() -> model.nativeQueryList(sqlPartInfo.getSqlString(), sqlPartInfo.getParameters()));
+        }
+
+        List<RecordList<T, K>> recordsList;
+        // 并行执行
+        if (whereIn.isParallel() && !gaarasonDataSource.isLocalThreadInTransaction()) {
+            recordsList = supplyInParallel(tasks, whereIn.getParallelism());
+        }
+        // 顺序执行
+        else {
+            recordsList = new ArrayList<>(tasks.size());
+            for (Supplier<RecordList<T, K>> task : tasks) {
+                recordsList.add(task.get());
+            }
+        }
+
+        // 合并后统一处理关联关系
+        RecordList<T, K> records = recordsList.get(0);
+        for (int i = 1; i < recordsList.size(); i++) {
+            records.addAll(recordsList.get(i));
+        }
+        with(records);
+        return records;
+    }
+
+    /**
+     * 片段的参数列表
+     * @param sqlPartInfo SQL片段信息
+     * @return 参数列表
+     */
+    protected static List<Object> parametersOf(Grammar.SQLPartInfo sqlPartInfo) {
+        Collection<Object> parameters = sqlPartInfo.getParameters();
+        return parameters == null ? new ArrayList<>() : new ArrayList<>(parameters);
+    }
+
+    @Override
+    public Stream<Record<T, K>> cursor(int fetchSize) throws SQLRuntimeException {
+        assertWithoutRelation();
         // 事件
         modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryRetrieving, this);
         // sql组装执行
         Grammar.SQLPartInfo sqlPartInfo = toSQLPartInfo(SqlType.SELECT);
         String sql = sqlPartInfo.getSqlString();
         Collection<Object> parameterList = sqlPartInfo.getParameters();
-        RecordList<T, K> records = queryList(sql, parameterList);
-        // 事件
-        modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryRetrieved, this, records);
-        return records;
+        // 事件, 逐条触发
+        return queryCursor(sql, parameterList, fetchSize).map(record -> {
+            modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryRetrieved, this, record);
+            return record;
+        });
     }
 
+    /**
+     * 批量插入的语句块, 块中的每行数据都具有相同的列
+     */
+    protected static class InsertChunk {
+
+        /**
+         * 列名
+         */
+        protected final List<String> columns;
+
+        /**
+         * 每行的值, 与列名顺序一致
+         */
+        protected final List<List<Object>> rows = new ArrayList<>();
+
+        /**
+         * 每行数据在传入时的索引
+         */
+        protected final List<Integer> indexes = new ArrayList<>();
+
+        protected InsertChunk(List<String> columns) {
+            this.columns = columns;
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package gaarason.database.query;
 
 import gaarason.database.appointment.*;
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.connection.LocalThreadContext;
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
@@ -10,14 +12,27 @@
 import gaarason.database.exception.AbnormalParameterException;
 import gaarason.database.exception.EntityNotFoundException;
 import gaarason.database.exception.InsertNotSuccessException;
+import gaarason.database.exception.InternalConcurrentException;
+import gaarason.database.exception.PrimaryKeyNotFoundException;
 import gaarason.database.exception.SQLRuntimeException;
 import gaarason.database.lang.Nullable;
 import gaarason.database.support.EntityMember;
+import gaarason.database.support.FieldMember;
+import gaarason.database.support.PrimaryKeyMember;
 import gaarason.database.support.RecordFactory;
 import gaarason.database.util.FormatUtils;
 import gaarason.database.util.ObjectUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 中间查询构造器
@@ -79,42 +94,242 @@ public RecordList<T, K> queryList(String sql, Object... parameters) throws SQLRu
         return queryList(sql, Arrays.asList(parameters));
     }
 
+    @Override
+    public Stream<Record<T, K>> cursor() throws SQLRuntimeException {
+        return cursor(FinalVariable.DEFAULT_CURSOR_FETCH_SIZE);
+    }
+
     @Override
     public void dealChunk(int num, ChunkFunctionalInterface<T, K> chunkFunctionalInterface) throws SQLRuntimeException {
-        int currentPage = 1;
-        boolean flag;
-        do {
-            // 复制查询构造器
-            Builder<B, T, K> cloneBuilder = clone();
-            // 偏移分页查询
-            Paginate<Record<T, K>> paginate = cloneBuilder.paginate(records -> records, currentPage, num, false);
-            // 查询结果集集合
-            RecordList<T, K> records = ObjectUtils.typeCast(paginate.getItemList());
-            // 是否继续
-            flag = !records.isEmpty() && chunkFunctionalInterface.execute(records) && (records.size() == num);
-            // 页码增加
-            currentPage++;
-        } while (flag);
+        dealChunk(num, false, chunkFunctionalInterface);
+    }
+
+    @Override
+    public void dealChunk(int num, boolean prefetch, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
+        throws SQLRuntimeException {
+        dealChunk(num, prefetch, chunkFunctionalInterface, chunkQuery(num));
     }
 
     @Override
     public void dealChunk(int num, String column, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
         throws SQLRuntimeException {
-        boolean flag;
-        Object columnValue = null;
-        do {
-            // 复制查询构造器
-            Builder<B, T, K> cloneBuilder = clone();
-            // 游标分页查询
-            CursorPaginate<Record<T, K>> cursorPaginate = cloneBuilder.cursorPaginate(records -> records,
-                    column, null, columnValue, OrderBy.ASC, PageNavigation.NEXT, num, false);
+        dealChunk(num, column, false, chunkFunctionalInterface);
+    }
+
+    @Override
+    public void dealChunk(int num, String column, boolean prefetch,
+        ChunkFunctionalInterface<T, K> chunkFunctionalInterface) throws SQLRuntimeException {
+        dealChunk(num, prefetch, chunkFunctionalInterface, chunkQuery(num, column));
+    }
+
+    @Override
+    public void dealChunkParallel(int num, int parallelism, ChunkFunctionalInterface<T, K> chunkFunctionalInterface)
+        throws SQLRuntimeException {
+        dealChunkParallel(num, parallelism, model.getExecutorService(), chunkFunctionalInterface);
+    }
+
+    @Override
+    public void dealChunkParallel(int num, int parallelism, Executor executor,
+        ChunkFunctionalInterface<T, K> chunkFunctionalInterface) throws SQLRuntimeException {
+        if (parallelism < 1) {
+            throw new AbnormalParameterException("The parallelism should not be less than 1.");
+        }
+        // 事务不可跨线程, 事务中顺序处理
+        if (model.getGaarasonDataSource().isLocalThreadInTransaction()) {
+            dealChunk(num, false, chunkFunctionalInterface);
+            return;
+        }
+        Function<Object, CursorPaginate<Record<T, K>>> chunkQuery = chunkQuery(num);
+        // 处理中的块的数量上限
+        Semaphore semaphore = new Semaphore(parallelism);
+        // 是否停止提交
+        AtomicBoolean stop = new AtomicBoolean();
+        // 第一个异常
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            Object index = null;
+            while (true) {
+                CursorPaginate<Record<T, K>> current = chunkQuery.apply(index);
+                RecordList<T, K> records = ObjectUtils.typeCast(current.getItemList());
+                if (records.isEmpty()) {
+                    break;
+                }
+                // 等待空位
+                semaphore.acquire();
+                if (stop.get()) {
+                    semaphore.release();
+                    break;
+                }
+                CompletableFuture<Boolean> future;
+                try {
+                    future = CompletableFuture.supplyAsync(LocalThreadContext.wrap(model.getGaarasonDataSource(),
+                        () -> chunkFunctionalInterface.execute(records)), executor);
+                } catch (RejectedExecutionException e) {
+                    // 线程池已满, 在当前线程中处理, 以此减缓提交
+                    future = new CompletableFuture<>();
+                    try {
+                        future.complete(chunkFunctionalInterface.execute(records));
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+                future.whenComplete((result, e) -> {
+                    if (e != null) {
+                        failure.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+                        stop.set(true);
+                    } else if (!Boolean.TRUE.equals(result)) {
+                        stop.set(true);
+                    }
+                    semaphore.release();
+                });
+                if (records.size() != num || stop.get()) {
+                    break;
+                }
+                index = current.getNextIndex();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop.set(true);
+            throw new InternalConcurrentException("Interrupted while waiting for chunk processing.", e);
+        } finally {
+            // 等待所有处理完成
+            semaphore.acquireUninterruptibly(parallelism);
+        }
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new InternalConcurrentException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 分块查询
+     * 存在主键时使用主键索引分页, 否则使用偏移分页
+     * @param num 单次获取的数据量
+     * @return 根据游标(页码或者索引值)查询一块数据
+     */
+    protected Function<Object, CursorPaginate<Record<T, K>>> chunkQuery(int num) {
+        // 优先使用主键索引分页
+        String keysetColumn = chunkKeysetColumn();
+        if (keysetColumn != null) {
+            return chunkQuery(num, keysetColumn);
+        }
+        return index -> {
+            int currentPage = index == null ? 1 : (int) index;
+            // 复制查询构造器, 偏移分页查询
+            Paginate<Record<T, K>> paginate = clone().paginate(records -> records, currentPage, num, false);
+            return new CursorPaginate<>(paginate.getItemList(), currentPage, currentPage + 1, num, null);
+        };
+    }
+
+    /**
+     * 分块查询, 使用索引分页
+     * @param num 单次获取的数据量
+     * @param column 分页字段
+     * @return 根据游标(索引值)查询一块数据
+     */
+    protected Function<Object, CursorPaginate<Record<T, K>>> chunkQuery(int num, String column) {
+        // 复制查询构造器, 游标分页查询
+        return index -> clone().cursorPaginate(records -> records, column, null, index, OrderBy.ASC,
+            PageNavigation.NEXT, num, false);
+    }
+
+    /**
+     * 分块处理
+     * @param num 单次获取的数据量
+     * @param prefetch 是否在处理当前块的同时, 异步查询下一块
+     * @param chunkFunctionalInterface 对单次获取的数据量的处理
+     * @param chunkQuery 根据游标(页码或者索引值)查询一块数据, 首次查询时游标为null
+     */
+    protected void dealChunk(int num, boolean prefetch, ChunkFunctionalInterface<T, K> chunkFunctionalInterface,
+        Function<Object, CursorPaginate<Record<T, K>>> chunkQuery) {
+        // 事务不可跨线程, 事务中不预取
+        boolean asyncPrefetch = prefetch && !model.getGaarasonDataSource().isLocalThreadInTransaction();
+        CursorPaginate<Record<T, K>> current = chunkQuery.apply(null);
+        while (true) {
             // 查询结果集集合
-            RecordList<T, K> records = ObjectUtils.typeCast(cursorPaginate.getItemList());
+            RecordList<T, K> records = ObjectUtils.typeCast(current.getItemList());
+            if (records.isEmpty()) {
+                return;
+            }
+            boolean hasNext = records.size() == num;
+            Object nextIndex = current.getNextIndex();
+            // 预取下一块
+            CompletableFuture<CursorPaginate<Record<T, K>>> nextFuture = hasNext && asyncPrefetch ?
+                prefetchChunk(chunkQuery, nextIndex) : null;
             // 是否继续
-            flag = !records.isEmpty() && chunkFunctionalInterface.execute(records) && (records.size() == num);
-            // 游标移动
-            columnValue = cursorPaginate.getNextIndex();
-        } while (flag);
+            boolean proceed;
+            try {
+                proceed = chunkFunctionalInterface.execute(records);
+            } catch (Throwable e) {
+                if (nextFuture != null) {
+                    nextFuture.cancel(false);
+                }
+                throw e;
+            }
+            if (!proceed || !hasNext) {
+                if (nextFuture != null) {
+                    nextFuture.cancel(false);
+                }
+                return;
+            }
+            current = nextFuture == null ? chunkQuery.apply(nextIndex) : joinChunk(nextFuture);
+        }
+    }
+
+    /**
+     * 异步预取下一块
+     * @param chunkQuery 根据游标(页码或者索引值)查询一块数据
+     * @param nextIndex 下一块的游标
+     * @return 预取任务, 线程池拒绝时返回 null, 由当前线程在处理完当前块后查询
+     */
+    @Nullable
+    protected CompletableFuture<CursorPaginate<Record<T, K>>> prefetchChunk(
+        Function<Object, CursorPaginate<Record<T, K>>> chunkQuery, @Nullable Object nextIndex) {
+        try {
+            return CompletableFuture.supplyAsync(LocalThreadContext.wrap(model.getGaarasonDataSource(),
+                () -> chunkQuery.apply(nextIndex)), model.getExecutorService());
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 分块处理时使用的索引列
+     * 存在主键, 且不存在 order/group/join/union 时, 使用主键
+     * @return 索引列, null 表示使用偏移分页
+     */
+    @Nullable
+    protected String chunkKeysetColumn() {
+        PrimaryKeyMember<K> primaryKeyMember = modelShadowProvider.get(model).getEntityMember().getPrimaryKeyMember();
+        if (primaryKeyMember == null) {
+            return null;
+        }
+        Grammar grammar = getGrammar();
+        if (!grammar.isEmpty(Grammar.SQLPartType.ORDER) || !grammar.isEmpty(Grammar.SQLPartType.GROUP) ||
+            !grammar.isEmpty(Grammar.SQLPartType.JOIN) || !grammar.isEmpty(Grammar.SQLPartType.UNION)) {
+            return null;
+        }
+        return primaryKeyMember.getFieldMember().getColumnName();
+    }
+
+    /**
+     * 等待预取的数据块
+     * @param future 预取任务
+     * @return 数据块
+     */
+    protected CursorPaginate<Record<T, K>> joinChunk(CompletableFuture<CursorPaginate<Record<T, K>>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -198,17 +413,133 @@ public <V> CursorPaginate<V> cursorPaginate(RecordListConversionFunctionalInterf
         return new CursorPaginate<>(func.execute(records), previousIndexNew, nextIndexNew, perPage, total);
     }
 
+    @Override
+    public int updateMany(Collection<?> entities) throws SQLRuntimeException, PrimaryKeyNotFoundException {
+        if (ObjectUtils.isEmpty(entities)) {
+            return 0;
+        }
+        EntityMember<Object, Object> entityMember = modelShadowProvider.parseAnyEntityWithCache(
+            entities.iterator().next());
+        PrimaryKeyMember<Object> primaryKeyMember = entityMember.getPrimaryKeyMember();
+        if (primaryKeyMember == null) {
+            throw new PrimaryKeyNotFoundException();
+        }
+        FieldMember<Object> primaryKeyFieldMember = primaryKeyMember.getFieldMember();
+        String primaryKeyColumn = primaryKeyFieldMember.getColumnName();
+
+        // 主键的值 -> 需要更新的列
+        Map<Object, Map<String, Object>> rowMap = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            Object primaryKeyValue = primaryKeyFieldMember.serialize(
+                ObjectUtils.typeCastNullable(primaryKeyFieldMember.fieldGet(entity)));
+            if (primaryKeyValue == null) {
+                throw new PrimaryKeyNotFoundException();
+            }
+            Map<String, Object> columnValueMap = entityMember.toFillMap(entity, EntityUseType.UPDATE, false);
+            columnValueMap.remove(primaryKeyColumn);
+            if (!columnValueMap.isEmpty()) {
+                // 同一主键出现多次时, 以最后一次为准
+                rowMap.remove(primaryKeyValue);
+                rowMap.put(primaryKeyValue, columnValueMap);
+            }
+        }
+        if (rowMap.isEmpty()) {
+            return 0;
+        }
+
+        // 拆分为语句块, 每行占用 (列数 * 2 + 1) 个占位符
+        GaarasonDatabaseProperties.BatchUpdate batchUpdate = container.getBean(GaarasonDatabaseProperties.class)
+            .getBatchUpdate();
+        int maxRows = batchUpdate.getMaxRows() > 0 ? batchUpdate.getMaxRows() : Integer.MAX_VALUE;
+        List<ExecuteLevel3Builder<B, T, K>> builders = new ArrayList<>();
+        Map<Object, Map<String, Object>> chunk = new LinkedHashMap<>();
+        int placeholders = 0;
+        for (Map.Entry<Object, Map<String, Object>> entry : rowMap.entrySet()) {
+            int rowPlaceholders = entry.getValue().size() * 2 + 1;
+            if (!chunk.isEmpty() && (chunk.size() >= maxRows ||
+                placeholders + rowPlaceholders > batchUpdate.getMaxPlaceholders())) {
+                builders.add(updateManyBuilder(primaryKeyColumn, chunk));
+                chunk = new LinkedHashMap<>();
+                placeholders = 0;
+            }
+            chunk.put(entry.getKey(), entry.getValue());
+            placeholders += rowPlaceholders;
+        }
+        builders.add(updateManyBuilder(primaryKeyColumn, chunk));
+
+        if (builders.size() == 1) {
+            return builders.get(0).updateManyChunk();
+        }
+        // 同一事务中顺序执行
+        return transaction(() -> {
+            int total = 0;
+            for (ExecuteLevel3Builder<B, T, K> builder : builders) {
+                total += builder.updateManyChunk();
+            }
+            return total;
+        });
+    }
+
+    /**
+     * 执行批量更新的语句块
+     * 事件中的查询构造器为实际执行的语句块
+     * @return 受影响的行数
+     */
+    protected int updateManyChunk() {
+        modelMember.triggerQueryIngEvents(EventType.QueryIng.eventQueryUpdating, this);
+        int rows = updateSql(SqlType.UPDATE);
+        modelMember.triggerQueryEdEvents(EventType.QueryEd.eventQueryUpdated, this, rows);
+        return rows;
+    }
+
+    /**
+     * 生成批量更新的语句块
+     * `col` = case `pk` when ? then ? ... else `col` end, 某行不包含的列, 保持原值
+     * @param primaryKeyColumn 主键列名
+     * @param chunk 主键的值 -> 需要更新的列
+     * @return 查询构造器 (在当前的基础上, 增加了 data 与 where)
+     */
+    protected ExecuteLevel3Builder<B, T, K> updateManyBuilder(String primaryKeyColumn,
+        Map<Object, Map<String, Object>> chunk) {
+        ExecuteLevel3Builder<B, T, K> builder = ObjectUtils.typeCast(clone());
+        Grammar grammar = builder.getGrammar();
+        String primaryKeyColumnAlias = columnAlias(primaryKeyColumn);
+
+        // 全部出现的列, 保持首次出现的顺序
+        Set<String> columns = new LinkedHashSet<>();
+        chunk.values().forEach(columnValueMap -> columns.addAll(columnValueMap.keySet()));
+
+        for (String column : columns) {
+            String columnAlias = columnAlias(column);
+            List<Object> parameters = new ArrayList<>(chunk.size() * 2);
+            StringBuilder sqlBuilder = new StringBuilder();
+            sqlBuilder.append(columnAlias).append("=case ").append(primaryKeyColumnAlias);
+            for (Map.Entry<Object, Map<String, Object>> entry : chunk.entrySet()) {
+                if (entry.getValue().containsKey(column)) {
+                    sqlBuilder.append(" when")
+                        .append(grammar.replaceValueAndFillParameters(entry.getKey(), parameters))
+                        .append("then")
+                        .append(grammar.replaceValueAndFillParameters(entry.getValue().get(column), parameters));
+                }
+            }
+            sqlBuilder.append("else ").append(columnAlias).append(" end");
+            grammar.addSmartSeparator(Grammar.SQLPartType.DATA, sqlBuilder.toString(), parameters, ",");
+        }
+        builder.whereIn(primaryKeyColumn, new ArrayList<>(chunk.keySet()));
+        return builder;
+    }
+
     /**
      * 批量插入数据, entityList处理
      * @param firstElement 数据实体对象列表 中的第一个元素
      * @param entityCollection 数据实体对象列表
      */
     protected B beforeBatchInsertEntityStyle(Object firstElement, Collection<?> entityCollection) {
-        List<Map<String, Object>> mapList = new LinkedList<>();
+        List<Map<String, Object>> mapList = new ArrayList<>(entityCollection.size());
         EntityMember<Object, Object> entityMember = modelShadowProvider.parseAnyEntityWithCache(firstElement);
         for (Object entity : entityCollection) {
             // 根据实体上的注解, 进行填充,判定,回填,以及序列化
-            // 可能出现map结构不一致的情况 (根据实体上的注解, 有不合法的属性, 就不会被加入到map), 那么调用类似 inset into table k1,k2 values((v11,v12),(v21,v22)) 批量插入就会失败
+            // 可能出现map结构不一致的情况 (根据实体上的注解, 有不合法的属性, 就不会被加入到map), 将按照列的组成分组插入
             mapList.add(entityMember.toFillMap(entity, EntityUseType.INSERT, false));
         }
         // 转入mapList处理
@@ -217,24 +548,80 @@ protected B beforeBatchInsertEntityStyle(Object firstElement, Collection<?> enti
 
     /**
      * 批量插入数据, entityMapList处理
+     * 按照列的组成分组, 并按照配置的行数/占位符数量/字节数拆分, 仅有一个语句块时, 与单条语句一致
      * @param entityMapCollection 数据实体map列表
      */
     protected B beforeBatchInsertMapStyle(Collection<Map<String, Object>> entityMapCollection) {
         if (ObjectUtils.isEmpty(entityMapCollection)) {
             return getSelf();
         }
-        // 获取entity所有有效字段
-        Set<String> columnNameSet = entityMapCollection.stream()
-                .findFirst()
-                .orElseThrow(AbnormalParameterException::new)
-                .keySet();
-        // 值
-        for (Map<String, Object> map : entityMapCollection) {
+        GaarasonDatabaseProperties.BatchInsert batchInsert = container.getBean(GaarasonDatabaseProperties.class)
+            .getBatchInsert();
+        List<InsertChunk> chunks = splitInsertChunks(entityMapCollection, batchInsert);
+        if (chunks.size() > 1 || batchInsert.isJdbcBatch()) {
+            insertChunks = chunks;
+        }
+        // 第一个语句块加入grammar
+        InsertChunk chunk = chunks.get(0);
+        for (List<Object> row : chunk.rows) {
             //  字段的值加入grammar
-            value(map.values());
+            value(row);
         }
         // 字段加入grammar
-        return column(columnNameSet);
+        return column(chunk.columns);
+    }
+
+    /**
+     * 将数据拆分为语句块
+     * @param entityMapCollection 数据实体map列表
+     * @param batchInsert 批量插入配置
+     * @return 语句块列表
+     */
+    protected List<InsertChunk> splitInsertChunks(Collection<Map<String, Object>> entityMapCollection,
+        GaarasonDatabaseProperties.BatchInsert batchInsert) {
+        // 按照列的组成分组, 保持首次出现的顺序
+        Map<Set<String>, List<Map<String, Object>>> groupMap = new LinkedHashMap<>();
+        Map<Set<String>, List<Integer>> indexMap = new HashMap<>();
+        int index = 0;
+        for (Map<String, Object> map : entityMapCollection) {
+            Set<String> columnNameSet = map.keySet();
+            groupMap.computeIfAbsent(columnNameSet, k -> new ArrayList<>()).add(map);
+            indexMap.computeIfAbsent(columnNameSet, k -> new ArrayList<>()).add(index++);
+        }
+
+        List<InsertChunk> chunks = new ArrayList<>();
+        for (Map.Entry<Set<String>, List<Map<String, Object>>> entry : groupMap.entrySet()) {
+            List<String> columns = new ArrayList<>(entry.getKey());
+            List<Integer> indexes = indexMap.get(entry.getKey());
+            // 单个语句块的最大行数, 未限制行数时仅受占位符数量的限制
+            int configuredMaxRows = batchInsert.getMaxRows() > 0 ? batchInsert.getMaxRows() : Integer.MAX_VALUE;
+            int maxRows = Math.max(1, batchInsert.isJdbcBatch() ? configuredMaxRows :
+                Math.min(configuredMaxRows, batchInsert.getMaxPlaceholders() / Math.max(1, columns.size())));
+
+            InsertChunk chunk = null;
+            long bytes = 0;
+            List<Map<String, Object>> maps = entry.getValue();
+            for (int i = 0; i < maps.size(); i++) {
+                // 按照列名的顺序取值, 避免不同map的遍历顺序不一致
+                List<Object> row = new ArrayList<>(columns.size());
+                long rowBytes = 0;
+                for (String column : columns) {
+                    Object value = maps.get(i).get(column);
+                    row.add(value);
+                    rowBytes += estimateBytes(value);
+                }
+                if (chunk == null || chunk.rows.size() >= maxRows ||
+                    (!batchInsert.isJdbcBatch() && bytes + rowBytes > batchInsert.getMaxBytes())) {
+                    chunk = new InsertChunk(columns);
+                    chunks.add(chunk);
+                    bytes = 0;
+                }
+                chunk.rows.add(row);
+                chunk.indexes.add(indexes.get(i));
+                bytes += rowBytes;
+            }
+        }
+        return chunks;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package gaarason.database.query;
 
 import gaarason.database.appointment.EntityUseType;
+import gaarason.database.config.GaarasonDatabaseProperties;
 import gaarason.database.contract.eloquent.Builder;
 import gaarason.database.contract.function.BuilderAnyWrapper;
 import gaarason.database.contract.function.BuilderWrapper;
@@ -10,10 +11,7 @@
 import gaarason.database.util.ObjectUtils;
 import gaarason.database.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Where查询构造器
@@ -392,20 +390,91 @@ public B whereSubQuery(String column, String symbol, BuilderWrapper<B, T, K> clo
 
     @Override
     public B whereIn(String column, Collection<?> valueList) {
+        List<Object> values = new ArrayList<>(new LinkedHashSet<>(valueList));
         Collection<Object> parameters = new ArrayList<>();
-        String valueStr = grammar.replaceValuesAndFillParameters(ObjectUtils.typeCast(valueList), parameters, ",");
-        String sqlPart = columnAlias(column) + "in" + supportBracket(valueStr);
-        return whereGrammar(sqlPart, parameters, " and ");
+        String sqlPart = inSqlPart(column, "in", " or ", values, parameters);
+        int chunkSize = getWhereInProperties().getChunkSize();
+        if (chunkSize <= 0 || values.size() <= chunkSize) {
+            return whereGrammar(sqlPart, parameters, " and ");
+        }
+        // 记录加入前后的条件, 以便查询时拆分为多条语句
+        Grammar.SQLPartInfo before = grammar.get(Grammar.SQLPartType.WHERE);
+        whereGrammar(sqlPart, parameters, " and ");
+        grammar.pushWhereIn(
+            new Grammar.WhereInInfo(column, values, before, grammar.get(Grammar.SQLPartType.WHERE)));
+        return getSelf();
     }
 
     @Override
     public B whereNotIn(String column, Collection<?> valueList) {
+        List<Object> values = new ArrayList<>(new LinkedHashSet<>(valueList));
         Collection<Object> parameters = new ArrayList<>();
-        String valueStr = grammar.replaceValuesAndFillParameters(ObjectUtils.typeCast(valueList), parameters, ",");
-        String sqlPart = columnAlias(column) + "not in" + supportBracket(valueStr);
+        String sqlPart = inSqlPart(column, "not in", " and ", values, parameters);
         return whereGrammar(sqlPart, parameters, " and ");
     }
 
+    /**
+     * 生成 in 条件片段
+     * 值的数量超过 maxSize 时, 拆分为多个 in 列表; 每个列表的占位符数量补齐到 2 的幂, 使得不同长度的列表生成相同的sql
+     * @param column 列名
+     * @param symbol in/not in
+     * @param separator 多个 in 列表之间的连接符
+     * @param values 值列表 (已去重)
+     * @param parameters 参数列表
+     * @return sql片段
+     */
+    protected String inSqlPart(String column, String symbol, String separator, List<Object> values,
+        Collection<Object> parameters) {
+        GaarasonDatabaseProperties.WhereIn whereIn = getWhereInProperties();
+        int maxSize = Math.max(1, whereIn.getMaxSize());
+        String columnAlias = columnAlias(column);
+        if (values.size() <= maxSize) {
+            List<Object> bucketValues = whereIn.isBucket() ? bucket(values, maxSize) : values;
+            return columnAlias + symbol + supportBracket(grammar.replaceValuesAndFillParameters(bucketValues,
+                parameters, ","));
+        }
+        List<String> sqlParts = new ArrayList<>(values.size() / maxSize + 1);
+        for (int i = 0; i < values.size(); i += maxSize) {
+            List<Object> chunk = values.subList(i, Math.min(values.size(), i + maxSize));
+            List<Object> bucketValues = whereIn.isBucket() ? bucket(chunk, maxSize) : chunk;
+            sqlParts.add(columnAlias + symbol + supportBracket(grammar.replaceValuesAndFillParameters(bucketValues,
+                parameters, ",")));
+        }
+        return supportBracket(String.join(separator, sqlParts));
+    }
+
+    /**
+     * 将值列表的长度补齐到 2 的幂 (不超过 maxSize), 补齐的部分重复最后一个值, 不影响 in 的语义
+     * @param values 值列表
+     * @param maxSize 最大长度
+     * @return 值列表
+     */
+    protected static List<Object> bucket(List<Object> values, int maxSize) {
+        int size = values.size();
+        if (size <= 1) {
+            return values;
+        }
+        int bucketSize = Math.min(Integer.highestOneBit(size - 1) << 1, maxSize);
+        if (bucketSize <= size) {
+            return values;
+        }
+        List<Object> bucketValues = new ArrayList<>(bucketSize);
+        bucketValues.addAll(values);
+        Object last = values.get(size - 1);
+        while (bucketValues.size() < bucketSize) {
+            bucketValues.add(last);
+        }
+        return bucketValues;
+    }
+
+    /**
+     * where in 查询配置
+     * @return 配置
+     */
+    protected GaarasonDatabaseProperties.WhereIn getWhereInProperties() {
+        return container.getBean(GaarasonDatabaseProperties.class).getWhereIn();
+    }
+
     @Override
     public B whereInRaw(String column, String sql) {
         String sqlPart = columnAlias(column) + "in" + supportBracket(sql);
@@ -1,6 +1,7 @@
 package gaarason.database.query.grammars;
 
 import gaarason.database.appointment.SqlType;
+import gaarason.database.connection.sharding.ShardingHint;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.query.Alias;
 import gaarason.database.contract.query.Grammar;
@@ -18,7 +19,7 @@
  * 语法分析基类
  * @author xt
  */
-public abstract class BaseGrammar implements Grammar, Serializable {
+public abstract class BaseGrammar implements Grammar, Serializable, Cloneable {
 
     private static final long serialVersionUID = 1L;
 
@@ -28,15 +29,30 @@ public abstract class BaseGrammar implements Grammar, Serializable {
     protected final static Set<SQLPartType> PARENTHESES_ARE_REQUIRED = EnumSet.of(SQLPartType.FORCE_INDEX,
         SQLPartType.IGNORE_INDEX, SQLPartType.COLUMN);
 
+    /**
+     * 别名分隔符
+     * 别名由表名与嵌套层级组成 eg: student_0, 使得相同结构的查询生成完全相同的sql, 以便命中预执行对象的缓存
+     * 闭包子查询沿用上级的别名; 关联关系子查询使用深一层的别名, 避免自关联时内外层别名相同
+     * 别名占位符仅在被引号包裹时替换, 因此短的占位符不会误伤其他名称
+     */
+    protected static final String ALIAS_SEPARATOR = "_";
+
     /**
      * 关联关系
      */
-    public final Map<String, Record.Relation> relationMap = new HashMap<>();
+    public Map<String, Record.Relation> relationMap = new HashMap<>();
 
     /**
      * SQL片段信息MAP
+     * SQLPartInfo 创建后不再修改, 因此复制时仅复制列表, 片段对象在新旧 grammar 之间共享
      */
-    protected final Map<SQLPartType, List<SQLPartInfo>> SQLPartMap = new HashMap<>();
+    protected Map<SQLPartType, List<SQLPartInfo>> SQLPartMap = new HashMap<>();
+
+    /**
+     * 可拆分查询的 in 列表, 创建后不再修改, 复制时共享
+     */
+    @Nullable
+    protected WhereInInfo whereInInfo;
 
     /**
      * 符号, 用于避免关键字冲突
@@ -59,7 +75,7 @@ public abstract class BaseGrammar implements Grammar, Serializable {
     protected boolean useAlisa = false;
 
     protected BaseGrammar(String tableName, String symbol) {
-        this.alias = new Alias(tableName, tableName + "_" + hashCode());
+        this.alias = new Alias(tableName, tableName + ALIAS_SEPARATOR + 0);
         this.symbol = symbol;
     }
 
@@ -84,6 +100,39 @@ public Alias alias() {
         return alias;
     }
 
+    @Override
+    public void aliasDepth(int depth) {
+        Alias nestedAlias = new Alias(alias.getTable(), alias.getTable() + ALIAS_SEPARATOR + depth).setDepth(depth);
+        String quotedAliasPlaceHolder = symbol + alias.getAliasPlaceHolder() + symbol;
+        String quotedNestedAliasPlaceHolder = symbol + nestedAlias.getAliasPlaceHolder() + symbol;
+        // 已有的片段(eg: 软删除作用域)同步替换占位符, 片段对象不可变, 因此重新构造
+        for (List<SQLPartInfo> sqlParts : SQLPartMap.values()) {
+            sqlParts.replaceAll(sqlPart -> replaceAliasPlaceHolder(sqlPart, quotedAliasPlaceHolder,
+                quotedNestedAliasPlaceHolder));
+        }
+        if (whereInInfo != null) {
+            whereInInfo = new WhereInInfo(
+                whereInInfo.getColumn().replace(quotedAliasPlaceHolder, quotedNestedAliasPlaceHolder),
+                whereInInfo.getValues(),
+                replaceAliasPlaceHolder(whereInInfo.getBefore(), quotedAliasPlaceHolder, quotedNestedAliasPlaceHolder),
+                replaceAliasPlaceHolder(whereInInfo.getAfter(), quotedAliasPlaceHolder, quotedNestedAliasPlaceHolder));
+        }
+        this.alias = nestedAlias;
+    }
+
+    /**
+     * 替换片段中的别名占位符
+     * @param sqlPart sql片段
+     * @param target 被替换的占位符(含引号)
+     * @param replacement 替换后的占位符(含引号)
+     * @return sql片段
+     */
+    protected SQLPartInfo replaceAliasPlaceHolder(SQLPartInfo sqlPart, String target, String replacement) {
+        String sqlString = sqlPart.getSqlString();
+        return sqlString.contains(target) ?
+            simpleInstanceSQLPartInfo(sqlString.replace(target, replacement), sqlPart.getParameters()) : sqlPart;
+    }
+
     @Override
     public String replaceValueAndFillParameters(@Nullable Object value, Collection<Object> parameters) {
         parameters.add(value);
@@ -312,10 +361,10 @@ protected List<SQLPartInfo> getDefault(SQLPartType type) {
         switch (type) {
             case TABLE:
                 // `table_name`
-                return Collections.singletonList(simpleInstanceSQLPartInfo(symbol + alias.getTable() + symbol, null));
+                return Collections.singletonList(simpleInstanceSQLPartInfo(symbol + shardedTable() + symbol, null));
             case FROM:
                 // `table_name` as `alias`
-                return Collections.singletonList(simpleInstanceSQLPartInfo(symbol + alias.getTable() + symbol + " as " + symbol + alias + symbol, null));
+                return Collections.singletonList(simpleInstanceSQLPartInfo(symbol + shardedTable() + symbol + " as " + symbol + alias + symbol, null));
             case SELECT:
                 return Collections.singletonList(simpleInstanceSQLPartInfo("*", null));
             case VALUE:
@@ -324,6 +373,16 @@ protected List<SQLPartInfo> getDefault(SQLPartType type) {
         return null;
     }
 
+    /**
+     * 实际使用的表名
+     * 当前线程的分片提示中存在该表的分表时, 使用分表
+     * @return 表名
+     */
+    protected String shardedTable() {
+        String table = ShardingHint.getTable(alias.getTable());
+        return table == null ? alias.getTable() : table;
+    }
+
     @Override
     public void pushRelation(String targetFieldName, Record.Relation relation) {
         relationMap.put(targetFieldName, relation);
@@ -334,21 +393,54 @@ public Map<String, Record.Relation> pullRelation(){
         return relationMap;
     }
 
+    @Override
+    public void pushWhereIn(WhereInInfo whereInInfo) {
+        this.whereInInfo = whereInInfo;
+    }
+
+    @Override
+    @Nullable
+    public WhereInInfo pullWhereIn() {
+        return whereInInfo;
+    }
+
     @Override
     public Grammar deepCopy() throws CloneNotSupportedRuntimeException {
+        BaseGrammar grammar;
+        try {
+            grammar = (BaseGrammar) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new CloneNotSupportedRuntimeException(e.getMessage(), e);
+        }
         // 浅拷贝 relationMap
-        HashMap<String, Record.Relation> copy = new HashMap<>(relationMap);
-        // 清空自身 relationMap
-        relationMap.clear();
-        // 一个全新的 grammar
-        BaseGrammar grammar = ObjectUtils.deepCopy(this);
-        // 恢复自身 relationMap
-        relationMap.putAll(copy);
-        // grammar 也赋值相同的 relationMap
-        grammar.relationMap.putAll(copy);
+        grammar.relationMap = new HashMap<>(relationMap);
+        // 复制片段列表, 共享片段对象
+        grammar.SQLPartMap = new HashMap<>(SQLPartMap.size() * 2);
+        for (Map.Entry<SQLPartType, List<SQLPartInfo>> entry : SQLPartMap.entrySet()) {
+            grammar.SQLPartMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        // 别名是可变对象, 复制时保持别名之间的引用关系
+        Map<Alias, Alias> aliasCopyMap = new IdentityHashMap<>();
+        grammar.alias = copyAlias(alias, aliasCopyMap);
+        grammar.historyAliasList = new ArrayList<>(historyAliasList.size());
+        for (Alias historyAlias : historyAliasList) {
+            grammar.historyAliasList.add(copyAlias(historyAlias, aliasCopyMap));
+        }
         return grammar;
     }
 
+    /**
+     * 复制别名
+     * @param alias 别名
+     * @param aliasCopyMap 已经复制的别名
+     * @return 别名
+     */
+    protected static Alias copyAlias(Alias alias, Map<Alias, Alias> aliasCopyMap) {
+        return aliasCopyMap.computeIfAbsent(alias, k -> new Alias(k.getTable(), k.getAliasPlaceHolder())
+            .setAlias(k.getAlias())
+            .setDepth(k.getDepth()));
+    }
+
     @Override
     public void merger(Grammar grammar) {
         relationMap.putAll(grammar.pullRelation());
@@ -369,11 +461,12 @@ public void merger(Grammar grammar) {
     protected SQLPartInfo instanceSQLPartInfo(String sqlString, @Nullable Collection<Object> parameters) {
         String sql;
         if (useAlisa) {
+            String quotedAlias = symbol + alias.getAlias() + symbol;
             // 历史处理
             for (Alias historyAlias : historyAliasList) {
-                sqlString = sqlString.replace(historyAlias.getAliasPlaceHolder(), alias.getAlias());
+                sqlString = sqlString.replace(symbol + historyAlias.getAliasPlaceHolder() + symbol, quotedAlias);
             }
-            sql = sqlString.replace(alias.getAliasPlaceHolder(), alias.getAlias());
+            sql = sqlString.replace(symbol + alias.getAliasPlaceHolder() + symbol, quotedAlias);
         } else {
             // 历史处理
             for (Alias historyAlias : historyAliasList) {
@@ -393,8 +486,10 @@ protected SQLPartInfo instanceSQLPartInfo(String sqlString, @Nullable Collection
      */
     protected SQLPartInfo instanceSQLPartInfoWithAliasPlaceHolder(String sqlString, @Nullable Collection<Object> parameters) {
         // 历史处理
+        String quotedAliasPlaceHolder = symbol + alias.getAliasPlaceHolder() + symbol;
         for (Alias historyAlias : historyAliasList) {
-            sqlString = sqlString.replace(historyAlias.getAliasPlaceHolder(), alias.getAliasPlaceHolder());
+            sqlString = sqlString.replace(symbol + historyAlias.getAliasPlaceHolder() + symbol,
+                quotedAliasPlaceHolder);
         }
         return simpleInstanceSQLPartInfo(sqlString, parameters);
     }
@@ -1,12 +1,19 @@
 package gaarason.database.connection;
 
+import gaarason.database.connection.sharding.ShardingHint;
+import gaarason.database.contract.connection.LoadBalancer;
 import gaarason.database.core.Container;
+import gaarason.database.exception.AbnormalParameterException;
 import gaarason.database.util.ObjectUtils;
 
 import javax.sql.DataSource;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * 多个数据库链接 (分库)
+ * 根据当前线程的分片提示 ShardingHint 的链接通道选择链接(分表名在表通道中, 不参与选择), 没有提示时使用默认链接
+ * 每个链接均兼容于读写分离
+ */
 public class GaarasonSmartDataSourceMultipleLinksWrapper extends GaarasonSmartDataSourceWrapper {
 
     /**
@@ -14,38 +21,112 @@ public class GaarasonSmartDataSourceMultipleLinksWrapper extends GaarasonSmartDa
      */
     protected final Map<String, List<List<DataSource>>> dataSourceMap;
 
+    /**
+     * 默认的链接名
+     */
+    protected final String defaultLinkName;
+
+    /**
+     * @param dataSourceMap 每组链接 (写连接, 读链接), 第一组作为默认链接
+     * @param container 容器
+     */
+    public GaarasonSmartDataSourceMultipleLinksWrapper(Map<String, List<List<DataSource>>> dataSourceMap,
+        Container container) {
+        this(dataSourceMap, firstLinkName(dataSourceMap), container);
+    }
 
-    public GaarasonSmartDataSourceMultipleLinksWrapper(Map<String, List<List<DataSource>>> dataSourceMap, Container container) {
-        // 不再使用原数据结构
-        super(Collections.emptyList(), Collections.emptyList(), container);
-        // 使用新的
+    /**
+     * @param dataSourceMap 每组链接 (写连接, 读链接)
+     * @param defaultLinkName 默认的链接名
+     * @param container 容器
+     */
+    public GaarasonSmartDataSourceMultipleLinksWrapper(Map<String, List<List<DataSource>>> dataSourceMap,
+        String defaultLinkName, Container container) {
+        // 默认链接的写连接, 仅用于满足父类的校验, 实际选择时使用 dataSourceMap
+        super(masterDataSourceListOf(dataSourceMap, defaultLinkName), container);
         this.dataSourceMap = dataSourceMap;
+        this.defaultLinkName = defaultLinkName;
     }
 
     @Override
     protected DataSource getRealDataSource(boolean isWriteOrTransaction) {
-        // 选择合适的链接
-        Object databaseLink = "";
-//        databaseLink = getHttpServletRequest().getAttribute("databaseLink");
-
-        List<List<DataSource>> lists = dataSourceMap.get(String.valueOf(databaseLink));
-
+        List<List<DataSource>> lists = currentLink();
         List<DataSource> masterDataSourceList = lists.get(0);
         List<DataSource> slaveDataSourceList = lists.size() > 1 ? lists.get(1) : Collections.emptyList();
-        boolean hasSlave = !ObjectUtils.isEmpty(slaveDataSourceList);
-
-        if (!hasSlave || isWriteOrTransaction) {
-            return masterDataSourceList.get(ThreadLocalRandom.current().nextInt(masterDataSourceList.size()));
+        if (ObjectUtils.isEmpty(slaveDataSourceList) || isWriteOrTransaction) {
+            return masterLoadBalancer.select(masterDataSourceList);
         } else {
-            return slaveDataSourceList.get(ThreadLocalRandom.current().nextInt(slaveDataSourceList.size()));
+            return slaveLoadBalancer.select(slaveDataSourceList);
         }
     }
 
+    @Override
+    protected LoadBalancer getLoadBalancer(boolean isWriteOrTransaction) {
+        List<List<DataSource>> lists = currentLink();
+        boolean hasSlave = lists.size() > 1 && !ObjectUtils.isEmpty(lists.get(1));
+        return !hasSlave || isWriteOrTransaction ? masterLoadBalancer : slaveLoadBalancer;
+    }
+
+    @Override
+    public List<DataSource> getMasterDataSourceList() {
+        return currentLink().get(0);
+    }
+
+    @Override
+    public List<DataSource> getSlaveDataSourceList() {
+        List<List<DataSource>> lists = currentLink();
+        return lists.size() > 1 ? lists.get(1) : Collections.emptyList();
+    }
+
+    /**
+     * 当前线程使用的链接
+     * @return 链接 (写连接, 读链接)
+     */
+    protected List<List<DataSource>> currentLink() {
+        String shardName = ShardingHint.get();
+        String linkName = shardName == null ? defaultLinkName : shardName;
+        List<List<DataSource>> lists = dataSourceMap.get(linkName);
+        if (ObjectUtils.isEmpty(lists) || ObjectUtils.isEmpty(lists.get(0))) {
+            throw new AbnormalParameterException("Database link [" + linkName + "] is not configured.");
+        }
+        return lists;
+    }
+
+    /**
+     * 第一组链接的名字
+     * @param dataSourceMap 每组链接
+     * @return 链接名
+     */
+    protected static String firstLinkName(Map<String, List<List<DataSource>>> dataSourceMap) {
+        Iterator<String> iterator = dataSourceMap.keySet().iterator();
+        if (!iterator.hasNext()) {
+            throw new AbnormalParameterException("The map of data source should not be empty.");
+        }
+        return iterator.next();
+    }
+
     /**
-     * 2个写链接, 通过名字区分
+     * 指定链接的写连接
+     * @param dataSourceMap 每组链接
+     * @param linkName 链接名
+     * @return 写连接
      */
-    public static GaarasonSmartDataSourceMultipleLinksWrapper build(DataSource dataSource1, DataSource dataSource2, Container container) {
-        Map<String, List<List<DataSource>>> dataSourceMap = new HashMap<>();
+    protected static List<DataSource> masterDataSourceListOf(Map<String, List<List<DataSource>>> dataSourceMap,
+        String linkName) {
+        List<List<DataSource>> lists = dataSourceMap.get(linkName);
+        if (ObjectUtils.isEmpty(lists)) {
+            throw new AbnormalParameterException("Database link [" + linkName + "] is not configured.");
+        }
+        return lists.get(0);
+    }
+
+    /**
+     * 2个写链接, 通过名字区分, 默认使用 name1
+     * 通过 ShardingHint.execute("name2", () -> ...) 使用 name2
+     */
+    public static GaarasonSmartDataSourceMultipleLinksWrapper build(DataSource dataSource1, DataSource dataSource2,
+        Container container) {
+        Map<String, List<List<DataSource>>> dataSourceMap = new LinkedHashMap<>();
         List<List<DataSource>> listOfName1 = dataSourceMap.computeIfAbsent("name1", k -> new ArrayList<>());
         listOfName1.add(0, Collections.singletonList(dataSource1));
 
@@ -54,17 +135,4 @@ public static GaarasonSmartDataSourceMultipleLinksWrapper build(DataSource dataS
 
         return new GaarasonSmartDataSourceMultipleLinksWrapper(dataSourceMap, container);
     }
-
-
-//    /**
-//     * 示例, 获取当前 web 线程的 request
-//     * @return request
-//     */
-//    public static HttpServletRequest getHttpServletRequest() {
-//        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-//        if(requestAttributes == null) {
-//            throw new BusinessHPException("No HttpServletRequest");
-//        }
-//        return requestAttributes.getRequest();
-//    }
 }
@@ -0,0 +1,117 @@
+package gaarason.database.provider;
+
+import gaarason.database.support.SoftCache;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@FixMethodOrder(MethodSorters.JVM)
+public class ModelShadowProviderCacheTests {
+
+    @Test
+    public void 命中() {
+        ModelShadowProvider.Cache cache = new ModelShadowProvider.Cache();
+        Map<Class<?>, String> strongCache = new ConcurrentHashMap<>();
+        SoftCache<Class<?>, String> softCache = new SoftCache<>();
+        AtomicInteger parseCount = new AtomicInteger();
+
+        String first = cache.lambda(strongCache, softCache, String.class, () -> {
+            parseCount.incrementAndGet();
+            return new String("name");
+        });
+        String second = cache.lambda(strongCache, softCache, String.class, () -> {
+            parseCount.incrementAndGet();
+            return new String("name");
+        });
+
+        // 命中时不再解析, 结果已常量化
+        Assert.assertEquals(1, parseCount.get());
+        Assert.assertSame(first, second);
+        Assert.assertSame("name", first);
+        Assert.assertEquals(1, strongCache.size());
+        Assert.assertTrue(softCache.isEmpty());
+    }
+
+    @Test
+    public void 并发未命中() throws Exception {
+        ModelShadowProvider.Cache cache = new ModelShadowProvider.Cache();
+        Map<Class<?>, String> strongCache = new ConcurrentHashMap<>();
+        SoftCache<Class<?>, String> softCache = new SoftCache<>();
+        AtomicInteger parseCount = new AtomicInteger();
+
+        int threads = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return cache.lambda(strongCache, softCache, Integer.class, () -> {
+                        parseCount.incrementAndGet();
+                        return new String("age");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                Assert.assertSame("age", future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // 可能重复解析, 但只保留一个结果
+        Assert.assertTrue(parseCount.get() >= 1 && parseCount.get() <= threads);
+        Assert.assertEquals(1, strongCache.size());
+        Assert.assertTrue(softCache.isEmpty());
+
+        // 之后均命中
+        int parsed = parseCount.get();
+        cache.lambda(strongCache, softCache, Integer.class, () -> {
+            parseCount.incrementAndGet();
+            return "age";
+        });
+        Assert.assertEquals(parsed, parseCount.get());
+    }
+
+    @Test
+    public void 超出容量() {
+        ModelShadowProvider.Cache cache = new ModelShadowProvider.Cache(2);
+        Map<Class<?>, String> strongCache = new ConcurrentHashMap<>();
+        SoftCache<Class<?>, String> softCache = new SoftCache<>();
+        AtomicInteger parseCount = new AtomicInteger();
+
+        Assert.assertEquals("a", cache.lambda(strongCache, softCache, String.class, () -> "a"));
+        Assert.assertEquals("b", cache.lambda(strongCache, softCache, Integer.class, () -> "b"));
+
+        // 超出容量后, 使用软引用缓存
+        String first = cache.lambda(strongCache, softCache, Long.class, () -> {
+            parseCount.incrementAndGet();
+            return new String("c");
+        });
+        String second = cache.lambda(strongCache, softCache, Long.class, () -> {
+            parseCount.incrementAndGet();
+            return new String("c");
+        });
+        Assert.assertEquals(1, parseCount.get());
+        Assert.assertSame(first, second);
+        Assert.assertEquals(2, strongCache.size());
+        Assert.assertFalse(strongCache.containsKey(Long.class));
+        Assert.assertEquals("c", softCache.get(Long.class));
+
+        // 已在强引用缓存中的, 依旧命中
+        Assert.assertEquals("a", cache.lambda(strongCache, softCache, String.class, () -> "x"));
+    }
+}
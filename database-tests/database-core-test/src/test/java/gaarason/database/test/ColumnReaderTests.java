@@ -0,0 +1,92 @@
+package gaarason.database.test;
+
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
+import gaarason.database.util.ConverterUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class ColumnReaderTests {
+
+    private static class Entity {
+        private Long id;
+        private long count;
+        private Integer age;
+        private String name;
+        private LocalDateTime createdAt;
+        private BigInteger big;
+    }
+
+    /**
+     * 仅支持按下标读取的结果集, 以确认读取过程中没有按列名查找
+     */
+    private static ResultSet resultSet(Object... row) {
+        boolean[] wasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ColumnReaderTests.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                if ("wasNull".equals(method.getName())) {
+                    return wasNull[0];
+                }
+                if (args == null || !(args[0] instanceof Integer)) {
+                    throw new UnsupportedOperationException(method.toString());
+                }
+                Object value = row[(Integer) args[0] - 1];
+                wasNull[0] = value == null;
+                switch (method.getName()) {
+                    case "getLong":
+                        return value == null ? 0L : ((Number) value).longValue();
+                    case "getInt":
+                        return value == null ? 0 : ((Number) value).intValue();
+                    case "getString":
+                        return value == null ? null : String.valueOf(value);
+                    default:
+                        return value;
+                }
+            });
+    }
+
+    private static ColumnReaderFunctionalInterface<Object> reader(String fieldName) throws NoSuchFieldException {
+        Field field = Entity.class.getDeclaredField(fieldName);
+        return ConverterUtils.getJdbcResultSetReader(field);
+    }
+
+    @Test
+    public void primitive() throws NoSuchFieldException, SQLException {
+        ResultSet resultSet = resultSet(1L, null, 18, null);
+        Assert.assertEquals(1L, reader("id").read(resultSet, 1));
+        // 包装类型, null 依旧为 null
+        Assert.assertNull(reader("id").read(resultSet, 2));
+        Assert.assertEquals(18, reader("age").read(resultSet, 3));
+        // 基本类型, null 为默认值
+        Assert.assertEquals(0L, reader("count").read(resultSet, 4));
+    }
+
+    @Test
+    public void object() throws NoSuchFieldException, SQLException {
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05");
+        ResultSet resultSet = resultSet("alice", timestamp, "12345678901234567890", null, null);
+        Assert.assertEquals("alice", reader("name").read(resultSet, 1));
+        Assert.assertEquals(timestamp.toLocalDateTime(), reader("createdAt").read(resultSet, 2));
+        Assert.assertEquals(new BigInteger("12345678901234567890"), reader("big").read(resultSet, 3));
+        Assert.assertNull(reader("createdAt").read(resultSet, 4));
+        Assert.assertNull(reader("big").read(resultSet, 5));
+    }
+
+    @Test
+    public void withoutField() throws SQLException {
+        ResultSet resultSet = resultSet("value");
+        Assert.assertEquals("value", ConverterUtils.getJdbcResultSetReader(null).read(resultSet, 1));
+    }
+}
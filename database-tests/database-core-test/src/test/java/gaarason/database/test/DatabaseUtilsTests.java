@@ -118,6 +118,29 @@ public void testSnowFlakeIdUtil() throws InterruptedException {
         System.out.println(snowFlakesID.nextId());
     }
 
+    @Test
+    public void testSnowFlakeIdUtilNextIds() {
+        IdGenerator.SnowFlakesID snowFlakesID = ContainerBootstrap.buildAndBootstrap()
+            .getBean(IdGenerator.SnowFlakesID.class);
+        List<Long> ids = new ArrayList<>();
+        MultiThreadUtil.run(20, 50, () -> {
+            List<Long> block = snowFlakesID.nextIds(1000);
+            // 区间内递增
+            for (int i = 1; i < block.size(); i++) {
+                Assert.assertTrue(block.get(i) > block.get(i - 1));
+            }
+            synchronized (ids) {
+                ids.addAll(block);
+            }
+        });
+        Assert.assertEquals(20 * 50 * 1000, ids.size());
+        Assert.assertEquals("存在重复的id", ids.size(), new HashSet<>(ids).size());
+
+        // 超过单个毫秒的序列数量
+        Assert.assertEquals(20000, new HashSet<>(snowFlakesID.nextIds(20000)).size());
+        Assert.assertTrue(snowFlakesID.nextIds(0).isEmpty());
+    }
+
     @Test
     public void testCheckProperties() {
         boolean student = ObjectUtils.checkProperties(Teacher.class, "students");
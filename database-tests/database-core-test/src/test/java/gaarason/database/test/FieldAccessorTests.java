@@ -0,0 +1,77 @@
+package gaarason.database.test;
+
+import gaarason.database.support.FieldAccessor;
+import gaarason.database.util.ClassUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class FieldAccessorTests {
+
+    private static FieldAccessor accessor(String fieldName) throws NoSuchFieldException {
+        Field field = Entity.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return FieldAccessor.of(field);
+    }
+
+    @Test
+    public void getAndSet() throws NoSuchFieldException {
+        Entity entity = new Entity();
+
+        FieldAccessor name = accessor("name");
+        name.set(entity, "alice");
+        Assert.assertEquals("alice", name.get(entity));
+        name.set(entity, null);
+        Assert.assertNull(name.get(entity));
+
+        // 基本类型
+        FieldAccessor age = accessor("age");
+        age.set(entity, 18);
+        Assert.assertEquals(18, age.get(entity));
+
+        // 基本类型的拓宽
+        FieldAccessor id = accessor("id");
+        id.set(entity, 3);
+        Assert.assertEquals(3L, id.get(entity));
+
+        // final 属性回退到反射
+        FieldAccessor version = accessor("version");
+        Assert.assertEquals(1, version.get(entity));
+        version.set(entity, 2);
+        Assert.assertEquals(2, version.get(entity));
+    }
+
+    @Test
+    public void newInstanceSupplier() {
+        Supplier<Entity> entitySupplier = ClassUtils.newInstanceSupplier(Entity.class);
+        Assert.assertNotSame(entitySupplier.get(), entitySupplier.get());
+
+        // 私有构造
+        Supplier<PrivateEntity> privateEntitySupplier = ClassUtils.newInstanceSupplier(PrivateEntity.class);
+        Assert.assertNotNull(privateEntitySupplier.get());
+    }
+
+    public static class Entity {
+
+        private long id;
+
+        private String name;
+
+        private int age;
+
+        private final Integer version = 1;
+    }
+
+    static class PrivateEntity {
+
+        private PrivateEntity() {
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package gaarason.database.test;
+
+import gaarason.database.appointment.SqlType;
+import gaarason.database.contract.query.Alias;
+import gaarason.database.contract.query.Grammar;
+import gaarason.database.query.grammars.MySqlGrammar;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class GrammarTests {
+
+    @Test
+    public void 相同结构生成相同的sql() {
+        Grammar grammar1 = new MySqlGrammar("student");
+        Grammar grammar2 = new MySqlGrammar("student");
+        grammar1.addSmartSeparator(Grammar.SQLPartType.WHERE, "`student_0`.`id`> ? ", Collections.singletonList(1),
+            " ");
+        grammar2.addSmartSeparator(Grammar.SQLPartType.WHERE, "`student_0`.`id`> ? ", Collections.singletonList(2),
+            " ");
+        Assert.assertEquals(grammar1.generateSql(SqlType.SELECT).getSqlString(),
+            grammar2.generateSql(SqlType.SELECT).getSqlString());
+    }
+
+    @Test
+    public void 复制() {
+        Grammar grammar = new MySqlGrammar("student");
+        grammar.addSmartSeparator(Grammar.SQLPartType.WHERE, "`student_0`.`id`> ? ",
+            new ArrayList<>(Collections.singletonList(1)), " ");
+        Alias alias = new Alias("student", "student_1");
+        grammar.alias(alias);
+
+        Grammar copy = grammar.deepCopy();
+        Assert.assertEquals(grammar.generateSql(SqlType.SELECT).getSqlString(),
+            copy.generateSql(SqlType.SELECT).getSqlString());
+
+        // 相互独立
+        copy.addSmartSeparator(Grammar.SQLPartType.WHERE, "and `student_0`.`age`< ? ", Collections.singletonList(18),
+            " ");
+        copy.alias().setAlias("s");
+        Assert.assertEquals(1, grammar.get(Grammar.SQLPartType.WHERE).getParameters().size());
+        Assert.assertEquals(2, copy.get(Grammar.SQLPartType.WHERE).getParameters().size());
+        Assert.assertEquals("student_1", grammar.alias().getAlias());
+        Assert.assertNotSame(alias, copy.alias());
+    }
+
+    @Test
+    public void 嵌套层级别名() {
+        Grammar parent = new MySqlGrammar("student");
+        Grammar son = new MySqlGrammar("student");
+        // 嵌套前已有的片段, eg: 软删除作用域
+        son.addSmartSeparator(Grammar.SQLPartType.WHERE, "`student_0`.`is_deleted`= ? ", new ArrayList<>(
+            Collections.singletonList(0)), " and ");
+        son.aliasDepth(parent.alias().getDepth() + 1);
+        son.addSmartSeparator(Grammar.SQLPartType.WHERE,
+            "`" + parent.alias() + "`.`teacher_id`=`" + son.alias() + "`.`id`", null, " and ");
+
+        Assert.assertEquals(1, son.alias().getDepth());
+        Assert.assertEquals(
+            "select * from `student` as `student_1` where `student_1`.`is_deleted`= ?  and `student_0`.`teacher_id`=`student_1`.`id`",
+            son.generateSql(SqlType.SELECT).getSqlString());
+    }
+
+    @Test
+    public void 嵌套层级别名_复制() {
+        Grammar son = new MySqlGrammar("student");
+        son.aliasDepth(1);
+        Grammar copy = son.deepCopy();
+        Assert.assertEquals(1, copy.alias().getDepth());
+
+        // 复制后再嵌套, 层级在复制的基础上递增
+        Grammar grandson = new MySqlGrammar("student");
+        grandson.aliasDepth(copy.alias().getDepth() + 1);
+        Assert.assertEquals(2, grandson.alias().getDepth());
+        Assert.assertEquals("select * from `student` as `student_1`", copy.generateSql(SqlType.SELECT).getSqlString()
+            .trim());
+    }
+}
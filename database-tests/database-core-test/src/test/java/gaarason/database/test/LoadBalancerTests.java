@@ -0,0 +1,222 @@
+package gaarason.database.test;
+
+import gaarason.database.bootstrap.ContainerBootstrap;
+import gaarason.database.config.GaarasonDatabaseProperties;
+import gaarason.database.connection.GaarasonDataSourceBuilder;
+import gaarason.database.connection.GaarasonDataSourceWrapper;
+import gaarason.database.connection.balancer.*;
+import gaarason.database.contract.connection.LoadBalancer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class LoadBalancerTests {
+
+    private static DataSource newDataSource(String name) {
+        return proxy(DataSource.class, name);
+    }
+
+    /**
+     * 代理对象, 获取连接时返回同名的连接
+     */
+    private static <T> T proxy(Class<T> interfaceClass, String name) {
+        return interfaceClass.cast(Proxy.newProxyInstance(LoadBalancerTests.class.getClassLoader(),
+            new Class<?>[]{interfaceClass}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return name;
+                    case "getConnection":
+                        return proxy(Connection.class, name);
+                    case "close":
+                    case "setAutoCommit":
+                    case "commit":
+                    case "rollback":
+                        return null;
+                    case "isClosed":
+                        return false;
+                    default:
+                        throw new UnsupportedOperationException();
+                }
+            }));
+    }
+
+    private final DataSource a = newDataSource("a");
+
+    private final DataSource b = newDataSource("b");
+
+    private final DataSource c = newDataSource("c");
+
+    private final List<DataSource> dataSourceList = Arrays.asList(a, b, c);
+
+    @Test
+    public void 轮询() {
+        LoadBalancer loadBalancer = new RoundRobinLoadBalancer(1000);
+        Assert.assertSame(a, loadBalancer.select(dataSourceList));
+        Assert.assertSame(b, loadBalancer.select(dataSourceList));
+        Assert.assertSame(c, loadBalancer.select(dataSourceList));
+        Assert.assertSame(a, loadBalancer.select(dataSourceList));
+    }
+
+    @Test
+    public void 获取连接失败后剔除() {
+        LoadBalancer loadBalancer = new RandomLoadBalancer(60000);
+        loadBalancer.failed(b);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertNotSame(b, loadBalancer.select(dataSourceList));
+        }
+        // 全部被剔除时, 仍然使用全部
+        loadBalancer.failed(a);
+        loadBalancer.failed(c);
+        Set<DataSource> selected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            selected.add(loadBalancer.select(dataSourceList));
+        }
+        Assert.assertEquals(3, selected.size());
+
+        // 剔除到期后恢复
+        LoadBalancer shortEject = new RoundRobinLoadBalancer(-1);
+        shortEject.failed(a);
+        Assert.assertSame(a, shortEject.select(dataSourceList));
+    }
+
+    @Test
+    public void 加权随机() {
+        Map<DataSource, Integer> weightMap = new HashMap<>();
+        weightMap.put(a, 0);
+        weightMap.put(b, 3);
+        LoadBalancer loadBalancer = new WeightedLoadBalancer(weightMap, 1000);
+        Map<DataSource, Integer> countMap = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            countMap.merge(loadBalancer.select(dataSourceList), 1, Integer::sum);
+        }
+        Assert.assertNull(countMap.get(a));
+        Assert.assertTrue(countMap.get(b) > countMap.get(c));
+    }
+
+    @Test
+    public void 最少正在使用的连接数() {
+        LoadBalancer loadBalancer = new LeastInFlightLoadBalancer(1000);
+        List<DataSource> twoDataSourceList = Arrays.asList(a, b);
+        loadBalancer.acquired(a);
+        loadBalancer.acquired(a);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertSame(b, loadBalancer.select(twoDataSourceList));
+        }
+        loadBalancer.released(a, 1);
+        loadBalancer.released(a, 1);
+        loadBalancer.acquired(b);
+        Assert.assertSame(a, loadBalancer.select(twoDataSourceList));
+    }
+
+    @Test
+    public void 最小平均耗时() {
+        LoadBalancer loadBalancer = new EwmaLoadBalancer(0.5, 1000);
+        List<DataSource> twoDataSourceList = Arrays.asList(a, b);
+        for (int i = 0; i < 10; i++) {
+            loadBalancer.acquired(a);
+            loadBalancer.released(a, 1_000_000);
+            loadBalancer.acquired(b);
+            loadBalancer.released(b, 50_000_000);
+        }
+        for (int i = 0; i < 20; i++) {
+            Assert.assertSame(a, loadBalancer.select(twoDataSourceList));
+        }
+    }
+
+    @Test
+    public void 写后读() {
+        ContainerBootstrap container = ContainerBootstrap.buildAndBootstrap();
+        container.getBean(GaarasonDatabaseProperties.class).getLoadBalance().setReadYourWritesMillis(60000);
+        GaarasonDataSourceWrapper gaarasonDataSource = (GaarasonDataSourceWrapper) GaarasonDataSourceBuilder.build(
+            Collections.singletonList(a), Arrays.asList(b, c), container);
+
+        // 写之前, 读使用读连接
+        Assert.assertNotEquals("a", connectionName(gaarasonDataSource, false));
+        // 仅获取写连接, 不算写操作
+        Assert.assertEquals("a", connectionName(gaarasonDataSource, true));
+        gaarasonDataSource.getConnection();
+        Assert.assertNotEquals("a", connectionName(gaarasonDataSource, false));
+        Assert.assertNull(gaarasonDataSource.getLocalThreadLastWriteTime());
+        // 写之后, 读使用写连接
+        gaarasonDataSource.markLocalThreadWrite();
+        Assert.assertEquals("a", connectionName(gaarasonDataSource, false));
+        Long lastWriteTime = gaarasonDataSource.getLocalThreadLastWriteTime();
+        Assert.assertNotNull(lastWriteTime);
+
+        // 其他线程不受影响
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(
+            () -> connectionName(gaarasonDataSource, false));
+        Assert.assertNotEquals("a", future.join());
+
+        // 时间窗口结束后, 读使用读连接
+        gaarasonDataSource.setLocalThreadLastWriteTime(lastWriteTime - 60000);
+        Assert.assertNotEquals("a", connectionName(gaarasonDataSource, false));
+        Assert.assertNull(gaarasonDataSource.getLocalThreadLastWriteTime());
+    }
+
+    @Test
+    public void 事务提交后读() {
+        ContainerBootstrap container = ContainerBootstrap.buildAndBootstrap();
+        container.getBean(GaarasonDatabaseProperties.class).getLoadBalance().setReadYourWritesMillis(60000);
+        GaarasonDataSourceWrapper gaarasonDataSource = (GaarasonDataSourceWrapper) GaarasonDataSourceBuilder.build(
+            Collections.singletonList(a), Arrays.asList(b, c), container);
+
+        // 回滚的事务, 不算写操作
+        gaarasonDataSource.begin();
+        gaarasonDataSource.markLocalThreadWrite();
+        gaarasonDataSource.rollBack();
+        Assert.assertNull(gaarasonDataSource.getLocalThreadLastWriteTime());
+        Assert.assertNotEquals("a", connectionName(gaarasonDataSource, false));
+
+        // 提交之后, 读使用写连接
+        gaarasonDataSource.begin();
+        gaarasonDataSource.commit();
+        Assert.assertNotNull(gaarasonDataSource.getLocalThreadLastWriteTime());
+        Assert.assertEquals("a", connectionName(gaarasonDataSource, false));
+    }
+
+    @Test
+    public void 直接获取的连接不记录租约() throws Exception {
+        ContainerBootstrap container = ContainerBootstrap.buildAndBootstrap();
+        container.getBean(GaarasonDatabaseProperties.class)
+            .getLoadBalance()
+            .setStrategy(GaarasonDatabaseProperties.LoadBalance.Strategy.LEAST_IN_FLIGHT);
+        GaarasonDataSourceWrapper gaarasonDataSource = (GaarasonDataSourceWrapper) GaarasonDataSourceBuilder.build(
+            Arrays.asList(a, b), container);
+
+        Field leaseMapField = GaarasonDataSourceWrapper.class.getDeclaredField("leaseMap");
+        leaseMapField.setAccessible(true);
+        Map<?, ?> leaseMap = (Map<?, ?>) leaseMapField.get(gaarasonDataSource);
+
+        // 由调用方直接关闭的连接, 不经过 localConnectionClose, 不应留下租约
+        gaarasonDataSource.getConnection().close();
+        Assert.assertTrue(leaseMap.isEmpty());
+
+        // 经过 localConnectionClose 归还的连接, 租约被释放
+        Connection connection = gaarasonDataSource.getLocalConnection(true);
+        Assert.assertEquals(1, leaseMap.size());
+        gaarasonDataSource.localConnectionClose(connection);
+        Assert.assertTrue(leaseMap.isEmpty());
+    }
+
+    private static String connectionName(GaarasonDataSourceWrapper gaarasonDataSource, boolean isWrite) {
+        Connection connection = gaarasonDataSource.getLocalConnection(isWrite);
+        gaarasonDataSource.localConnectionClose(connection);
+        return connection.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package gaarason.database.test;
+
+import gaarason.database.appointment.QueryCacheStats;
+import gaarason.database.support.LocalQueryCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class LocalQueryCacheTests {
+
+    private static Map<String, Long> generations(LocalQueryCache cache, String... tags) {
+        Map<String, Long> generations = new HashMap<>();
+        for (String tag : tags) {
+            generations.put(tag, cache.generation(tag));
+        }
+        return generations;
+    }
+
+    @Test
+    public void getAndPut() {
+        LocalQueryCache cache = new LocalQueryCache(10, 1024, 0);
+        Assert.assertNull(cache.get("k1"));
+        cache.put("k1", "v1", 10, generations(cache, "student"));
+        Assert.assertEquals("v1", cache.get("k1"));
+
+        // 覆盖
+        cache.put("k1", "v2", 20, generations(cache, "student"));
+        Assert.assertEquals("v2", cache.get("k1"));
+
+        QueryCacheStats stats = cache.getStats();
+        Assert.assertEquals(2, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(1, stats.getSize());
+        Assert.assertEquals(20, stats.getWeight());
+    }
+
+    @Test
+    public void invalidate() {
+        LocalQueryCache cache = new LocalQueryCache(10, 1024, 0);
+        cache.put("k1", "v1", 10, generations(cache, "student"));
+        cache.put("k2", "v2", 10, generations(cache, "student", "teacher"));
+        cache.put("k3", "v3", 10, generations(cache, "teacher"));
+
+        cache.invalidate("student");
+        Assert.assertNull(cache.get("k1"));
+        Assert.assertNull(cache.get("k2"));
+        Assert.assertEquals("v3", cache.get("k3"));
+
+        cache.invalidate("teacher");
+        Assert.assertNull(cache.get("k3"));
+        Assert.assertEquals(0, cache.getStats().getSize());
+        Assert.assertEquals(0, cache.getStats().getWeight());
+        Assert.assertEquals(2, cache.getStats().getInvalidationCount());
+    }
+
+    @Test
+    public void evict() {
+        // 条目数
+        LocalQueryCache cache = new LocalQueryCache(2, 1024, 0);
+        cache.put("k1", "v1", 10, generations(cache, "student"));
+        cache.put("k2", "v2", 10, generations(cache, "student"));
+        // 访问后, k2 成为最久未访问的条目
+        Assert.assertEquals("v1", cache.get("k1"));
+        cache.put("k3", "v3", 10, generations(cache, "student"));
+        Assert.assertNull(cache.get("k2"));
+        Assert.assertEquals("v1", cache.get("k1"));
+        Assert.assertEquals("v3", cache.get("k3"));
+        Assert.assertEquals(1, cache.getStats().getEvictionCount());
+
+        // 字节数
+        LocalQueryCache cache2 = new LocalQueryCache(10, 100, 0);
+        cache2.put("k1", "v1", 60, generations(cache2, "student"));
+        cache2.put("k2", "v2", 60, generations(cache2, "student"));
+        Assert.assertNull(cache2.get("k1"));
+        Assert.assertEquals("v2", cache2.get("k2"));
+        // 超过容量的条目不缓存
+        cache2.put("k3", "v3", 101, generations(cache2, "student"));
+        Assert.assertNull(cache2.get("k3"));
+        Assert.assertEquals("v2", cache2.get("k2"));
+    }
+
+    @Test
+    public void expire() throws InterruptedException {
+        LocalQueryCache cache = new LocalQueryCache(10, 1024, 50);
+        cache.put("k1", "v1", 10, generations(cache, "student"));
+        Assert.assertEquals("v1", cache.get("k1"));
+        Thread.sleep(100);
+        Assert.assertNull(cache.get("k1"));
+        Assert.assertEquals(0, cache.getStats().getSize());
+        Assert.assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void 查询期间失效() {
+        LocalQueryCache cache = new LocalQueryCache(10, 1024, 0);
+        // 查询前获取版本
+        Map<String, Long> generations = generations(cache, "student");
+        // 查询期间, 其他线程写入并失效
+        cache.invalidate("student");
+        // 查询得到的结果可能已经过期, 不写入
+        cache.put("k1", "v1", 10, generations);
+        Assert.assertNull(cache.get("k1"));
+
+        cache.put("k1", "v2", 10, generations(cache, "student"));
+        Assert.assertEquals("v2", cache.get("k1"));
+    }
+
+    @Test
+    public void 分段() {
+        LocalQueryCache cache = new LocalQueryCache(10000, 1024 * 1024, 0);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("k" + i, "v" + i, 10, generations(cache, i % 2 == 0 ? "student" : "teacher"));
+        }
+        Assert.assertEquals(1000, cache.getStats().getSize());
+        Assert.assertEquals(10000, cache.getStats().getWeight());
+
+        // 失效作用于全部分段
+        cache.invalidate("student");
+        Assert.assertEquals(500, cache.getStats().getSize());
+        Assert.assertNull(cache.get("k0"));
+        Assert.assertEquals("v1", cache.get("k1"));
+    }
+}
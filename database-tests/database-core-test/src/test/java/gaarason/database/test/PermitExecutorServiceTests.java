@@ -0,0 +1,74 @@
+package gaarason.database.test;
+
+import gaarason.database.support.PermitExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class PermitExecutorServiceTests {
+
+    @Test
+    public void 限制同时执行的任务数量() throws Exception {
+        ExecutorService executorService = new PermitExecutorService(Executors.newFixedThreadPool(8), 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            }, executorService));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(maxRunning.get() <= 2);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void 等待许可的任务不占用线程池() throws Exception {
+        // 线程池仅 1 个线程且不排队, 等待许可的任务不应在线程池中阻塞, 也不应被拒绝
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>());
+        ExecutorService executorService = new PermitExecutorService(threadPool, 1);
+        AtomicInteger count = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(CompletableFuture.runAsync(count::incrementAndGet, executorService));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(10, count.get());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void 嵌套任务同样计数() throws Exception {
+        ExecutorService executorService = new PermitExecutorService(Executors.newFixedThreadPool(4), 1);
+        // 没有许可时, 嵌套任务在上级的线程中执行, 占用上级的许可, 不会相互等待
+        CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> {
+            Thread parent = Thread.currentThread();
+            return CompletableFuture.supplyAsync(() -> Thread.currentThread() == parent, executorService).join();
+        }, executorService);
+        Assert.assertTrue(future.get(10, TimeUnit.SECONDS));
+        executorService.shutdown();
+    }
+}
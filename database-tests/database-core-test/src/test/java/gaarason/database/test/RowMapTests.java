@@ -0,0 +1,140 @@
+package gaarason.database.test;
+
+import gaarason.database.contract.function.ColumnReaderFunctionalInterface;
+import gaarason.database.support.ColumnSchema;
+import gaarason.database.support.RowMap;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class RowMapTests {
+
+    private static RowMap newRowMap() {
+        ColumnSchema schema = new ColumnSchema(new String[]{"id", "name", "age"}, new int[]{1, 2, 3},
+            new ColumnReaderFunctionalInterface<?>[3]) {
+        };
+        return new RowMap(schema, new Object[]{1, "alice", null});
+    }
+
+    @Test
+    public void get() {
+        RowMap rowMap = newRowMap();
+        Assert.assertEquals(3, rowMap.size());
+        Assert.assertEquals(1, rowMap.get("id"));
+        Assert.assertEquals("alice", rowMap.get("name"));
+        Assert.assertNull(rowMap.get("age"));
+        Assert.assertTrue(rowMap.containsKey("age"));
+        Assert.assertFalse(rowMap.containsKey("sex"));
+        Assert.assertEquals(Arrays.asList("id", "name", "age"), new ArrayList<>(rowMap.keySet()));
+
+        Map<String, Object> hashMap = new HashMap<>();
+        hashMap.put("id", 1);
+        hashMap.put("name", "alice");
+        hashMap.put("age", null);
+        Assert.assertEquals(hashMap, rowMap);
+        Assert.assertEquals(hashMap.hashCode(), rowMap.hashCode());
+    }
+
+    @Test
+    public void putAndRemove() {
+        RowMap rowMap = newRowMap();
+        Assert.assertEquals("alice", rowMap.put("name", "bob"));
+        Assert.assertEquals("bob", rowMap.get("name"));
+
+        // 额外的列
+        Assert.assertNull(rowMap.put("sex", 2));
+        Assert.assertEquals(4, rowMap.size());
+        Assert.assertEquals(2, rowMap.get("sex"));
+
+        Assert.assertEquals(1, rowMap.remove("id"));
+        Assert.assertFalse(rowMap.containsKey("id"));
+        Assert.assertEquals(3, rowMap.size());
+        Assert.assertEquals(Arrays.asList("name", "age", "sex"), new ArrayList<>(rowMap.keySet()));
+
+        Assert.assertNull(rowMap.put("id", 3));
+        Assert.assertEquals(4, rowMap.size());
+
+        rowMap.clear();
+        Assert.assertTrue(rowMap.isEmpty());
+        Assert.assertNull(rowMap.get("name"));
+    }
+
+    @Test
+    public void snapshot() {
+        RowMap rowMap = newRowMap();
+        RowMap snapshot = rowMap.snapshot();
+        Assert.assertEquals(rowMap, snapshot);
+
+        // 原对象修改, 快照不变
+        rowMap.put("name", "bob");
+        Assert.assertEquals("alice", snapshot.get("name"));
+
+        // 快照修改, 原对象不变
+        snapshot.put("id", 2);
+        Assert.assertEquals(1, rowMap.get("id"));
+
+        rowMap.clear();
+        Assert.assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    public void entrySet() {
+        RowMap rowMap = newRowMap();
+        for (Map.Entry<String, Object> entry : rowMap.entrySet()) {
+            if ("age".equals(entry.getKey())) {
+                entry.setValue(18);
+            }
+        }
+        Assert.assertEquals(18, rowMap.get("age"));
+
+        rowMap.entrySet().removeIf(entry -> "name".equals(entry.getKey()));
+        Assert.assertFalse(rowMap.containsKey("name"));
+        Assert.assertEquals(2, rowMap.size());
+    }
+
+    @Test
+    public void 同名列保留第一个() throws SQLException {
+        // select `student`.*, `teacher`.`id`, `teacher`.`name` ... 列名重复
+        String[] labels = {"id", "name", "id", "name"};
+        Object[] row = {1, "alice", 2, "bob"};
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(RowMapTests.class.getClassLoader(),
+            new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.length;
+                    case "getColumnLabel":
+                        return labels[(Integer) args[0] - 1];
+                    default:
+                        throw new UnsupportedOperationException(method.toString());
+                }
+            });
+        List<Integer> readIndexes = new ArrayList<>();
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(RowMapTests.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                if (!"getObject".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.toString());
+                }
+                readIndexes.add((Integer) args[0]);
+                return row[(Integer) args[0] - 1];
+            });
+
+        ColumnSchema schema = ColumnSchema.of(metaData, columnName -> ResultSet::getObject);
+        RowMap rowMap = schema.read(resultSet);
+
+        // 与 resultSet.getObject(label) 一致, 第一个同名的列生效, 之后的不再读取
+        Assert.assertEquals(2, rowMap.size());
+        Assert.assertEquals(1, rowMap.get("id"));
+        Assert.assertEquals("alice", rowMap.get("name"));
+        Assert.assertEquals(Arrays.asList(1, 2), readIndexes);
+    }
+}
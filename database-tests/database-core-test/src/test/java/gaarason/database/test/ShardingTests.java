@@ -0,0 +1,137 @@
+package gaarason.database.test;
+
+import gaarason.database.connection.sharding.*;
+import gaarason.database.appointment.SqlType;
+import gaarason.database.contract.connection.ShardingStrategy;
+import gaarason.database.exception.AbnormalParameterException;
+import gaarason.database.query.grammars.MySqlGrammar;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+@Slf4j
+@FixMethodOrder(MethodSorters.JVM)
+public class ShardingTests {
+
+    @Test
+    public void 哈希分片() {
+        ShardingStrategy strategy = new HashShardingStrategy(Arrays.asList("db0", "db1", "db2"));
+        Assert.assertEquals("db0", strategy.shard(3L));
+        Assert.assertEquals("db1", strategy.shard(4));
+        Assert.assertEquals("db2", strategy.shard(-1));
+        Assert.assertEquals(strategy.shard("alice"), strategy.shard("alice"));
+        Assert.assertEquals(Arrays.asList("db0", "db1", "db2"), new ArrayList<>(strategy.shards()));
+    }
+
+    @Test
+    public void 表后缀分片() {
+        ShardingStrategy strategy = new TableSuffixShardingStrategy("order", 64);
+        Assert.assertEquals("order_0", strategy.shard(128));
+        Assert.assertEquals("order_63", strategy.shard(127L));
+        Assert.assertEquals(64, strategy.shards().size());
+    }
+
+    @Test
+    public void 范围分片() {
+        ShardingStrategy strategy = new RangeShardingStrategy().range(0, "db0").range(1000, "db1").range(2000, "db0");
+        Assert.assertEquals("db0", strategy.shard(999));
+        Assert.assertEquals("db1", strategy.shard("1000"));
+        Assert.assertEquals("db0", strategy.shard(5000L));
+        Assert.assertEquals(Arrays.asList("db0", "db1"), new ArrayList<>(strategy.shards()));
+        Assert.assertThrows(AbnormalParameterException.class, () -> strategy.shard(-1));
+    }
+
+    @Test
+    public void 分片提示() {
+        Assert.assertNull(ShardingHint.get());
+        String shardName = ShardingHint.execute("db1", () -> ShardingHint.execute("db2", ShardingHint::get));
+        Assert.assertEquals("db2", shardName);
+        Assert.assertNull(ShardingHint.get());
+
+        ShardingStrategy strategy = new HashShardingStrategy(Arrays.asList("db0", "db1"));
+        Assert.assertEquals("db1", ShardingHint.execute(strategy, 1, ShardingHint::get));
+
+        // 分表策略写入表通道, 不影响链接通道
+        ShardingStrategy tableStrategy = new TableSuffixShardingStrategy("order", 64);
+        ShardingHint.execute(strategy, 1, () -> ShardingHint.execute(tableStrategy, 2, () -> {
+            Assert.assertEquals("db1", ShardingHint.get());
+            Assert.assertEquals("order_2", ShardingHint.getTable("order"));
+            return null;
+        }));
+        Assert.assertNull(ShardingHint.get());
+        Assert.assertNull(ShardingHint.getTable("order"));
+    }
+
+    @Test
+    public void 分片提示_异步传递() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        String[] hint = ShardingHint.execute("db1", () -> ShardingHint.executeTable("order", "order_1", () -> {
+            Supplier<String[]> task = ShardingHint.wrap(() -> new String[]{ShardingHint.get(), ShardingHint.getTable("order")});
+            try {
+                return executorService.submit(task::get).get();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        Assert.assertArrayEquals(new String[]{"db1", "order_1"}, hint);
+        // 执行完成后, 执行线程恢复原状
+        Assert.assertNull(executorService.submit(ShardingHint::get).get());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void 跨分片查询() {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        ShardingStrategy strategy = new HashShardingStrategy(Arrays.asList("db0", "db1", "db2"));
+        Map<String, List<Integer>> data = new HashMap<>();
+        data.put("db0", Arrays.asList(1, 4, 7, 10));
+        data.put("db1", Arrays.asList(2, 5, 8));
+        data.put("db2", Arrays.asList(3, 6, 9, 11, 12));
+
+        // 每个分片中, 执行时的分片提示即为该分片
+        List<List<Integer>> results = ShardingFanOut.query(strategy, shardName -> {
+            Assert.assertEquals(shardName, ShardingHint.get());
+            return data.get(shardName);
+        }, executorService);
+        Assert.assertEquals(data.get("db1"), results.get(1));
+
+        // order by limit 3, 4
+        List<Integer> merged = ShardingFanOut.mergeSorted(results, Comparator.naturalOrder(), 3, 4);
+        Assert.assertEquals(Arrays.asList(4, 5, 6, 7), merged);
+        Assert.assertEquals(12, ShardingFanOut.mergeSorted(results, Comparator.naturalOrder(), 0, 100).size());
+
+        // 分表的跨分片查询, 沿用提交线程的链接
+        ShardingStrategy tableStrategy = new TableSuffixShardingStrategy("order", 4);
+        List<String> hints = ShardingHint.execute("db1", () -> ShardingFanOut.query(tableStrategy,
+            tableName -> ShardingHint.get() + "." + ShardingHint.getTable("order"), executorService));
+        Assert.assertEquals(Arrays.asList("db1.order_0", "db1.order_1", "db1.order_2", "db1.order_3"), hints);
+
+        // 异常透传
+        Assert.assertThrows(IllegalStateException.class, () -> ShardingFanOut.query(strategy, shardName -> {
+            throw new IllegalStateException(shardName);
+        }, executorService));
+        executorService.shutdown();
+    }
+
+    @Test
+    public void 分表路由() {
+        ShardingStrategy tableStrategy = new TableSuffixShardingStrategy("order", 4);
+        // 逻辑表使用分表, 其他表不受影响
+        String sql = ShardingHint.execute(tableStrategy, 7, () -> new MySqlGrammar("order").generateSql(SqlType.SELECT)
+            .getSqlString());
+        Assert.assertEquals("select * from `order_3` as `order_0`", sql.trim());
+        String otherSql = ShardingHint.execute(tableStrategy, 7, () -> new MySqlGrammar("user").generateSql(
+            SqlType.DELETE).getSqlString());
+        Assert.assertEquals("delete from `user`", otherSql.trim());
+        // 没有分片提示时, 使用逻辑表
+        Assert.assertEquals("select * from `order` as `order_0`",
+            new MySqlGrammar("order").generateSql(SqlType.SELECT).getSqlString().trim());
+    }
+}
@@ -48,6 +48,35 @@ public void all() {
         }
     }
 
+    @Test
+    public void deque() {
+        RecordList<StudentModel.Entity, Integer> copy = studentModel.newQuery().orderBy("id").get();
+        int size = copy.size();
+        Record<StudentModel.Entity, Integer> first = copy.getFirst();
+        Record<StudentModel.Entity, Integer> last = copy.getLast();
+        Assert.assertEquals(1, first.getEntity().getId().intValue());
+        Assert.assertEquals(copy.get(size - 1), last);
+        Assert.assertEquals(first, copy.peek());
+
+        // 倒序迭代
+        Iterator<Record<StudentModel.Entity, Integer>> iterator = copy.descendingIterator();
+        Assert.assertEquals(last, iterator.next());
+
+        // 头尾操作
+        Assert.assertEquals(first, copy.pollFirst());
+        Assert.assertEquals(last, copy.removeLast());
+        copy.push(last);
+        Assert.assertEquals(last, copy.get(0));
+        copy.offerLast(first);
+        Assert.assertEquals(first, copy.peekLast());
+        Assert.assertEquals(size, copy.size());
+
+        copy.clear();
+        Assert.assertNull(copy.pollLast());
+        Assert.assertNull(copy.peekFirst());
+        Assert.assertThrows(NoSuchElementException.class, copy::getFirst);
+    }
+
     @Test
     public void avg() {
         final BigDecimal decimal = records.avg("age");
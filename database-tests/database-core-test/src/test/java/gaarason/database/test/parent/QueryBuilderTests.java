@@ -1,12 +1,15 @@
 package gaarason.database.test.parent;
 
 import gaarason.database.appointment.*;
+import gaarason.database.config.GaarasonDatabaseProperties;
 import gaarason.database.contract.connection.GaarasonDataSource;
 import gaarason.database.contract.eloquent.Builder;
+import gaarason.database.contract.eloquent.CompiledQuery;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
 import gaarason.database.contract.record.FriendlyList;
 import gaarason.database.contract.support.ShowType;
+import gaarason.database.exception.AbnormalParameterException;
 import gaarason.database.exception.ConfirmOperationException;
 import gaarason.database.exception.EntityNotFoundException;
 import gaarason.database.test.config.MySqlBuilderV2;
@@ -27,6 +30,8 @@
 import java.text.SimpleDateFormat;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 @Slf4j
 @FixMethodOrder(MethodSorters.JVM)
@@ -248,6 +253,60 @@ protected List<TABLE> getInitTables() {
         Assert.assertEquals(51, records.size());
     }
 
+    @Test
+    public void 新增_使用list单次新增多条记录_列不一致() {
+        List<Map<String, Object>> entityList = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", "姓名" + i);
+            // 交替出现不同的列
+            if (i % 2 == 0) {
+                map.put("age", 13);
+            }
+            map.put("sex", 1);
+            entityList.add(map);
+        }
+        List<Integer> ids = studentModel.newQuery().values(entityList).insertGetIds();
+        Assert.assertEquals(3000, ids.size());
+
+        // 主键按照数据传入的顺序排列
+        for (int i = 0; i < 3000; i += 777) {
+            StudentModel.Entity entity = studentModel.findOrFail(ids.get(i)).toObject();
+            Assert.assertEquals("姓名" + i, entity.getName());
+        }
+    }
+
+    @Test
+    public void 新增_使用list单次新增多条记录_拆分并行() {
+        GaarasonDatabaseProperties.BatchInsert batchInsert = studentModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(GaarasonDatabaseProperties.class)
+            .getBatchInsert();
+        List<Map<String, Object>> entityList = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", "姓名" + i);
+            map.put("sex", 1);
+            entityList.add(map);
+        }
+        // 拆分为 30 条语句, 同时执行的不超过 2 条
+        batchInsert.setMaxRows(100);
+        batchInsert.setParallel(true);
+        batchInsert.setParallelism(2);
+        try {
+            List<Integer> ids = studentModel.newQuery().values(entityList).insertGetIds();
+            Assert.assertEquals(3000, ids.size());
+            for (int i = 0; i < 3000; i += 777) {
+                StudentModel.Entity entity = studentModel.findOrFail(ids.get(i)).toObject();
+                Assert.assertEquals("姓名" + i, entity.getName());
+            }
+        } finally {
+            batchInsert.setMaxRows(0);
+            batchInsert.setParallel(false);
+            batchInsert.setParallelism(4);
+        }
+    }
+
     @Test
     public void 新增_使用ValueList单次新增多条记录() {
         List<String> columnNameList = new ArrayList<>();
@@ -276,6 +335,46 @@ protected List<TABLE> getInitTables() {
 
     }
 
+    @Test
+    public void 更新_根据主键批量更新() {
+        List<StudentModel.Entity> entityList = studentModel.newQuery().orderBy("id").get().toObjectList();
+        for (StudentModel.Entity entity : entityList) {
+            entity.setName("批量" + entity.getId());
+            entity.setAge(Byte.valueOf("20"));
+        }
+        int update = studentModel.updateBatch(entityList);
+        Assert.assertEquals(entityList.size(), update);
+
+        for (StudentModel.Entity entity : studentModel.newQuery().get().toObjectList()) {
+            Assert.assertEquals("批量" + entity.getId(), entity.getName());
+            Assert.assertEquals(20, entity.getAge().intValue());
+        }
+    }
+
+    @Test
+    public void 更新_根据主键批量更新_拆分() {
+        GaarasonDatabaseProperties.BatchUpdate batchUpdate = studentModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(GaarasonDatabaseProperties.class)
+            .getBatchUpdate();
+        List<StudentModel.Entity> entityList = studentModel.newQuery().orderBy("id").get().toObjectList();
+        for (StudentModel.Entity entity : entityList) {
+            entity.setName("拆分" + entity.getId());
+        }
+        // 每条语句 3 行
+        batchUpdate.setMaxRows(3);
+        try {
+            int update = studentModel.updateBatch(entityList);
+            Assert.assertEquals(entityList.size(), update);
+        } finally {
+            batchUpdate.setMaxRows(0);
+        }
+
+        for (StudentModel.Entity entity : studentModel.newQuery().get().toObjectList()) {
+            Assert.assertEquals("拆分" + entity.getId(), entity.getName());
+        }
+    }
+
     @Test
     public void 更新_普通更新_data() {
         int update = studentModel.newQuery().data("name", "xxcc").where("id", "3").update();
@@ -612,6 +711,33 @@ protected List<TABLE> getInitTables() {
         });
     }
 
+    @Test
+    public void 查询_查询模板() {
+        CompiledQuery<StudentModel.Entity, Integer> compiledQuery = studentModel.newQuery()
+            .where("sex", NamedParameter.of("sex"))
+            .where("age", ">", NamedParameter.of("age"))
+            .orderBy("id")
+            .compile();
+        Assert.assertEquals(Arrays.asList("sex", "age"), compiledQuery.getParameterNames());
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("sex", 1);
+        parameters.put("age", 10);
+        List<StudentModel.Entity> entityList1 = compiledQuery.get(parameters).toObjectList();
+        List<StudentModel.Entity> entityList2 = studentModel.newQuery().where("sex", 1).where("age", ">", 10)
+            .orderBy("id").get().toObjectList();
+        Assert.assertEquals(entityList2, entityList1);
+
+        parameters.put("sex", 2);
+        Assert.assertEquals((long) studentModel.newQuery().where("sex", 2).where("age", ">", 10).count(),
+            (long) compiledQuery.get(parameters).size());
+
+        parameters.remove("age");
+        Assert.assertThrows(AbnormalParameterException.class, () -> compiledQuery.get(parameters));
+        Assert.assertThrows(ConfirmOperationException.class,
+            () -> studentModel.newQuery().data("name", NamedParameter.of("name")).compile(SqlType.UPDATE));
+    }
+
     @Test
     public void 查询_select() {
         StudentModel.Entity s = studentModel.newQuery().where("id", "1").firstOrFail().toObject();
@@ -705,6 +831,97 @@ protected List<TABLE> getInitTables() {
         System.out.println("执行消耗的内存差: " + orz);
     }
 
+    @Test
+    public void 查询_多条记录_分块_主键索引与预取() {
+        List<Integer> expected = studentModel.newQuery().orderBy("id").get().toList(record -> record.toObject().getId());
+
+        // 默认使用主键索引分页
+        List<Integer> ids = new ArrayList<>();
+        studentModel.newQuery().dealChunk(3, records -> {
+            ids.addAll(records.toList(record -> record.toObject().getId()));
+            return true;
+        });
+        Assert.assertEquals(expected, ids);
+
+        // 预取下一块
+        List<Integer> prefetchIds = new ArrayList<>();
+        studentModel.newQuery().dealChunk(3, true, records -> {
+            prefetchIds.addAll(records.toList(record -> record.toObject().getId()));
+            return true;
+        });
+        Assert.assertEquals(expected, prefetchIds);
+
+        // 提前结束
+        List<Integer> stopIds = new ArrayList<>();
+        studentModel.newQuery().dealChunk(3, true, records -> {
+            stopIds.addAll(records.toList(record -> record.toObject().getId()));
+            return false;
+        });
+        Assert.assertEquals(expected.subList(0, 3), stopIds);
+
+        // 存在 order 时使用偏移分页
+        List<Integer> orderIds = new ArrayList<>();
+        studentModel.newQuery().orderBy("id", OrderBy.DESC).dealChunk(3, records -> {
+            orderIds.addAll(records.toList(record -> record.toObject().getId()));
+            return true;
+        });
+        Collections.reverse(orderIds);
+        Assert.assertEquals(expected, orderIds);
+    }
+
+    @Test
+    public void 查询_多条记录_分块_并行处理() {
+        List<Integer> expected = studentModel.newQuery().orderBy("id").get().toList(record -> record.toObject().getId());
+
+        List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+        studentModel.newQuery().dealChunkParallel(2, 3, records -> {
+            ids.addAll(records.toList(record -> record.toObject().getId()));
+            return true;
+        });
+        ids.sort(Integer::compareTo);
+        Assert.assertEquals(expected, ids);
+
+        // 异常传递
+        Assert.assertThrows(IllegalStateException.class, () -> studentModel.newQuery().dealChunkParallel(2, 3, records -> {
+            throw new IllegalStateException("test");
+        }));
+
+        // 提前结束
+        AtomicInteger times = new AtomicInteger();
+        studentModel.newQuery().dealChunkParallel(2, 1, records -> {
+            times.incrementAndGet();
+            return false;
+        });
+        Assert.assertEquals(1, times.get());
+    }
+
+    @Test
+    public void 查询_多条记录_游标() {
+        RecordList<StudentModel.Entity, Integer> records = studentModel.newQuery().orderBy("id").get();
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Record<StudentModel.Entity, Integer>> stream = studentModel.newQuery().orderBy("id").cursor(2)) {
+            stream.forEach(record -> ids.add(record.toObject().getId()));
+        }
+        Assert.assertEquals(records.size(), ids.size());
+        Assert.assertEquals(records.toList(record -> record.toObject().getId()), ids);
+
+        // 提前结束, 连接应被归还
+        for (int i = 0; i < 100; i++) {
+            try (Stream<Record<StudentModel.Entity, Integer>> stream = studentModel.newQuery().cursor()) {
+                Optional<Record<StudentModel.Entity, Integer>> first = stream.findFirst();
+                Assert.assertTrue(first.isPresent());
+            }
+        }
+
+        // 为空
+        try (Stream<Record<StudentModel.Entity, Integer>> stream = studentModel.newQuery().where("id", "12321").cursor()) {
+            Assert.assertEquals(0, stream.count());
+        }
+
+        // 不支持关联关系
+        Assert.assertThrows(AbnormalParameterException.class, () -> studentModel.newQuery().with("teacher").cursor());
+    }
+
     @Test
     public void 查询_多条记录_分块_为空时不再执行() {
         studentModel.newQuery().where("id", "12321").dealChunk(10, records -> {
@@ -1174,6 +1391,67 @@ protected List<TABLE> getInitTables() {
         Assert.assertEquals(entityList3.size(), 3);
     }
 
+    @Test
+    public void 条件_whereIn_拆分() {
+        GaarasonDatabaseProperties.WhereIn whereIn = studentModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(GaarasonDatabaseProperties.class)
+            .getWhereIn();
+        List<Object> idList = Arrays.asList(1, 2, 3, 3, 4, 5, 6, 7, 100);
+        List<StudentModel.Entity> entityList1 = studentModel.newQuery()
+            .whereIn("id", idList)
+            .where("sex", 1)
+            .get()
+            .toObjectList();
+        whereIn.setMaxSize(2);
+        whereIn.setBucket(true);
+        whereIn.setChunkSize(3);
+        try {
+            // 拆分为多个 in 列表, 每个列表补齐到 2 的幂
+            String sql = studentModel.newQuery().whereIn("id", 1, 2, 3).toSql(SqlType.SELECT);
+            Assert.assertTrue(sql.contains(" or "));
+            Assert.assertTrue(sql.contains("in(\"3\",\"3\")"));
+
+            // 拆分为多条语句查询
+            List<StudentModel.Entity> entityList2 = studentModel.newQuery()
+                .whereIn("id", idList)
+                .where("sex", 1)
+                .get()
+                .toObjectList();
+            Assert.assertEquals(entityList1, entityList2);
+
+            whereIn.setParallel(true);
+            List<StudentModel.Entity> entityList3 = studentModel.newQuery()
+                .whereIn("id", idList)
+                .where("sex", 1)
+                .get()
+                .toObjectList();
+            Assert.assertEquals(entityList1, entityList3);
+
+            // 存在 limit 时不拆分
+            Assert.assertEquals(2, studentModel.newQuery().whereIn("id", idList).limit(2).get().size());
+
+            // 存在顶层 or 时不拆分, 否则每条语句都会命中 or 的分支
+            List<StudentModel.Entity> entityList4 = studentModel.newQuery()
+                .whereIn("id", idList)
+                .orWhere(builder -> builder.where("id", 8))
+                .get()
+                .toObjectList();
+            Assert.assertEquals(8, entityList4.size());
+            List<StudentModel.Entity> entityList5 = studentModel.newQuery()
+                .where("id", 8)
+                .orWhere(builder -> builder.whereIn("id", idList))
+                .get()
+                .toObjectList();
+            Assert.assertEquals(8, entityList5.size());
+        } finally {
+            whereIn.setMaxSize(1000);
+            whereIn.setBucket(false);
+            whereIn.setChunkSize(0);
+            whereIn.setParallel(false);
+        }
+    }
+
     @Test
     public void 条件_whereInIgnoreEmpty() {
         List<Object> idList = new ArrayList<>();
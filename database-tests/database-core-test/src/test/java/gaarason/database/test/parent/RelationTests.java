@@ -2,6 +2,8 @@
 
 import gaarason.database.appointment.OrderBy;
 import gaarason.database.appointment.Paginate;
+import gaarason.database.appointment.SqlType;
+import gaarason.database.config.GaarasonDatabaseProperties;
 import gaarason.database.contract.connection.GaarasonDataSource;
 import gaarason.database.contract.eloquent.Record;
 import gaarason.database.contract.eloquent.RecordList;
@@ -215,6 +217,72 @@ protected List<TABLE> getInitTables() {
     }
 
 
+    @Test
+    public void 一对一关系_一对多关系_同级关系_并发() {
+        GaarasonDatabaseProperties.Relation relation = studentModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(GaarasonDatabaseProperties.class)
+            .getRelation();
+        List<Student> sequential = studentModel.newQuery()
+            .with("teacher.students")
+            .with("relationshipStudentTeachers")
+            .with("teachersBelongsToMany")
+            .get()
+            .toObjectList();
+        relation.setConcurrent(true);
+        try {
+            List<Student> concurrent = studentModel.newQuery()
+                .with("teacher.students")
+                .with("relationshipStudentTeachers")
+                .with("teachersBelongsToMany")
+                .get()
+                .toObjectList();
+            Assert.assertEquals(sequential.toString(), concurrent.toString());
+            Assert.assertNotNull(concurrent.get(0).getTeacher());
+            Assert.assertNotNull(concurrent.get(0).getTeacher().getStudents());
+            Assert.assertFalse(concurrent.get(0).getRelationshipStudentTeachers().isEmpty());
+
+            // 事务中, 依旧顺序查询
+            studentModel.newQuery().transaction(() -> {
+                List<Student> inTransaction = studentModel.newQuery()
+                    .with("teacher.students")
+                    .with("relationshipStudentTeachers")
+                    .with("teachersBelongsToMany")
+                    .get()
+                    .toObjectList();
+                Assert.assertEquals(sequential.toString(), inTransaction.toString());
+            }, 1);
+        } finally {
+            relation.setConcurrent(false);
+        }
+    }
+
+    @Test
+    public void 一对一关系_一对多关系_多对多关系_拆分查询() {
+        GaarasonDatabaseProperties.WhereIn whereIn = studentModel.getGaarasonDataSource()
+            .getContainer()
+            .getBean(GaarasonDatabaseProperties.class)
+            .getWhereIn();
+        List<Student> whole = studentModel.newQuery()
+            .with("teacher.students")
+            .with("relationshipStudentTeachers")
+            .with("teachersBelongsToMany")
+            .get()
+            .toObjectList();
+        whereIn.setChunkSize(2);
+        try {
+            List<Student> chunked = studentModel.newQuery()
+                .with("teacher.students")
+                .with("relationshipStudentTeachers")
+                .with("teachersBelongsToMany")
+                .get()
+                .toObjectList();
+            Assert.assertEquals(whole.toString(), chunked.toString());
+        } finally {
+            whereIn.setChunkSize(0);
+        }
+    }
+
     @Test
     public void 指定select() {
 
@@ -1869,9 +1937,13 @@ public void whereHas_belongsTo_self() {
         System.out.println(studentList);
         Assert.assertEquals(9, studentList.size());
 
-        // select * from student where exists (select * from teacher where `sex`="1" and `student`.`teacher_id`=`teacher`.`id`) order by `id` asc
+        // 自关联时, 子查询使用深一层的别名
+        // select * from `student` as `student_0` where exists (select * from `student` as `student_1` where `student_1`.`age`="11" and `student_0`.`teacher_id`=`student_1`.`id`)
+        String sql = studentModel.newQuery().whereHas("self", builder -> builder.where("age", 11)).toSql(SqlType.SELECT);
+        Assert.assertTrue(sql.contains("`student_0`.`teacher_id`=`student_1`.`id`"));
+
         List<Student> students = studentModel.newQuery()
-                .whereHas("teacher", builder -> builder.where("sex", 1))
+                .whereHas("self", builder -> builder.where("age", 11))
                 .orderBy(Student::getId)
                 .get()
                 .toObjectList();
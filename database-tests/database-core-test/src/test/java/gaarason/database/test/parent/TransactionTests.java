@@ -360,4 +360,23 @@ protected List<TABLE> getInitTables() {
         }, 3);
     }
 
+    @Test
+    public void 事物_预执行对象缓存() {
+        GaarasonDataSource gaarasonDataSource = getGaarasonDataSource();
+        long hit = gaarasonDataSource.getStatementCacheHitCount();
+        long miss = gaarasonDataSource.getStatementCacheMissCount();
+        studentModel.newQuery().transaction(() -> {
+            for (int i = 1; i <= 5; i++) {
+                Assert.assertEquals(i, studentModel.newQuery().where("id", i).firstOrFail().getEntity().getId().intValue());
+            }
+        });
+        // 同sql只预执行一次
+        Assert.assertEquals(miss + 1, gaarasonDataSource.getStatementCacheMissCount());
+        Assert.assertEquals(hit + 4, gaarasonDataSource.getStatementCacheHitCount());
+
+        // 非事务中不缓存
+        studentModel.newQuery().where("id", 1).firstOrFail();
+        Assert.assertEquals(miss + 1, gaarasonDataSource.getStatementCacheMissCount());
+    }
+
 }